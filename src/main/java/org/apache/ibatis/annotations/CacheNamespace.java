@@ -45,6 +45,13 @@ public @interface CacheNamespace {
 
   boolean blocking() default false;
 
+  /**
+   * Whether concurrent misses for the same key wait for a single load instead of all querying the database.
+   * Takes precedence over {@link #blocking()}.
+   * @since 3.5.3
+   */
+  boolean coalescing() default false;
+
   /**
    * Property values for a implementation object.
    * @since 3.4.2
@@ -33,4 +33,18 @@ public @interface Many {
 
   FetchType fetchType() default FetchType.DEFAULT;
 
+  /**
+   * The statement that loads the results of several rows at once, with the list of their parameters.
+   *
+   * @since 3.5.3
+   */
+  String batchSelect() default "";
+
+  /**
+   * The property of the objects loaded by {@link #batchSelect()} that holds the parameter of {@link #select()}.
+   *
+   * @since 3.5.3
+   */
+  String batchKeyProperty() default "";
+
 }
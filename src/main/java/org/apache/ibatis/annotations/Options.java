@@ -63,4 +63,20 @@ public @interface Options {
   String keyColumn() default "";
 
   String resultSets() default "";
+
+  /**
+   * Whether the nested results of a main result are grouped together, like the <code>resultOrdered</code> attribute
+   * of a select element.
+   *
+   * @since 3.5.3
+   */
+  boolean resultOrdered() default false;
+
+  /**
+   * The tables the statement reads or writes, separated by commas, like the <code>tables</code> attribute of a
+   * statement element. When empty, the tables are parsed from the SQL.
+   *
+   * @since 3.5.3
+   */
+  String tables() default "";
 }
@@ -23,6 +23,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 import org.apache.ibatis.annotations.Flush;
 import org.apache.ibatis.annotations.MapKey;
@@ -33,10 +36,15 @@ import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.ParamNameResolver;
 import org.apache.ibatis.reflection.TypeParameterResolver;
+import org.apache.ibatis.session.AsyncSessionScope;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.Page;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.Seek;
 import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.defaults.DefaultSqlSessionFactory;
 
 /**
  * @author Clinton Begin
@@ -55,6 +63,13 @@ public class MapperMethod {
   }
 
   public Object execute(SqlSession sqlSession, Object[] args) {
+    if (method.returnsFuture()) {
+      return executeForFuture(sqlSession.getConfiguration(), args);
+    }
+    return executeSync(sqlSession, args);
+  }
+
+  private Object executeSync(SqlSession sqlSession, Object[] args) {
     Object result;
     switch (command.getType()) {
       case INSERT: {
@@ -82,6 +97,9 @@ public class MapperMethod {
           result = executeForMap(sqlSession, args);
         } else if (method.returnsCursor()) {
           result = executeForCursor(sqlSession, args);
+        } else if (method.returnsPage()) {
+          Object param = method.convertArgsToSqlCommandParam(args);
+          result = sqlSession.selectPage(command.getName(), param, method.extractSeek(args));
         } else {
           Object param = method.convertArgsToSqlCommandParam(args);
           result = sqlSession.selectOne(command.getName(), param);
@@ -104,6 +122,34 @@ public class MapperMethod {
     return result;
   }
 
+  /**
+   * Executes the statement on the asynchronous executor of the configuration, in a session of its own chosen by the
+   * asynchronous session scope.
+   */
+  private CompletableFuture<Object> executeForFuture(Configuration configuration, Object[] args) {
+    AsyncSessionScope sessionScope = configuration.getAsyncSessionScope();
+    if (sessionScope == AsyncSessionScope.NONE) {
+      throw new BindingException("Mapper method '" + command.getName() + "' returns a CompletableFuture, which requires"
+          + " the asyncSessionScope setting to choose the session it runs in.");
+    }
+    Executor executor = configuration.getAsyncExecutor();
+    if (executor == null) {
+      throw new BindingException("Mapper method '" + command.getName() + "' returns a CompletableFuture, which requires"
+          + " the asyncExecutor setting to choose the threads it runs on.");
+    }
+    SqlSessionFactory sqlSessionFactory = new DefaultSqlSessionFactory(configuration);
+    Supplier<Object> task = () -> {
+      try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+        Object result = executeSync(sqlSession, args);
+        if (sessionScope == AsyncSessionScope.COMMITTED_SESSION) {
+          sqlSession.commit();
+        }
+        return result;
+      }
+    };
+    return CompletableFuture.supplyAsync(task, executor);
+  }
+
   private Object rowCountResult(int rowCount) {
     final Object result;
     if (method.returnsVoid()) {
@@ -279,29 +325,47 @@ public class MapperMethod {
     private final boolean returnsVoid;
     private final boolean returnsCursor;
     private final boolean returnsOptional;
+    private final boolean returnsFuture;
+    private final boolean returnsPage;
     private final Class<?> returnType;
     private final String mapKey;
     private final Integer resultHandlerIndex;
     private final Integer rowBoundsIndex;
+    private final Integer seekIndex;
     private final ParamNameResolver paramNameResolver;
 
     public MethodSignature(Configuration configuration, Class<?> mapperInterface, Method method) {
       Type resolvedReturnType = TypeParameterResolver.resolveReturnType(method, mapperInterface);
+      this.returnsFuture = CompletableFuture.class.equals(method.getReturnType());
+      if (returnsFuture) {
+        // the statement result is the value of the future
+        resolvedReturnType = resolvedReturnType instanceof ParameterizedType
+            ? ((ParameterizedType) resolvedReturnType).getActualTypeArguments()[0] : Object.class;
+      }
       if (resolvedReturnType instanceof Class<?>) {
         this.returnType = (Class<?>) resolvedReturnType;
       } else if (resolvedReturnType instanceof ParameterizedType) {
         this.returnType = (Class<?>) ((ParameterizedType) resolvedReturnType).getRawType();
       } else {
-        this.returnType = method.getReturnType();
+        this.returnType = returnsFuture ? Object.class : method.getReturnType();
       }
-      this.returnsVoid = void.class.equals(this.returnType);
+      this.returnsVoid = void.class.equals(this.returnType) || (returnsFuture && Void.class.equals(this.returnType));
       this.returnsMany = configuration.getObjectFactory().isCollection(this.returnType) || this.returnType.isArray();
       this.returnsCursor = Cursor.class.equals(this.returnType);
       this.returnsOptional = Optional.class.equals(this.returnType);
-      this.mapKey = getMapKey(method);
+      this.returnsPage = Page.class.equals(this.returnType);
+      if (returnsFuture && returnsCursor) {
+        throw new BindingException(method.getName() + " cannot return a Cursor in a CompletableFuture because the session"
+            + " of an asynchronous method is closed when the method completes");
+      }
+      this.mapKey = getMapKey(method, returnsFuture ? this.returnType : method.getReturnType());
       this.returnsMap = this.mapKey != null;
       this.rowBoundsIndex = getUniqueParamIndex(method, RowBounds.class);
       this.resultHandlerIndex = getUniqueParamIndex(method, ResultHandler.class);
+      this.seekIndex = getUniqueParamIndex(method, Seek.class);
+      if (returnsPage != (seekIndex != null)) {
+        throw new BindingException(method.getName() + " must both return a Page and have a Seek parameter, or neither");
+      }
       this.paramNameResolver = new ParamNameResolver(configuration, method);
     }
 
@@ -317,6 +381,10 @@ public class MapperMethod {
       return hasRowBounds() ? (RowBounds) args[rowBoundsIndex] : null;
     }
 
+    public Seek extractSeek(Object[] args) {
+      return seekIndex != null ? (Seek) args[seekIndex] : null;
+    }
+
     public boolean hasResultHandler() {
       return resultHandlerIndex != null;
     }
@@ -358,6 +426,25 @@ public class MapperMethod {
       return returnsOptional;
     }
 
+    /**
+     * return whether return type is {@code java.util.concurrent.CompletableFuture}.
+     * When it is, {@link #getReturnType()} returns the type of the value of the future.
+     * @return return {@code true}, if return type is {@code java.util.concurrent.CompletableFuture}
+     * @since 3.5.3
+     */
+    public boolean returnsFuture() {
+      return returnsFuture;
+    }
+
+    /**
+     * return whether return type is {@link Page}, in which case the method has a {@link Seek} parameter.
+     * @return return {@code true}, if return type is {@link Page}
+     * @since 3.5.3
+     */
+    public boolean returnsPage() {
+      return returnsPage;
+    }
+
     private Integer getUniqueParamIndex(Method method, Class<?> paramType) {
       Integer index = null;
       final Class<?>[] argTypes = method.getParameterTypes();
@@ -373,9 +460,9 @@ public class MapperMethod {
       return index;
     }
 
-    private String getMapKey(Method method) {
+    private String getMapKey(Method method, Class<?> returnType) {
       String mapKey = null;
-      if (Map.class.isAssignableFrom(method.getReturnType())) {
+      if (Map.class.isAssignableFrom(returnType)) {
         final MapKey mapKeyAnnotation = method.getAnnotation(MapKey.class);
         if (mapKeyAnnotation != null) {
           mapKey = mapKeyAnnotation.value();
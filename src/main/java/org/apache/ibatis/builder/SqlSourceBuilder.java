@@ -18,6 +18,8 @@ package org.apache.ibatis.builder;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.SqlSource;
@@ -34,13 +36,26 @@ import org.apache.ibatis.type.JdbcType;
 public class SqlSourceBuilder extends BaseBuilder {
 
   private static final String PARAMETER_PROPERTIES = "javaType,jdbcType,mode,numericScale,resultMap,typeHandler,jdbcTypeName";
+  private static final int MAX_CACHED_PARAMETER_MAPPINGS = 1024;
+
+  private final ParameterMappingCache parameterMappingCache;
 
   public SqlSourceBuilder(Configuration configuration) {
+    this(configuration, false);
+  }
+
+  /**
+   * @param cacheParameterMappings whether parsed placeholders and the parameter mappings built from them are kept
+   *          and reused by later calls to {@link #parse(String, Class, Map)} on this builder
+   * @since 3.5.3
+   */
+  public SqlSourceBuilder(Configuration configuration, boolean cacheParameterMappings) {
     super(configuration);
+    this.parameterMappingCache = cacheParameterMappings ? new ParameterMappingCache() : null;
   }
 
   public SqlSource parse(String originalSql, Class<?> parameterType, Map<String, Object> additionalParameters) {
-    ParameterMappingTokenHandler handler = new ParameterMappingTokenHandler(configuration, parameterType, additionalParameters);
+    ParameterMappingTokenHandler handler = new ParameterMappingTokenHandler(configuration, parameterType, additionalParameters, parameterMappingCache);
     GenericTokenParser parser = new GenericTokenParser("#{", "}", handler);
     String sql = parser.parse(originalSql);
     return new StaticSqlSource(configuration, sql, handler.getParameterMappings());
@@ -51,11 +66,17 @@ public class SqlSourceBuilder extends BaseBuilder {
     private List<ParameterMapping> parameterMappings = new ArrayList<>();
     private Class<?> parameterType;
     private MetaObject metaParameters;
+    private ParameterMappingCache cache;
 
     public ParameterMappingTokenHandler(Configuration configuration, Class<?> parameterType, Map<String, Object> additionalParameters) {
+      this(configuration, parameterType, additionalParameters, null);
+    }
+
+    ParameterMappingTokenHandler(Configuration configuration, Class<?> parameterType, Map<String, Object> additionalParameters, ParameterMappingCache cache) {
       super(configuration);
       this.parameterType = parameterType;
       this.metaParameters = configuration.newMetaObject(additionalParameters);
+      this.cache = cache;
     }
 
     public List<ParameterMapping> getParameterMappings() {
@@ -69,7 +90,11 @@ public class SqlSourceBuilder extends BaseBuilder {
     }
 
     private ParameterMapping buildParameterMapping(String content) {
-      Map<String, String> propertiesMap = parseParameterMapping(content);
+      Map<String, String> propertiesMap = cache == null ? parseParameterMapping(content) : cache.propertiesMaps.get(content);
+      if (propertiesMap == null) {
+        propertiesMap = parseParameterMapping(content);
+        cache.put(cache.propertiesMaps, content, propertiesMap);
+      }
       String property = propertiesMap.get("property");
       Class<?> propertyType;
       if (metaParameters.hasGetter(property)) { // issue #448 get type from additional params
@@ -88,6 +113,19 @@ public class SqlSourceBuilder extends BaseBuilder {
           propertyType = Object.class;
         }
       }
+      if (cache == null) {
+        return buildParameterMapping(content, propertiesMap, property, propertyType);
+      }
+      MappingKey key = new MappingKey(content, propertyType);
+      ParameterMapping parameterMapping = cache.parameterMappings.get(key);
+      if (parameterMapping == null) {
+        parameterMapping = buildParameterMapping(content, propertiesMap, property, propertyType);
+        cache.put(cache.parameterMappings, key, parameterMapping);
+      }
+      return parameterMapping;
+    }
+
+    private ParameterMapping buildParameterMapping(String content, Map<String, String> propertiesMap, String property, Class<?> propertyType) {
       ParameterMapping.Builder builder = new ParameterMapping.Builder(configuration, property, propertyType);
       Class<?> javaType = propertyType;
       String typeHandlerAlias = null;
@@ -134,4 +172,46 @@ public class SqlSourceBuilder extends BaseBuilder {
     }
   }
 
+  /**
+   * Parsed placeholders and the parameter mappings built from them. Placeholders generated by foreach have unique
+   * names, so the number of cached entries is bounded.
+   */
+  private static class ParameterMappingCache {
+    private final Map<String, Map<String, String>> propertiesMaps = new ConcurrentHashMap<>();
+    private final Map<MappingKey, ParameterMapping> parameterMappings = new ConcurrentHashMap<>();
+
+    <K, V> void put(Map<K, V> map, K key, V value) {
+      if (map.size() < MAX_CACHED_PARAMETER_MAPPINGS) {
+        map.put(key, value);
+      }
+    }
+  }
+
+  private static class MappingKey {
+    private final String content;
+    private final Class<?> propertyType;
+
+    MappingKey(String content, Class<?> propertyType) {
+      this.content = content;
+      this.propertyType = propertyType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof MappingKey)) {
+        return false;
+      }
+      MappingKey other = (MappingKey) o;
+      return content.equals(other.content) && propertyType.equals(other.propertyType);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(content, propertyType);
+    }
+  }
+
 }
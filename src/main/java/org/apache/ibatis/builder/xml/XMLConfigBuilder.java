@@ -18,6 +18,7 @@ package org.apache.ibatis.builder.xml;
 import java.io.InputStream;
 import java.io.Reader;
 import java.util.Properties;
+import java.util.concurrent.Executor;
 import javax.sql.DataSource;
 
 import org.apache.ibatis.builder.BaseBuilder;
@@ -25,6 +26,8 @@ import org.apache.ibatis.builder.BuilderException;
 import org.apache.ibatis.datasource.DataSourceFactory;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.loader.ProxyFactory;
+import org.apache.ibatis.executor.metrics.StatementMetrics;
+import org.apache.ibatis.executor.pagination.Dialect;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.io.VFS;
 import org.apache.ibatis.logging.Log;
@@ -38,8 +41,10 @@ import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.ReflectorFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
+import org.apache.ibatis.session.AsyncSessionScope;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.AutoMappingUnknownColumnBehavior;
+import org.apache.ibatis.session.BatchGrouping;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.LocalCacheScope;
@@ -257,6 +262,9 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setMapUnderscoreToCamelCase(booleanValueOf(props.getProperty("mapUnderscoreToCamelCase"), false));
     configuration.setSafeRowBoundsEnabled(booleanValueOf(props.getProperty("safeRowBoundsEnabled"), false));
     configuration.setLocalCacheScope(LocalCacheScope.valueOf(props.getProperty("localCacheScope", "SESSION")));
+    configuration.setBatchGrouping(BatchGrouping.valueOf(props.getProperty("batchGrouping", "CONSECUTIVE")));
+    configuration.setBatchFlushRows(integerValueOf(props.getProperty("batchFlushRows"), null));
+    configuration.setBatchFlushBytes(integerValueOf(props.getProperty("batchFlushBytes"), null));
     configuration.setJdbcTypeForNull(JdbcType.valueOf(props.getProperty("jdbcTypeForNull", "OTHER")));
     configuration.setLazyLoadTriggerMethods(stringSetValueOf(props.getProperty("lazyLoadTriggerMethods"), "equals,clone,hashCode,toString"));
     configuration.setSafeResultHandlerEnabled(booleanValueOf(props.getProperty("safeResultHandlerEnabled"), true));
@@ -265,6 +273,25 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setCallSettersOnNulls(booleanValueOf(props.getProperty("callSettersOnNulls"), false));
     configuration.setUseActualParamName(booleanValueOf(props.getProperty("useActualParamName"), true));
     configuration.setReturnInstanceForEmptyRow(booleanValueOf(props.getProperty("returnInstanceForEmptyRow"), false));
+    configuration.setCompiledRowMappingEnabled(booleanValueOf(props.getProperty("compiledRowMappingEnabled"), false));
+    configuration.setDynamicSqlShortcutsEnabled(booleanValueOf(props.getProperty("dynamicSqlShortcutsEnabled"), false));
+    configuration.setCompiledParameterBindingEnabled(booleanValueOf(props.getProperty("compiledParameterBindingEnabled"), false));
+    configuration.setComposedPluginsEnabled(booleanValueOf(props.getProperty("composedPluginsEnabled"), false));
+    configuration.setColumnIndexMappingEnabled(booleanValueOf(props.getProperty("columnIndexMappingEnabled"), false));
+    configuration.setLightweightSqlLoggingEnabled(booleanValueOf(props.getProperty("lightweightSqlLoggingEnabled"), false));
+    configuration.setSqlLogSamplingInterval(integerValueOf(props.getProperty("sqlLogSamplingInterval"), 1));
+    configuration.setPaginationEnabled(booleanValueOf(props.getProperty("paginationEnabled"), false));
+    configuration.setAdaptiveFetchSizeEnabled(booleanValueOf(props.getProperty("adaptiveFetchSizeEnabled"), false));
+    configuration.setMinAdaptiveFetchSize(integerValueOf(props.getProperty("minAdaptiveFetchSize"), 10));
+    configuration.setMaxAdaptiveFetchSize(integerValueOf(props.getProperty("maxAdaptiveFetchSize"), 1000));
+    configuration.setAdaptiveFetchMemoryBudget(integerValueOf(props.getProperty("adaptiveFetchMemoryBudget"), 4 * 1024 * 1024));
+    configuration.setTableCacheInvalidationEnabled(booleanValueOf(props.getProperty("tableCacheInvalidationEnabled"), false));
+    configuration.setStatementMetrics((StatementMetrics) createInstance(props.getProperty("statementMetrics")));
+    configuration.setPaginationDialect((Dialect) createInstance(props.getProperty("paginationDialect")));
+    configuration.setAsyncExecutor((Executor) createInstance(props.getProperty("asyncExecutor")));
+    configuration.setAsyncSessionScope(AsyncSessionScope.valueOf(props.getProperty("asyncSessionScope", "NONE")));
+    configuration.setDynamicSqlCacheSize(integerValueOf(props.getProperty("dynamicSqlCacheSize"), 0));
+    configuration.setBatchLoadSize(integerValueOf(props.getProperty("batchLoadSize"), 500));
     configuration.setLogPrefix(props.getProperty("logPrefix"));
     configuration.setConfigurationFactory(resolveClass(props.getProperty("configurationFactory")));
   }
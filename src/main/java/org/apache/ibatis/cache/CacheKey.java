@@ -53,6 +53,26 @@ public class CacheKey implements Cloneable, Serializable {
     updateAll(objects);
   }
 
+  /**
+   * Creates a key that starts with the updates of the given key, without hashing them again.
+   *
+   * @param prefix
+   *          the key to copy, which is not modified
+   * @param additionalUpdates
+   *          the number of updates expected after the copied ones, used to size the update list
+   * @since 3.5.3
+   */
+  public CacheKey(CacheKey prefix, int additionalUpdates) {
+    this.hashcode = prefix.hashcode;
+    this.multiplier = prefix.multiplier;
+    this.checksum = prefix.checksum;
+    this.count = prefix.count;
+    this.updateList = new ArrayList<>(prefix.updateList.size() + additionalUpdates);
+    for (int i = 0; i < prefix.updateList.size(); i++) {
+      this.updateList.add(prefix.updateList.get(i));
+    }
+  }
+
   public int getUpdateCount() {
     return updateList.size();
   }
@@ -0,0 +1,190 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the tables a SQL statement reads or writes.
+ * <p>
+ * The parser does not understand SQL; it looks for table names after the keywords that introduce them. It may report
+ * names that are not tables, which only costs cache hits, but it cannot see the tables behind views, functions or
+ * stored procedures. Statements using those should declare their tables.
+ *
+ * @since 3.5.3
+ */
+public final class SqlTableParser {
+
+  private static final String NAME = "(?:\"[^\"]*\"|`[^`]*`|\\[[^\\]]*\\]|[\\w$#@]+)";
+
+  private static final Pattern TOKEN = Pattern.compile("'(?:[^']|'')*'|" + NAME + "(?:\\s*\\.\\s*" + NAME + ")*|[(),;]");
+
+  private static final Set<String> CLAUSE_KEYWORDS = new HashSet<>(Arrays.asList(
+      "where", "join", "inner", "left", "right", "full", "outer", "cross", "natural", "on", "using", "group", "order",
+      "having", "union", "intersect", "except", "minus", "limit", "offset", "fetch", "for", "window", "start",
+      "connect", "set", "values", "select", "returning"));
+
+  private SqlTableParser() {
+    // Prevent Instantiation of Static Class
+  }
+
+  /**
+   * Returns the tables a query reads, normalized by {@link #normalizeTableName(String)}.
+   *
+   * @param sql
+   *          the SQL of the query
+   * @return the tables, empty if none were found
+   */
+  public static Set<String> parseReadTables(String sql) {
+    List<String> tokens = tokenize(sql);
+    Set<String> tables = new LinkedHashSet<>();
+    for (int i = 0; i < tokens.size(); i++) {
+      String keyword = tokens.get(i).toLowerCase(Locale.ENGLISH);
+      if ("join".equals(keyword)) {
+        addTable(tokens, i + 1, tables);
+      } else if ("from".equals(keyword)) {
+        // from a x, b y, (select ...) z
+        int j = i + 1;
+        while (j < tokens.size()) {
+          j = skipAlias(tokens, skipTableOrSubquery(tokens, j, tables));
+          if (j >= tokens.size() || !",".equals(tokens.get(j))) {
+            break;
+          }
+          j++;
+        }
+      }
+    }
+    return tables;
+  }
+
+  /**
+   * Returns the tables an insert, update or delete writes, normalized by {@link #normalizeTableName(String)}.
+   *
+   * @param sql
+   *          the SQL of the statement
+   * @return the tables, empty if none were found
+   */
+  public static Set<String> parseWrittenTables(String sql) {
+    List<String> tokens = tokenize(sql);
+    Set<String> tables = new LinkedHashSet<>();
+    int depth = 0;
+    for (int i = 0; i < tokens.size(); i++) {
+      String token = tokens.get(i);
+      if ("(".equals(token)) {
+        depth++;
+      } else if (")".equals(token)) {
+        depth--;
+      } else if (depth == 0) {
+        String keyword = token.toLowerCase(Locale.ENGLISH);
+        if ("insert".equals(keyword) || "merge".equals(keyword) || "replace".equals(keyword)) {
+          addTable(tokens, skipKeyword(tokens, skipKeyword(tokens, i + 1, "ignore"), "into"), tables);
+        } else if ("update".equals(keyword)) {
+          addTable(tokens, skipKeyword(tokens, i + 1, "only"), tables);
+        } else if ("delete".equals(keyword)) {
+          addTable(tokens, skipKeyword(tokens, i + 1, "from"), tables);
+        } else if ("truncate".equals(keyword)) {
+          addTable(tokens, skipKeyword(tokens, i + 1, "table"), tables);
+        }
+      }
+    }
+    return tables;
+  }
+
+  private static List<String> tokenize(String sql) {
+    List<String> tokens = new ArrayList<>();
+    Matcher matcher = TOKEN.matcher(sql);
+    while (matcher.find()) {
+      String token = matcher.group();
+      if (token.charAt(0) != '\'') {
+        tokens.add(token);
+      }
+    }
+    return tokens;
+  }
+
+  private static int skipKeyword(List<String> tokens, int index, String keyword) {
+    return index < tokens.size() && keyword.equalsIgnoreCase(tokens.get(index)) ? index + 1 : index;
+  }
+
+  private static int skipTableOrSubquery(List<String> tokens, int index, Set<String> tables) {
+    if (index < tokens.size() && "(".equals(tokens.get(index))) {
+      // the tables of the subquery are found by the caller
+      int depth = 0;
+      for (int i = index; i < tokens.size(); i++) {
+        String token = tokens.get(i);
+        if ("(".equals(token)) {
+          depth++;
+        } else if (")".equals(token) && --depth == 0) {
+          return i + 1;
+        }
+      }
+      return tokens.size();
+    }
+    return addTable(tokens, index, tables);
+  }
+
+  private static int skipAlias(List<String> tokens, int index) {
+    int i = skipKeyword(tokens, index, "as");
+    if (i < tokens.size() && isName(tokens.get(i))) {
+      return i + 1;
+    }
+    return index;
+  }
+
+  private static int addTable(List<String> tokens, int index, Set<String> tables) {
+    if (index < tokens.size() && isName(tokens.get(index))) {
+      tables.add(normalizeTableName(tokens.get(index)));
+      return index + 1;
+    }
+    return index;
+  }
+
+  private static boolean isName(String token) {
+    char first = token.charAt(0);
+    return first != '(' && first != ')' && first != ',' && first != ';'
+        && !CLAUSE_KEYWORDS.contains(token.toLowerCase(Locale.ENGLISH));
+  }
+
+  /**
+   * Returns the name tables are matched by: without quotes and schema, in upper case. Tables of the same name in
+   * different schemas are therefore invalidated together, but a table is matched whether it is qualified or not.
+   *
+   * @param name
+   *          the name of a table, as written in SQL
+   * @return the normalized name
+   */
+  public static String normalizeTableName(String name) {
+    StringBuilder builder = new StringBuilder(name.length());
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if (c == '.') {
+        builder.setLength(0);
+      } else if (c != '"' && c != '`' && c != '[' && c != ']' && !Character.isWhitespace(c)) {
+        builder.append(c);
+      }
+    }
+    return builder.toString().toUpperCase(Locale.ENGLISH);
+  }
+
+}
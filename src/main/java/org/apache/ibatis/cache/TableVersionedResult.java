@@ -0,0 +1,56 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A cached result together with the versions of the tables it was read from.
+ *
+ * @since 3.5.3
+ */
+public class TableVersionedResult implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final Object value;
+  private final String[] tables;
+  private final long[] versions;
+
+  private TableVersionedResult() {
+    // for codecs creating objects before setting their fields
+    this(null, null, null);
+  }
+
+  public TableVersionedResult(Object value, String[] tables, long[] versions) {
+    this.value = value;
+    this.tables = tables;
+    this.versions = versions;
+  }
+
+  public Object getValue() {
+    return value;
+  }
+
+  /**
+   * Returns whether none of the tables this result was read from has been written since.
+   */
+  public boolean isCurrent(TableVersions tableVersions) {
+    return Arrays.equals(versions, tableVersions.getVersions(tables));
+  }
+
+}
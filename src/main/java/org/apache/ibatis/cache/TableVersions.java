@@ -0,0 +1,61 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the committed writes to each table, so that cached results can tell whether the tables they were read from
+ * have changed since.
+ *
+ * @since 3.5.3
+ */
+public class TableVersions {
+
+  private final ConcurrentMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the current versions of tables.
+   *
+   * @param tables
+   *          the tables, normalized by {@link SqlTableParser#normalizeTableName(String)}
+   * @return the versions, in the order of the tables
+   */
+  public long[] getVersions(String[] tables) {
+    long[] result = new long[tables.length];
+    for (int i = 0; i < tables.length; i++) {
+      AtomicLong version = versions.get(tables[i]);
+      result[i] = version == null ? 0L : version.get();
+    }
+    return result;
+  }
+
+  /**
+   * Marks the results read from tables as stale.
+   *
+   * @param tables
+   *          the tables, normalized by {@link SqlTableParser#normalizeTableName(String)}
+   */
+  public void increment(Collection<String> tables) {
+    for (String table : tables) {
+      versions.computeIfAbsent(table, k -> new AtomicLong()).incrementAndGet();
+    }
+  }
+
+}
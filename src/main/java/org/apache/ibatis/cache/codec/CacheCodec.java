@@ -0,0 +1,55 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Turns cached values into bytes and back, for caches that keep their entries outside of the heap.
+ * <p>
+ * A codec is shared by the threads using a cache and must be thread safe. The bytes only live as long as the cache,
+ * so they may refer to state of the codec instance, but not to state of a single call.
+ *
+ * @since 3.5.3
+ */
+public interface CacheCodec {
+
+  /**
+   * Writes a value.
+   *
+   * @param value
+   *          the value, may be null
+   * @param out
+   *          the stream to write to
+   * @throws IOException
+   *           if the stream fails
+   */
+  void encode(Object value, OutputStream out) throws IOException;
+
+  /**
+   * Reads a value written by {@link #encode(Object, OutputStream)}.
+   *
+   * @param in
+   *          the stream to read from
+   * @return a new copy of the value
+   * @throws IOException
+   *           if the stream fails
+   */
+  Object decode(InputStream in) throws IOException;
+
+}
@@ -0,0 +1,529 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.decorators.SerializedCache.CustomObjectInputStream;
+
+/**
+ * A codec writing mapped results much smaller than Java serialization.
+ * <p>
+ * Strings, numbers, dates, byte arrays and the usual lists, sets and maps are written with a one byte tag. A result
+ * object is written as the values of its fields, after an id that this codec assigns to its class, so neither class
+ * descriptors nor field names are repeated. This applies to serializable classes with a no-argument constructor that
+ * do not customize their serialization; other objects are written with Java serialization. As with Java
+ * serialization, objects referenced twice are written once, and transient fields are not written.
+ * <p>
+ * Class ids are only known to the codec instance that assigned them, so the bytes can only be decoded by that
+ * instance.
+ *
+ * @since 3.5.3
+ */
+public class CompactCodec implements CacheCodec {
+
+  private static final int NULL = 0;
+  private static final int STRING = 1;
+  private static final int INTEGER = 2;
+  private static final int LONG = 3;
+  private static final int DOUBLE = 4;
+  private static final int FLOAT = 5;
+  private static final int SHORT = 6;
+  private static final int BYTE = 7;
+  private static final int TRUE = 8;
+  private static final int FALSE = 9;
+  private static final int CHARACTER = 10;
+  private static final int BIG_DECIMAL = 11;
+  private static final int BIG_INTEGER = 12;
+  private static final int DATE = 13;
+  private static final int SQL_DATE = 14;
+  private static final int SQL_TIME = 15;
+  private static final int SQL_TIMESTAMP = 16;
+  private static final int BYTES = 17;
+  private static final int ARRAY_LIST = 18;
+  private static final int LINKED_LIST = 19;
+  private static final int HASH_SET = 20;
+  private static final int LINKED_HASH_SET = 21;
+  private static final int HASH_MAP = 22;
+  private static final int LINKED_HASH_MAP = 23;
+  private static final int ENUM = 24;
+  private static final int OBJECT = 25;
+  private static final int SERIALIZED = 26;
+  private static final int REFERENCE = 27;
+
+  private static final ObjectLayout NOT_WRITTEN_BY_FIELDS = new ObjectLayout(null, new Field[0]);
+
+  private final Map<Class<?>, Integer> classIds = new ConcurrentHashMap<>();
+  private final List<Class<?>> classes = new CopyOnWriteArrayList<>();
+  private final Map<Class<?>, ObjectLayout> layouts = new ConcurrentHashMap<>();
+
+  @Override
+  public void encode(Object value, OutputStream out) throws IOException {
+    DataOutputStream dataOut = new DataOutputStream(out);
+    new Writer(dataOut).writeValue(value);
+    dataOut.flush();
+  }
+
+  @Override
+  public Object decode(InputStream in) throws IOException {
+    return new Reader(new DataInputStream(in)).readValue();
+  }
+
+  private int getClassId(Class<?> type) {
+    Integer id = classIds.get(type);
+    if (id != null) {
+      return id;
+    }
+    synchronized (classes) {
+      return classIds.computeIfAbsent(type, k -> {
+        classes.add(k);
+        return classes.size() - 1;
+      });
+    }
+  }
+
+  private ObjectLayout getLayout(Class<?> type) {
+    return layouts.computeIfAbsent(type, CompactCodec::createLayout);
+  }
+
+  private static ObjectLayout createLayout(Class<?> type) {
+    if (!Serializable.class.isAssignableFrom(type) || Externalizable.class.isAssignableFrom(type)
+        || type.getName().startsWith("java.") || type.getName().startsWith("javax.")) {
+      return NOT_WRITTEN_BY_FIELDS;
+    }
+    try {
+      Constructor<?> constructor = type.getDeclaredConstructor();
+      constructor.setAccessible(true);
+      List<Field> fields = new ArrayList<>();
+      for (Class<?> current = type; current != null && Serializable.class.isAssignableFrom(current); current = current.getSuperclass()) {
+        if (customizesSerialization(current)) {
+          return NOT_WRITTEN_BY_FIELDS;
+        }
+        for (Field field : current.getDeclaredFields()) {
+          int modifiers = field.getModifiers();
+          if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+            field.setAccessible(true);
+            fields.add(field);
+          }
+        }
+      }
+      return new ObjectLayout(constructor, fields.toArray(new Field[0]));
+    } catch (NoSuchMethodException | RuntimeException e) {
+      // no default constructor, or not accessible
+      return NOT_WRITTEN_BY_FIELDS;
+    }
+  }
+
+  private static boolean customizesSerialization(Class<?> type) {
+    for (Method method : type.getDeclaredMethods()) {
+      String name = method.getName();
+      if ("writeObject".equals(name) || "readObject".equals(name) || "readObjectNoData".equals(name)
+          || "writeReplace".equals(name) || "readResolve".equals(name)) {
+        return true;
+      }
+    }
+    try {
+      type.getDeclaredField("serialPersistentFields");
+      return true;
+    } catch (NoSuchFieldException e) {
+      return false;
+    }
+  }
+
+  private static final class ObjectLayout {
+    private final Constructor<?> constructor;
+    private final Field[] fields;
+
+    private ObjectLayout(Constructor<?> constructor, Field[] fields) {
+      this.constructor = constructor;
+      this.fields = fields;
+    }
+  }
+
+  private final class Writer {
+    private final DataOutputStream out;
+    private final Map<Object, Integer> references = new IdentityHashMap<>();
+
+    private Writer(DataOutputStream out) {
+      this.out = out;
+    }
+
+    private void writeValue(Object value) throws IOException {
+      if (value == null) {
+        out.writeByte(NULL);
+        return;
+      }
+      Class<?> type = value.getClass();
+      if (type == String.class) {
+        out.writeByte(STRING);
+        writeString((String) value);
+      } else if (type == Integer.class) {
+        out.writeByte(INTEGER);
+        writeVarLong((Integer) value);
+      } else if (type == Long.class) {
+        out.writeByte(LONG);
+        writeVarLong((Long) value);
+      } else if (type == Double.class) {
+        out.writeByte(DOUBLE);
+        out.writeDouble((Double) value);
+      } else if (type == Float.class) {
+        out.writeByte(FLOAT);
+        out.writeFloat((Float) value);
+      } else if (type == Short.class) {
+        out.writeByte(SHORT);
+        out.writeShort((Short) value);
+      } else if (type == Byte.class) {
+        out.writeByte(BYTE);
+        out.writeByte((Byte) value);
+      } else if (type == Boolean.class) {
+        out.writeByte((Boolean) value ? TRUE : FALSE);
+      } else if (type == Character.class) {
+        out.writeByte(CHARACTER);
+        out.writeChar((Character) value);
+      } else if (type == BigDecimal.class) {
+        out.writeByte(BIG_DECIMAL);
+        writeVarLong(((BigDecimal) value).scale());
+        writeBytes(((BigDecimal) value).unscaledValue().toByteArray());
+      } else if (type == BigInteger.class) {
+        out.writeByte(BIG_INTEGER);
+        writeBytes(((BigInteger) value).toByteArray());
+      } else if (type == Date.class) {
+        out.writeByte(DATE);
+        writeVarLong(((Date) value).getTime());
+      } else if (type == java.sql.Date.class) {
+        out.writeByte(SQL_DATE);
+        writeVarLong(((Date) value).getTime());
+      } else if (type == Time.class) {
+        out.writeByte(SQL_TIME);
+        writeVarLong(((Date) value).getTime());
+      } else if (type == Timestamp.class) {
+        out.writeByte(SQL_TIMESTAMP);
+        writeVarLong(((Timestamp) value).getTime());
+        writeVarLong(((Timestamp) value).getNanos());
+      } else if (type == byte[].class) {
+        out.writeByte(BYTES);
+        writeBytes((byte[]) value);
+      } else if (value instanceof Enum) {
+        out.writeByte(ENUM);
+        writeVarLong(getClassId(((Enum<?>) value).getDeclaringClass()));
+        writeVarLong(((Enum<?>) value).ordinal());
+      } else {
+        writeReferenceable(value, type);
+      }
+    }
+
+    private void writeReferenceable(Object value, Class<?> type) throws IOException {
+      Integer reference = references.get(value);
+      if (reference != null) {
+        out.writeByte(REFERENCE);
+        writeVarLong(reference);
+        return;
+      }
+      references.put(value, references.size());
+      if (type == ArrayList.class) {
+        writeCollection(ARRAY_LIST, (Collection<?>) value);
+      } else if (type == LinkedList.class) {
+        writeCollection(LINKED_LIST, (Collection<?>) value);
+      } else if (type == HashSet.class) {
+        writeCollection(HASH_SET, (Collection<?>) value);
+      } else if (type == LinkedHashSet.class) {
+        writeCollection(LINKED_HASH_SET, (Collection<?>) value);
+      } else if (type == HashMap.class) {
+        writeMap(HASH_MAP, (Map<?, ?>) value);
+      } else if (type == LinkedHashMap.class) {
+        writeMap(LINKED_HASH_MAP, (Map<?, ?>) value);
+      } else {
+        ObjectLayout layout = getLayout(type);
+        if (layout == NOT_WRITTEN_BY_FIELDS) {
+          writeSerialized(value);
+        } else {
+          out.writeByte(OBJECT);
+          writeVarLong(getClassId(type));
+          writeFields(value, layout);
+        }
+      }
+    }
+
+    private void writeCollection(int tag, Collection<?> collection) throws IOException {
+      out.writeByte(tag);
+      writeVarLong(collection.size());
+      for (Object element : collection) {
+        writeValue(element);
+      }
+    }
+
+    private void writeMap(int tag, Map<?, ?> map) throws IOException {
+      out.writeByte(tag);
+      writeVarLong(map.size());
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        writeValue(entry.getKey());
+        writeValue(entry.getValue());
+      }
+    }
+
+    private void writeFields(Object value, ObjectLayout layout) throws IOException {
+      try {
+        for (Field field : layout.fields) {
+          Class<?> type = field.getType();
+          if (type == int.class) {
+            writeVarLong(field.getInt(value));
+          } else if (type == long.class) {
+            writeVarLong(field.getLong(value));
+          } else if (type == boolean.class) {
+            out.writeBoolean(field.getBoolean(value));
+          } else if (type == double.class) {
+            out.writeDouble(field.getDouble(value));
+          } else if (type == float.class) {
+            out.writeFloat(field.getFloat(value));
+          } else if (type == short.class) {
+            out.writeShort(field.getShort(value));
+          } else if (type == byte.class) {
+            out.writeByte(field.getByte(value));
+          } else if (type == char.class) {
+            out.writeChar(field.getChar(value));
+          } else {
+            writeValue(field.get(value));
+          }
+        }
+      } catch (IllegalAccessException e) {
+        throw new CacheException("Error encoding " + value.getClass() + ".  Cause: " + e, e);
+      }
+    }
+
+    private void writeSerialized(Object value) throws IOException {
+      if (!(value instanceof Serializable)) {
+        throw new CacheException("CompactCodec could not encode a non-serializable object: " + value);
+      }
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+        oos.writeObject(value);
+      }
+      out.writeByte(SERIALIZED);
+      writeVarLong(bytes.size());
+      bytes.writeTo(out);
+    }
+
+    private void writeString(String value) throws IOException {
+      writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeBytes(byte[] value) throws IOException {
+      writeVarLong(value.length);
+      out.write(value);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+      long zigZag = (value << 1) ^ (value >> 63);
+      while ((zigZag & ~0x7FL) != 0) {
+        out.writeByte((int) ((zigZag & 0x7F) | 0x80));
+        zigZag >>>= 7;
+      }
+      out.writeByte((int) zigZag);
+    }
+  }
+
+  private final class Reader {
+    private final DataInputStream in;
+    private final List<Object> references = new ArrayList<>();
+
+    private Reader(DataInputStream in) {
+      this.in = in;
+    }
+
+    private Object readValue() throws IOException {
+      int tag = in.readUnsignedByte();
+      switch (tag) {
+        case NULL:
+          return null;
+        case STRING:
+          return new String(readBytes(), StandardCharsets.UTF_8);
+        case INTEGER:
+          return (int) readVarLong();
+        case LONG:
+          return readVarLong();
+        case DOUBLE:
+          return in.readDouble();
+        case FLOAT:
+          return in.readFloat();
+        case SHORT:
+          return in.readShort();
+        case BYTE:
+          return in.readByte();
+        case TRUE:
+          return Boolean.TRUE;
+        case FALSE:
+          return Boolean.FALSE;
+        case CHARACTER:
+          return in.readChar();
+        case BIG_DECIMAL:
+          int scale = (int) readVarLong();
+          return new BigDecimal(new BigInteger(readBytes()), scale);
+        case BIG_INTEGER:
+          return new BigInteger(readBytes());
+        case DATE:
+          return new Date(readVarLong());
+        case SQL_DATE:
+          return new java.sql.Date(readVarLong());
+        case SQL_TIME:
+          return new Time(readVarLong());
+        case SQL_TIMESTAMP:
+          Timestamp timestamp = new Timestamp(readVarLong());
+          timestamp.setNanos((int) readVarLong());
+          return timestamp;
+        case BYTES:
+          return readBytes();
+        case ARRAY_LIST:
+          return readCollection(new ArrayList<>());
+        case LINKED_LIST:
+          return readCollection(new LinkedList<>());
+        case HASH_SET:
+          return readCollection(new HashSet<>());
+        case LINKED_HASH_SET:
+          return readCollection(new LinkedHashSet<>());
+        case HASH_MAP:
+          return readMap(new HashMap<>());
+        case LINKED_HASH_MAP:
+          return readMap(new LinkedHashMap<>());
+        case ENUM:
+          Object[] constants = classes.get((int) readVarLong()).getEnumConstants();
+          return constants[(int) readVarLong()];
+        case OBJECT:
+          return readObject(classes.get((int) readVarLong()));
+        case SERIALIZED:
+          return readSerialized();
+        case REFERENCE:
+          return references.get((int) readVarLong());
+        default:
+          throw new CacheException("Error decoding cached value.  Cause: unknown tag " + tag);
+      }
+    }
+
+    private Collection<Object> readCollection(Collection<Object> collection) throws IOException {
+      references.add(collection);
+      int size = (int) readVarLong();
+      for (int i = 0; i < size; i++) {
+        collection.add(readValue());
+      }
+      return collection;
+    }
+
+    private Map<Object, Object> readMap(Map<Object, Object> map) throws IOException {
+      references.add(map);
+      int size = (int) readVarLong();
+      for (int i = 0; i < size; i++) {
+        Object key = readValue();
+        map.put(key, readValue());
+      }
+      return map;
+    }
+
+    private Object readObject(Class<?> type) throws IOException {
+      ObjectLayout layout = getLayout(type);
+      try {
+        Object value = layout.constructor.newInstance();
+        references.add(value);
+        for (Field field : layout.fields) {
+          Class<?> fieldType = field.getType();
+          if (fieldType == int.class) {
+            field.setInt(value, (int) readVarLong());
+          } else if (fieldType == long.class) {
+            field.setLong(value, readVarLong());
+          } else if (fieldType == boolean.class) {
+            field.setBoolean(value, in.readBoolean());
+          } else if (fieldType == double.class) {
+            field.setDouble(value, in.readDouble());
+          } else if (fieldType == float.class) {
+            field.setFloat(value, in.readFloat());
+          } else if (fieldType == short.class) {
+            field.setShort(value, in.readShort());
+          } else if (fieldType == byte.class) {
+            field.setByte(value, in.readByte());
+          } else if (fieldType == char.class) {
+            field.setChar(value, in.readChar());
+          } else {
+            field.set(value, readValue());
+          }
+        }
+        return value;
+      } catch (ReflectiveOperationException e) {
+        throw new CacheException("Error decoding " + type + ".  Cause: " + e, e);
+      }
+    }
+
+    private Object readSerialized() throws IOException {
+      byte[] bytes = readBytes();
+      try (ObjectInputStream ois = new CustomObjectInputStream(new ByteArrayInputStream(bytes))) {
+        Object value = ois.readObject();
+        references.add(value);
+        return value;
+      } catch (ClassNotFoundException e) {
+        throw new CacheException("Error deserializing object.  Cause: " + e, e);
+      }
+    }
+
+    private byte[] readBytes() throws IOException {
+      byte[] bytes = new byte[(int) readVarLong()];
+      in.readFully(bytes);
+      return bytes;
+    }
+
+    private long readVarLong() throws IOException {
+      long zigZag = 0;
+      for (int shift = 0;; shift += 7) {
+        int b = in.readUnsignedByte();
+        zigZag |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          break;
+        }
+      }
+      return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+  }
+
+}
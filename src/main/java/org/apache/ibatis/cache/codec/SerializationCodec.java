@@ -0,0 +1,55 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.decorators.SerializedCache.CustomObjectInputStream;
+
+/**
+ * A codec using Java serialization, like {@link org.apache.ibatis.cache.decorators.SerializedCache}.
+ *
+ * @since 3.5.3
+ */
+public class SerializationCodec implements CacheCodec {
+
+  @Override
+  public void encode(Object value, OutputStream out) throws IOException {
+    if (value != null && !(value instanceof Serializable)) {
+      throw new CacheException("SerializationCodec could not encode a non-serializable object: " + value);
+    }
+    ObjectOutputStream oos = new ObjectOutputStream(out);
+    oos.writeObject(value);
+    oos.flush();
+  }
+
+  @Override
+  public Object decode(InputStream in) throws IOException {
+    ObjectInputStream ois = new CustomObjectInputStream(in);
+    try {
+      return ois.readObject();
+    } catch (ClassNotFoundException e) {
+      throw new CacheException("Error deserializing object.  Cause: " + e, e);
+    }
+  }
+
+}
@@ -0,0 +1,139 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.decorators;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheException;
+
+/**
+ * Coalescing decorator.
+ * <p>
+ * The first thread that misses a key becomes its loader and gets <code>null</code>, so it queries the database.
+ * Other threads that miss the same key meanwhile wait until the loader puts the value (or releases the key through
+ * {@link #removeObject(Object)} on rollback) and then read it from the cache, instead of querying the database too.
+ * Unlike {@link BlockingCache}, a key is only tracked while it is being loaded.
+ *
+ * @since 3.5.3
+ */
+public class CoalescingCache implements Cache {
+
+  private long timeout;
+  private final Cache delegate;
+  private final ConcurrentHashMap<Object, Load> loads = new ConcurrentHashMap<>();
+
+  public CoalescingCache(Cache delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public String getId() {
+    return delegate.getId();
+  }
+
+  @Override
+  public int getSize() {
+    return delegate.getSize();
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    try {
+      delegate.putObject(key, value);
+    } finally {
+      release(key);
+    }
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    while (true) {
+      Object value = delegate.getObject(key);
+      if (value != null) {
+        return value;
+      }
+      Load load = new Load();
+      Load inFlight = loads.putIfAbsent(key, load);
+      if (inFlight == null) {
+        // a load may have completed between the lookup and the registration
+        value = delegate.getObject(key);
+        if (value != null) {
+          release(key);
+        }
+        return value;
+      }
+      if (inFlight.loader == Thread.currentThread()) {
+        return null;
+      }
+      await(key, inFlight);
+    }
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    // despite of its name, this method is called only to release loads
+    release(key);
+    return null;
+  }
+
+  @Override
+  public void clear() {
+    delegate.clear();
+  }
+
+  public long getTimeout() {
+    return timeout;
+  }
+
+  /**
+   * Sets how many milliseconds a thread waits for another thread loading the same key, or 0 (the default) to wait
+   * until the load completes.
+   */
+  public void setTimeout(long timeout) {
+    this.timeout = timeout;
+  }
+
+  private void await(Object key, Load load) {
+    try {
+      if (timeout > 0) {
+        if (!load.done.await(timeout, TimeUnit.MILLISECONDS)) {
+          throw new CacheException("Couldn't get a value in " + timeout + " for the key " + key + " at the cache " + delegate.getId());
+        }
+      } else {
+        load.done.await();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CacheException("Got interrupted while waiting for a value for key " + key, e);
+    }
+  }
+
+  private void release(Object key) {
+    Load load = loads.remove(key);
+    if (load != null) {
+      load.done.countDown();
+    }
+  }
+
+  private static class Load {
+    private final Thread loader = Thread.currentThread();
+    private final CountDownLatch done = new CountDownLatch(1);
+  }
+
+}
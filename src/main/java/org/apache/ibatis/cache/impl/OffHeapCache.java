@@ -0,0 +1,375 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.ibatis.builder.InitializingObject;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.codec.CacheCodec;
+import org.apache.ibatis.cache.codec.CompactCodec;
+import org.apache.ibatis.io.Resources;
+
+/**
+ * A thread safe cache that keeps its entries outside of the Java heap, bounded by bytes.
+ * <p>
+ * Values are encoded by a {@link CacheCodec} ({@link CompactCodec} by default, property <code>codec</code>) into
+ * slabs of <code>slabSize</code> bytes (1 MiB by default) that are allocated with
+ * {@link ByteBuffer#allocateDirect(int)}, or mapped from a temporary file in the <code>directory</code> property if
+ * set. Entries are appended to the current slab. When all slabs up to <code>capacity</code> bytes (64 MiB by default)
+ * are in use, the oldest slab is emptied and reused, so entries are evicted in insertion order and no memory is
+ * allocated after the slabs are. Only the keys and the locations of the entries stay on the heap. Values larger than
+ * a slab are not cached.
+ * <p>
+ * Each read decodes a new copy of the value, as with <code>readOnly="false"</code>. Reads run concurrently; writes
+ * wait for them.
+ * <p>
+ * The slabs and the temporary file are released when the cache is initialized again or closed. Direct buffers count
+ * against the <code>-XX:MaxDirectMemorySize</code> limit of the JVM.
+ *
+ * @since 3.5.3
+ */
+public class OffHeapCache implements Cache, InitializingObject, Closeable {
+
+  private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+  private final String id;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final ThreadLocal<EncodingBuffer> encodingBuffers = ThreadLocal.withInitial(EncodingBuffer::new);
+
+  private long capacity = 64L * 1024 * 1024;
+  private int slabSize = 1024 * 1024;
+  private String directory;
+  private CacheCodec codec = new CompactCodec();
+
+  // guarded by lock
+  private final Map<Object, Location> locations = new HashMap<>();
+  private ByteBuffer[] slabs;
+  private List<List<Object>> slabKeys;
+  private int currentSlab;
+  private int position;
+  private File file;
+  private FileChannel channel;
+
+  public OffHeapCache(String id) {
+    this.id = id;
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Sets the maximum number of bytes of the entries, rounded down to whole slabs.
+   */
+  public void setCapacity(long capacity) {
+    this.capacity = capacity;
+  }
+
+  public long getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Sets the number of bytes allocated at once, which also bounds the size of an entry.
+   */
+  public void setSlabSize(int slabSize) {
+    this.slabSize = slabSize;
+  }
+
+  /**
+   * Sets the directory of a temporary file to map the slabs from, instead of allocating direct buffers.
+   */
+  public void setDirectory(String directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * Sets the class name of the {@link CacheCodec} encoding the values.
+   */
+  public void setCodec(String codec) {
+    try {
+      this.codec = (CacheCodec) Resources.classForName(codec).getDeclaredConstructor().newInstance();
+    } catch (Exception e) {
+      throw new CacheException("Could not instantiate cache codec '" + codec + "' of cache '" + id + "'.  Cause: " + e, e);
+    }
+  }
+
+  @Override
+  public void initialize() throws Exception {
+    lock.writeLock().lock();
+    try {
+      if (slabSize < 1 || capacity < slabSize) {
+        throw new CacheException("The capacity of cache '" + id + "' must hold at least one slab of " + slabSize
+            + " bytes but was " + capacity);
+      }
+      int slabCount = (int) Math.min(capacity / slabSize, Integer.MAX_VALUE);
+      release();
+      if (directory != null) {
+        file = File.createTempFile("mybatis-cache-", ".slabs", new File(directory));
+        file.deleteOnExit();
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+      }
+      slabs = new ByteBuffer[slabCount];
+      slabKeys = new ArrayList<>(slabCount);
+      for (int i = 0; i < slabCount; i++) {
+        slabKeys.add(new ArrayList<>());
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    EncodingBuffer buffer = encodingBuffers.get();
+    try {
+      codec.encode(value, buffer);
+      lock.writeLock().lock();
+      try {
+        ensureInitialized();
+        removeLocation(key);
+        if (buffer.size() <= slabSize) {
+          write(key, buffer);
+        }
+      } finally {
+        lock.writeLock().unlock();
+      }
+    } catch (IOException e) {
+      throw new CacheException("Error encoding the value of cache '" + id + "'.  Cause: " + e, e);
+    } finally {
+      buffer.release();
+    }
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    lock.readLock().lock();
+    try {
+      Location location = locations.get(key);
+      if (location == null) {
+        return null;
+      }
+      ByteBuffer slab = slabs[location.slab].duplicate();
+      slab.limit(location.offset + location.length).position(location.offset);
+      return codec.decode(new ByteBufferInputStream(slab));
+    } catch (IOException e) {
+      throw new CacheException("Error decoding the value of cache '" + id + "'.  Cause: " + e, e);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Removes an entry. The value is not decoded, so this always returns null.
+   */
+  @Override
+  public Object removeObject(Object key) {
+    lock.writeLock().lock();
+    try {
+      removeLocation(key);
+      return null;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    lock.writeLock().lock();
+    try {
+      locations.clear();
+      if (slabKeys != null) {
+        for (List<Object> keys : slabKeys) {
+          keys.clear();
+        }
+      }
+      currentSlab = 0;
+      position = 0;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes all entries and releases the slabs: the file channel is closed and the temporary file deleted. The cache
+   * allocates new slabs if it is used again.
+   */
+  @Override
+  public void close() throws IOException {
+    lock.writeLock().lock();
+    try {
+      release();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public int getSize() {
+    lock.readLock().lock();
+    try {
+      return locations.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void ensureInitialized() {
+    if (slabs == null) {
+      try {
+        initialize();
+      } catch (Exception e) {
+        throw new CacheException("Error initializing cache '" + id + "'.  Cause: " + e, e);
+      }
+    }
+  }
+
+  private void write(Object key, EncodingBuffer buffer) throws IOException {
+    int length = buffer.size();
+    if (slabs[currentSlab] == null) {
+      slabs[currentSlab] = allocateSlab(currentSlab);
+    } else if (position + length > slabSize) {
+      currentSlab = (currentSlab + 1) % slabs.length;
+      position = 0;
+      if (slabs[currentSlab] == null) {
+        slabs[currentSlab] = allocateSlab(currentSlab);
+      } else {
+        evictSlab(currentSlab);
+      }
+    }
+    ByteBuffer slab = slabs[currentSlab].duplicate();
+    slab.position(position);
+    slab.put(buffer.getBytes(), 0, length);
+    locations.put(key, new Location(currentSlab, position, length));
+    slabKeys.get(currentSlab).add(key);
+    position += length;
+  }
+
+  private ByteBuffer allocateSlab(int index) throws IOException {
+    if (channel != null) {
+      return channel.map(FileChannel.MapMode.READ_WRITE, (long) index * slabSize, slabSize);
+    }
+    return ByteBuffer.allocateDirect(slabSize);
+  }
+
+  private void evictSlab(int index) {
+    List<Object> keys = slabKeys.get(index);
+    for (Object key : keys) {
+      Location location = locations.get(key);
+      // the key may have been put again into another slab
+      if (location != null && location.slab == index) {
+        locations.remove(key);
+      }
+    }
+    keys.clear();
+  }
+
+  private void removeLocation(Object key) {
+    // the key stays listed in its slab until the slab is reused
+    locations.remove(key);
+  }
+
+  private void release() throws IOException {
+    locations.clear();
+    slabs = null;
+    slabKeys = null;
+    currentSlab = 0;
+    position = 0;
+    try {
+      if (channel != null) {
+        channel.close();
+      }
+    } finally {
+      channel = null;
+      if (file != null) {
+        // on some platforms a mapped file cannot be deleted before its slabs are collected; it is deleted on exit then
+        file.delete();
+        file = null;
+      }
+    }
+  }
+
+  private static final class Location {
+    private final int slab;
+    private final int offset;
+    private final int length;
+
+    private Location(int slab, int offset, int length) {
+      this.slab = slab;
+      this.offset = offset;
+      this.length = length;
+    }
+  }
+
+  private static final class EncodingBuffer extends ByteArrayOutputStream {
+
+    private byte[] getBytes() {
+      return buf;
+    }
+
+    private void release() {
+      reset();
+      if (buf.length > MAX_RETAINED_BUFFER) {
+        buf = new byte[32];
+      }
+    }
+  }
+
+  private static final class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer buffer;
+
+    private ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int count = Math.min(length, buffer.remaining());
+      buffer.get(bytes, offset, count);
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+  }
+
+}
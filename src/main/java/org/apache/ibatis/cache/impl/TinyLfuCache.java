@@ -0,0 +1,566 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheException;
+
+/**
+ * A thread safe, bounded cache that does not need to be wrapped by a synchronized decorator.
+ * <p>
+ * Entries live in a {@link ConcurrentHashMap}, so reads never block. The eviction policy follows W-TinyLFU: new
+ * entries enter a small LRU window, and an entry leaving the window is only admitted to the main LRU space (split in
+ * a probation and a protected segment) if a frequency sketch estimates that it has been used more often than the entry
+ * it would evict. Reads are recorded in striped, lossy buffers and replayed on the policy under a lock that readers
+ * only try to acquire, so a scan of one-off queries cannot flush the frequently used results.
+ * <p>
+ * The cache is bounded by the number of entries (property <code>size</code>, 1024 by default) and optionally by
+ * weight (property <code>maximumWeight</code>), where a result list weighs as many rows as it holds. Cached objects are
+ * shared between sessions, as with <code>readOnly="true"</code>.
+ *
+ * @since 3.5.3
+ */
+public class TinyLfuCache implements Cache {
+
+  private static final int WINDOW = 1;
+  private static final int PROBATION = 2;
+  private static final int PROTECTED = 3;
+
+  private static final int READ_BUFFER_STRIPES = ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors());
+
+  private final String id;
+  private final ConcurrentHashMap<Object, Node> data = new ConcurrentHashMap<>();
+  private final ReadBuffer[] readBuffers = new ReadBuffer[READ_BUFFER_STRIPES];
+  private final ReentrantLock evictionLock = new ReentrantLock();
+
+  // guarded by evictionLock
+  private final AccessOrderDeque window = new AccessOrderDeque();
+  private final AccessOrderDeque probation = new AccessOrderDeque();
+  private final AccessOrderDeque protectedSpace = new AccessOrderDeque();
+  private FrequencySketch sketch;
+  private int windowMaximum;
+  private int protectedMaximum;
+  private long weightedSize;
+
+  private volatile int size;
+  private volatile long maximumWeight;
+
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder evictionCount = new LongAdder();
+  private final LongAdder rejectionCount = new LongAdder();
+
+  public TinyLfuCache(String id) {
+    this.id = id;
+    for (int i = 0; i < readBuffers.length; i++) {
+      readBuffers[i] = new ReadBuffer();
+    }
+    setSize(1024);
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public int getSize() {
+    return data.size();
+  }
+
+  /**
+   * Sets the maximum number of entries.
+   */
+  public void setSize(int size) {
+    if (size < 1) {
+      throw new CacheException("The size of cache '" + id + "' must be positive but was " + size);
+    }
+    evictionLock.lock();
+    try {
+      this.size = size;
+      this.windowMaximum = Math.max(1, size / 100);
+      this.protectedMaximum = (int) ((size - windowMaximum) * 0.8);
+      this.sketch = new FrequencySketch(size);
+      evictEntries();
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  /**
+   * Sets the maximum total weight of the entries, or 0 (the default) for no bound by weight.
+   *
+   * @see #weigh(Object, Object)
+   */
+  public void setMaximumWeight(long maximumWeight) {
+    evictionLock.lock();
+    try {
+      this.maximumWeight = maximumWeight;
+      evictEntries();
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  public long getMaximumWeight() {
+    return maximumWeight;
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    long weight = weigh(key, value);
+    long maximum = maximumWeight;
+    if (maximum > 0 && weight > maximum) {
+      // could never be held without evicting everything else
+      removeObject(key);
+      rejectionCount.increment();
+      return;
+    }
+    Node node = new Node(key, value, weight);
+    Node prior = data.put(key, node);
+    evictionLock.lock();
+    try {
+      drainReadBuffers();
+      if (prior != null) {
+        unlink(prior);
+      }
+      // a concurrent put, remove or clear may have replaced the node already
+      if (data.get(key) == node) {
+        node.queue = WINDOW;
+        window.addLast(node);
+        weightedSize += weight;
+        sketch.increment(key);
+        evictEntries();
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    Node node = data.get(key);
+    if (node == null) {
+      missCount.increment();
+      return null;
+    }
+    if (node.value == null) {
+      missCount.increment();
+    } else {
+      hitCount.increment();
+    }
+    ReadBuffer buffer = readBuffers[(int) Thread.currentThread().getId() & (READ_BUFFER_STRIPES - 1)];
+    if (!buffer.offer(node)) {
+      tryDrainReadBuffers();
+    }
+    return node.value;
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    Node node = data.remove(key);
+    if (node == null) {
+      return null;
+    }
+    evictionLock.lock();
+    try {
+      unlink(node);
+    } finally {
+      evictionLock.unlock();
+    }
+    return node.value;
+  }
+
+  @Override
+  public void clear() {
+    evictionLock.lock();
+    try {
+      data.clear();
+      for (ReadBuffer buffer : readBuffers) {
+        buffer.drainTo(null);
+      }
+      window.clear();
+      probation.clear();
+      protectedSpace.clear();
+      weightedSize = 0;
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  public long getEvictionCount() {
+    return evictionCount.sum();
+  }
+
+  /**
+   * Returns the number of values that were not cached because they weigh more than the maximum weight.
+   */
+  public long getRejectionCount() {
+    return rejectionCount.sum();
+  }
+
+  /**
+   * Returns the total weight of the entries.
+   */
+  public long getWeightedSize() {
+    evictionLock.lock();
+    try {
+      return weightedSize;
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  /**
+   * Returns the weight of an entry, which is the number of elements for a collection (usually the rows returned by a
+   * select) and 1 for any other value. Subclasses may override it to weigh entries differently.
+   */
+  protected long weigh(Object key, Object value) {
+    if (value instanceof Collection) {
+      return Math.max(1, ((Collection<?>) value).size());
+    }
+    return 1;
+  }
+
+  private void tryDrainReadBuffers() {
+    if (evictionLock.tryLock()) {
+      try {
+        drainReadBuffers();
+      } finally {
+        evictionLock.unlock();
+      }
+    }
+  }
+
+  private void drainReadBuffers() {
+    for (ReadBuffer buffer : readBuffers) {
+      buffer.drainTo(this);
+    }
+  }
+
+  private void onAccess(Node node) {
+    switch (node.queue) {
+      case WINDOW:
+        sketch.increment(node.key);
+        window.moveToBack(node);
+        break;
+      case PROBATION:
+        sketch.increment(node.key);
+        probation.remove(node);
+        node.queue = PROTECTED;
+        protectedSpace.addLast(node);
+        while (protectedSpace.size > protectedMaximum) {
+          Node demoted = protectedSpace.first;
+          protectedSpace.remove(demoted);
+          demoted.queue = PROBATION;
+          probation.addLast(demoted);
+        }
+        break;
+      case PROTECTED:
+        sketch.increment(node.key);
+        protectedSpace.moveToBack(node);
+        break;
+      default:
+        // already removed or not linked yet
+    }
+  }
+
+  private void evictEntries() {
+    Node candidate = evictFromWindow();
+    while (isOverCapacity()) {
+      Node victim = probation.first;
+      if (victim == null) {
+        victim = protectedSpace.first != null ? protectedSpace.first : window.first;
+      }
+      if (candidate == null || candidate == victim) {
+        if (candidate != null) {
+          candidate = candidate.next;
+        }
+        evict(victim);
+      } else {
+        Node next = candidate.next;
+        if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+          evict(victim);
+        } else {
+          evict(candidate);
+          candidate = next;
+        }
+      }
+    }
+  }
+
+  /**
+   * Moves the entries overflowing the window to the back of the probation segment.
+   *
+   * @return the first moved entry, which is the first candidate for admission, or null if none was moved
+   */
+  private Node evictFromWindow() {
+    Node first = null;
+    while (window.size > windowMaximum) {
+      Node node = window.first;
+      window.remove(node);
+      node.queue = PROBATION;
+      probation.addLast(node);
+      if (first == null) {
+        first = node;
+      }
+    }
+    return first;
+  }
+
+  private boolean isOverCapacity() {
+    long maximum = maximumWeight;
+    return window.size + probation.size + protectedSpace.size > size || (maximum > 0 && weightedSize > maximum);
+  }
+
+  private void evict(Node node) {
+    unlink(node);
+    data.remove(node.key, node);
+    evictionCount.increment();
+  }
+
+  private void unlink(Node node) {
+    switch (node.queue) {
+      case WINDOW:
+        window.remove(node);
+        break;
+      case PROBATION:
+        probation.remove(node);
+        break;
+      case PROTECTED:
+        protectedSpace.remove(node);
+        break;
+      default:
+        return;
+    }
+    node.queue = 0;
+    weightedSize -= node.weight;
+  }
+
+  private static int ceilingPowerOfTwo(int x) {
+    return 1 << -Integer.numberOfLeadingZeros(Math.max(1, x) - 1);
+  }
+
+  private static final class Node {
+    private final Object key;
+    private final Object value;
+    private final long weight;
+    // guarded by evictionLock
+    private int queue;
+    private Node prev;
+    private Node next;
+
+    Node(Object key, Object value, long weight) {
+      this.key = key;
+      this.value = value;
+      this.weight = weight;
+    }
+  }
+
+  /**
+   * A doubly linked list threaded through the nodes, ordered from least to most recently used.
+   */
+  private static final class AccessOrderDeque {
+    private Node first;
+    private Node last;
+    private int size;
+
+    void addLast(Node node) {
+      node.prev = last;
+      node.next = null;
+      if (last == null) {
+        first = node;
+      } else {
+        last.next = node;
+      }
+      last = node;
+      size++;
+    }
+
+    void remove(Node node) {
+      if (node.prev == null) {
+        first = node.next;
+      } else {
+        node.prev.next = node.next;
+      }
+      if (node.next == null) {
+        last = node.prev;
+      } else {
+        node.next.prev = node.prev;
+      }
+      node.prev = null;
+      node.next = null;
+      size--;
+    }
+
+    void moveToBack(Node node) {
+      if (node != last) {
+        remove(node);
+        addLast(node);
+      }
+    }
+
+    void clear() {
+      for (Node node = first; node != null; ) {
+        Node next = node.next;
+        node.prev = null;
+        node.next = null;
+        node.queue = 0;
+        node = next;
+      }
+      first = null;
+      last = null;
+      size = 0;
+    }
+  }
+
+  /**
+   * A bounded ring of reads by many threads, drained by the thread that holds the eviction lock. Reads are dropped
+   * when the ring is full, which only costs some accuracy of the policy.
+   */
+  private static final class ReadBuffer {
+    private static final int CAPACITY = 32;
+    private static final int MASK = CAPACITY - 1;
+
+    private final AtomicLong readCounter = new AtomicLong();
+    private final AtomicLong writeCounter = new AtomicLong();
+    private final AtomicReferenceArray<Node> buffer = new AtomicReferenceArray<>(CAPACITY);
+
+    /**
+     * @return false if the buffer is full and should be drained
+     */
+    boolean offer(Node node) {
+      long head = readCounter.get();
+      long tail = writeCounter.get();
+      if (tail - head >= CAPACITY) {
+        return false;
+      }
+      if (writeCounter.compareAndSet(tail, tail + 1)) {
+        buffer.lazySet((int) tail & MASK, node);
+      }
+      return true;
+    }
+
+    void drainTo(TinyLfuCache cache) {
+      long head = readCounter.get();
+      long tail = writeCounter.get();
+      for (; head < tail; head++) {
+        int index = (int) head & MASK;
+        Node node = buffer.get(index);
+        if (node == null) {
+          // the slot is claimed but not written yet
+          break;
+        }
+        buffer.lazySet(index, null);
+        if (cache != null) {
+          cache.onAccess(node);
+        }
+      }
+      readCounter.lazySet(head);
+    }
+  }
+
+  /**
+   * A count-min sketch of 4-bit counters estimating how often keys have been used recently. All counters are halved
+   * once the number of recorded uses reaches ten times the maximum size, so that old popularity fades away.
+   */
+  private static final class FrequencySketch {
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL,
+        0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int maximumSize) {
+      int length = ceilingPowerOfTwo(Math.min(Math.max(16, maximumSize), 1 << 30));
+      this.table = new long[length];
+      this.tableMask = length - 1;
+      this.sampleSize = (int) Math.min(10L * maximumSize, Integer.MAX_VALUE);
+    }
+
+    int frequency(Object key) {
+      int hash = spread(key.hashCode());
+      int start = (hash & 3) << 2;
+      int frequency = Integer.MAX_VALUE;
+      for (int i = 0; i < 4; i++) {
+        int index = indexOf(hash, i);
+        int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+        frequency = Math.min(frequency, count);
+      }
+      return frequency;
+    }
+
+    void increment(Object key) {
+      int hash = spread(key.hashCode());
+      int start = (hash & 3) << 2;
+      boolean added = false;
+      for (int i = 0; i < 4; i++) {
+        added |= incrementAt(indexOf(hash, i), start + i);
+      }
+      if (added && ++additions >= sampleSize) {
+        reset();
+      }
+    }
+
+    private boolean incrementAt(int index, int counter) {
+      int offset = counter << 2;
+      long mask = 0xfL << offset;
+      if ((table[index] & mask) != mask) {
+        table[index] += 1L << offset;
+        return true;
+      }
+      return false;
+    }
+
+    private void reset() {
+      for (int i = 0; i < table.length; i++) {
+        table[i] = (table[i] >>> 1) & RESET_MASK;
+      }
+      additions >>>= 1;
+    }
+
+    private int indexOf(int hash, int i) {
+      long h = (hash + SEEDS[i]) * SEEDS[i];
+      h += h >>> 32;
+      return (int) h & tableMask;
+    }
+
+    private static int spread(int x) {
+      x = ((x >>> 16) ^ x) * 0x45d9f3b;
+      x = ((x >>> 16) ^ x) * 0x45d9f3b;
+      return (x >>> 16) ^ x;
+    }
+  }
+
+}
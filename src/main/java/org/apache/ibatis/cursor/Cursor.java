@@ -20,8 +20,8 @@ import java.io.Closeable;
 /**
  * Cursor contract to handle fetching items lazily using an Iterator.
  * Cursors are a perfect fit to handle millions of items queries that would not normally fits in memory.
- * If you use collections in resultMaps then cursor SQL queries must be ordered (resultOrdered="true")
- * using the id columns of the resultMap.
+ * If you use collections in resultMaps then cursor SQL queries must be ordered (resultOrdered="true", or
+ * <code>@Options(resultOrdered = true)</code> for annotated statements) using the id columns of the resultMap.
  *
  * @author Guillaume Darmont / guillaume@dropinocean.com
  */
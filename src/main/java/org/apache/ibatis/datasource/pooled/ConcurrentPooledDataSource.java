@@ -0,0 +1,436 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.lang.ref.WeakReference;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * A thread-safe database connection pool that does not serialize checkout and return on a single monitor.
+ * <p>
+ * Every physical connection is kept in a shared bag and claimed with a compare-and-set, a thread first tries the
+ * connection it returned last, and threads that find the pool exhausted wait on a fair hand-off queue so that
+ * returned connections go straight to the longest waiting thread. It accepts the same properties as
+ * {@link PooledDataSource}.
+ *
+ * @since 3.5.3
+ */
+public class ConcurrentPooledDataSource extends PooledDataSource {
+
+  private static final Log log = LogFactory.getLog(ConcurrentPooledDataSource.class);
+
+  private static final int STATE_IDLE = 0;
+  private static final int STATE_IN_USE = 1;
+  private static final int STATE_REMOVED = 2;
+
+  /**
+   * Handed to a waiting thread when a connection was discarded, so that it retries to open a new one.
+   */
+  private static final PoolEntry SLOT_FREED = new PoolEntry(null, null);
+
+  private final List<PoolEntry> entries = new CopyOnWriteArrayList<>();
+  private final ThreadLocal<WeakReference<PoolEntry>> lastReturned = new ThreadLocal<>();
+  private final SynchronousQueue<PoolEntry> handoffQueue = new SynchronousQueue<>(true);
+  private final AtomicInteger waiters = new AtomicInteger();
+  private final AtomicInteger totalConnections = new AtomicInteger();
+  private final ConcurrentPoolState state = new ConcurrentPoolState(this);
+
+  public ConcurrentPooledDataSource() {
+    super();
+  }
+
+  public ConcurrentPooledDataSource(UnpooledDataSource dataSource) {
+    super(dataSource);
+  }
+
+  public ConcurrentPooledDataSource(String driver, String url, String username, String password) {
+    super(driver, url, username, password);
+  }
+
+  public ConcurrentPooledDataSource(String driver, String url, Properties driverProperties) {
+    super(driver, url, driverProperties);
+  }
+
+  public ConcurrentPooledDataSource(ClassLoader driverClassLoader, String driver, String url, String username, String password) {
+    super(driverClassLoader, driver, url, username, password);
+  }
+
+  public ConcurrentPooledDataSource(ClassLoader driverClassLoader, String driver, String url, Properties driverProperties) {
+    super(driverClassLoader, driver, url, driverProperties);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return popConnection(dataSource.getUsername(), dataSource.getPassword()).getProxyConnection();
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return popConnection(username, password).getProxyConnection();
+  }
+
+  /**
+   * Closes all active and idle connections in the pool.
+   */
+  @Override
+  public void forceCloseAll() {
+    super.forceCloseAll();
+    for (PoolEntry entry : entries) {
+      PooledConnection conn = entry.current.getAndSet(null);
+      if (conn != null) {
+        conn.invalidate();
+      }
+      discard(entry);
+    }
+  }
+
+  @Override
+  public PoolState getPoolState() {
+    return state;
+  }
+
+  int countConnections(boolean active) {
+    int count = 0;
+    for (PoolEntry entry : entries) {
+      int entryState = entry.state.get();
+      if (active ? entryState == STATE_IN_USE : entryState == STATE_IDLE) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  protected void pushConnection(PooledConnection conn) throws SQLException {
+    PoolEntry entry = release(conn);
+    if (entry == null) {
+      if (log.isDebugEnabled()) {
+        log.debug("A bad connection (" + conn.getRealHashCode() + ") attempted to return to the pool, discarding connection.");
+      }
+      state.badConnectionCount.increment();
+      return;
+    }
+    state.accumulatedCheckoutTime.add(conn.getCheckoutTime());
+    if (!conn.isValid()) {
+      if (log.isDebugEnabled()) {
+        log.debug("A bad connection (" + conn.getRealHashCode() + ") attempted to return to the pool, discarding connection.");
+      }
+      state.badConnectionCount.increment();
+      conn.invalidate();
+      discard(entry);
+      return;
+    }
+    try {
+      if (!conn.getRealConnection().getAutoCommit()) {
+        conn.getRealConnection().rollback();
+      }
+    } catch (SQLException e) {
+      conn.invalidate();
+      discard(entry);
+      throw e;
+    }
+    entry.lastUsedTimestamp = conn.getLastUsedTimestamp();
+    conn.invalidate();
+    if (conn.getConnectionTypeCode() == expectedConnectionTypeCode
+        && (waiters.get() > 0 || countConnections(false) < poolMaximumIdleConnections)) {
+      if (log.isDebugEnabled()) {
+        log.debug("Returned connection " + conn.getRealHashCode() + " to pool.");
+      }
+      requite(entry);
+    } else {
+      if (log.isDebugEnabled()) {
+        log.debug("Closed connection " + conn.getRealHashCode() + ".");
+      }
+      discard(entry);
+    }
+  }
+
+  private PooledConnection popConnection(String username, String password) throws SQLException {
+    boolean countedWait = false;
+    long t = System.currentTimeMillis();
+    int localBadConnectionCount = 0;
+
+    while (true) {
+      PoolEntry entry = borrow();
+      if (entry == null) {
+        entry = create();
+      }
+      if (entry == null) {
+        entry = claimOverdue();
+      }
+      if (entry == null) {
+        if (!countedWait) {
+          state.hadToWaitCount.increment();
+          countedWait = true;
+        }
+        if (log.isDebugEnabled()) {
+          log.debug("Waiting as long as " + poolTimeToWait + " milliseconds for connection.");
+        }
+        long wt = System.currentTimeMillis();
+        try {
+          entry = await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        } finally {
+          state.accumulatedWaitTime.add(System.currentTimeMillis() - wt);
+        }
+        if (entry == null) {
+          continue;
+        }
+      }
+
+      PooledConnection conn = new PooledConnection(entry.realConnection, this);
+      conn.setStatementCache(entry.statementCache);
+      conn.setCreatedTimestamp(entry.createdTimestamp);
+      conn.setLastUsedTimestamp(entry.lastUsedTimestamp);
+      // ping to server and check the connection is valid or not
+      if (conn.isValid()) {
+        try {
+          if (!conn.getRealConnection().getAutoCommit()) {
+            conn.getRealConnection().rollback();
+          }
+        } catch (SQLException e) {
+          discard(entry);
+          throw e;
+        }
+        long now = System.currentTimeMillis();
+        conn.setConnectionTypeCode(assembleConnectionTypeCode(dataSource.getUrl(), username, password));
+        conn.setCheckoutTimestamp(now);
+        conn.setLastUsedTimestamp(now);
+        entry.current.set(conn);
+        state.requestCount.increment();
+        state.accumulatedRequestTime.add(now - t);
+        return conn;
+      }
+
+      if (log.isDebugEnabled()) {
+        log.debug("A bad connection (" + conn.getRealHashCode() + ") was returned from the pool, getting another connection.");
+      }
+      state.badConnectionCount.increment();
+      localBadConnectionCount++;
+      discard(entry);
+      if (localBadConnectionCount > (poolMaximumIdleConnections + poolMaximumLocalBadConnectionTolerance)) {
+        if (log.isDebugEnabled()) {
+          log.debug("ConcurrentPooledDataSource: Could not get a good connection to the database.");
+        }
+        throw new SQLException("ConcurrentPooledDataSource: Could not get a good connection to the database.");
+      }
+    }
+
+    if (log.isDebugEnabled()) {
+      log.debug("ConcurrentPooledDataSource: Interrupted while waiting for a connection.");
+    }
+    throw new SQLException("ConcurrentPooledDataSource: Interrupted while waiting for a connection.");
+  }
+
+  /**
+   * Claims an idle connection, preferring the one this thread returned last.
+   */
+  private PoolEntry borrow() {
+    WeakReference<PoolEntry> reference = lastReturned.get();
+    if (reference != null) {
+      PoolEntry entry = reference.get();
+      if (entry != null && entry.state.compareAndSet(STATE_IDLE, STATE_IN_USE)) {
+        if (log.isDebugEnabled()) {
+          log.debug("Checked out connection " + entry.realConnection.hashCode() + " from pool.");
+        }
+        return entry;
+      }
+    }
+    for (PoolEntry entry : entries) {
+      if (entry.state.compareAndSet(STATE_IDLE, STATE_IN_USE)) {
+        if (log.isDebugEnabled()) {
+          log.debug("Checked out connection " + entry.realConnection.hashCode() + " from pool.");
+        }
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Opens a new physical connection if the pool is not full yet.
+   */
+  private PoolEntry create() throws SQLException {
+    int total;
+    do {
+      total = totalConnections.get();
+      if (total >= poolMaximumActiveConnections) {
+        return null;
+      }
+    } while (!totalConnections.compareAndSet(total, total + 1));
+    PoolEntry entry;
+    try {
+      entry = new PoolEntry(dataSource.getConnection(), newStatementCache());
+    } catch (SQLException | RuntimeException e) {
+      totalConnections.decrementAndGet();
+      throw e;
+    }
+    entries.add(entry);
+    if (log.isDebugEnabled()) {
+      log.debug("Created connection " + entry.realConnection.hashCode() + ".");
+    }
+    return entry;
+  }
+
+  /**
+   * Takes over a connection that has been checked out for longer than <code>poolMaximumCheckoutTime</code>.
+   */
+  private PoolEntry claimOverdue() {
+    for (PoolEntry entry : entries) {
+      PooledConnection overdue = entry.current.get();
+      if (overdue == null) {
+        continue;
+      }
+      long longestCheckoutTime = overdue.getCheckoutTime();
+      if (longestCheckoutTime > poolMaximumCheckoutTime && entry.current.compareAndSet(overdue, null)) {
+        state.claimedOverdueConnectionCount.increment();
+        state.accumulatedCheckoutTimeOfOverdueConnections.add(longestCheckoutTime);
+        state.accumulatedCheckoutTime.add(longestCheckoutTime);
+        overdue.invalidate();
+        try {
+          if (!entry.realConnection.getAutoCommit()) {
+            entry.realConnection.rollback();
+          }
+        } catch (SQLException e) {
+          // the ping on checkout will discard the connection if it is really broken
+          log.debug("Bad connection. Could not roll back");
+        }
+        clearStatementCache(entry.statementCache);
+        entry.lastUsedTimestamp = overdue.getLastUsedTimestamp();
+        if (log.isDebugEnabled()) {
+          log.debug("Claimed overdue connection " + overdue.getRealHashCode() + ".");
+        }
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Waits up to <code>poolTimeToWait</code> for a connection to be handed off by a returning thread.
+   *
+   * @return the claimed connection or <code>null</code> when the caller should try again
+   */
+  private PoolEntry await() throws InterruptedException {
+    waiters.incrementAndGet();
+    try {
+      // a connection may have been returned before this thread was registered as a waiter
+      PoolEntry entry = borrow();
+      if (entry != null) {
+        return entry;
+      }
+      long timeout = TimeUnit.MILLISECONDS.toNanos(poolTimeToWait);
+      long deadline = System.nanoTime() + timeout;
+      do {
+        entry = handoffQueue.poll(timeout, TimeUnit.NANOSECONDS);
+        if (entry == null || entry == SLOT_FREED) {
+          return null;
+        }
+        if (entry.state.compareAndSet(STATE_IDLE, STATE_IN_USE)) {
+          return entry;
+        }
+        timeout = deadline - System.nanoTime();
+      } while (timeout > 0);
+      return null;
+    } finally {
+      waiters.decrementAndGet();
+    }
+  }
+
+  /**
+   * Detaches the checked out connection from its entry. Only one of the owner and a thread claiming it as overdue
+   * can succeed.
+   */
+  private PoolEntry release(PooledConnection conn) {
+    for (PoolEntry entry : entries) {
+      if (entry.current.compareAndSet(conn, null)) {
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Puts the connection back into the bag and hands it to a waiting thread if there is one.
+   */
+  private void requite(PoolEntry entry) {
+    entry.state.set(STATE_IDLE);
+    lastReturned.set(entry.reference);
+    for (int i = 0; waiters.get() > 0; i++) {
+      if (entry.state.get() != STATE_IDLE || handoffQueue.offer(entry)) {
+        return;
+      } else if ((i & 0xff) == 0xff) {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+      } else {
+        Thread.yield();
+      }
+    }
+  }
+
+  private void discard(PoolEntry entry) {
+    if (entry.state.getAndSet(STATE_REMOVED) == STATE_REMOVED) {
+      return;
+    }
+    entries.remove(entry);
+    totalConnections.decrementAndGet();
+    try {
+      Connection realConn = entry.realConnection;
+      if (!realConn.getAutoCommit()) {
+        realConn.rollback();
+      }
+      realConn.close();
+    } catch (Exception e) {
+      // ignore
+    }
+    if (waiters.get() > 0) {
+      handoffQueue.offer(SLOT_FREED);
+    }
+  }
+
+  private static class PoolEntry {
+
+    private final Connection realConnection;
+    private final StatementCache statementCache;
+    private final AtomicInteger state = new AtomicInteger(STATE_IN_USE);
+    private final AtomicReference<PooledConnection> current = new AtomicReference<>();
+    private final WeakReference<PoolEntry> reference = new WeakReference<>(this);
+    private final long createdTimestamp;
+    private volatile long lastUsedTimestamp;
+
+    PoolEntry(Connection realConnection, StatementCache statementCache) {
+      this.realConnection = realConnection;
+      this.statementCache = statementCache;
+      this.createdTimestamp = System.currentTimeMillis();
+      this.lastUsedTimestamp = createdTimestamp;
+    }
+  }
+
+}
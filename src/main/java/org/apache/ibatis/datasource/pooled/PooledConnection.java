@@ -29,6 +29,8 @@ import org.apache.ibatis.reflection.ExceptionUtil;
 class PooledConnection implements InvocationHandler {
 
   private static final String CLOSE = "close";
+  private static final String UNWRAP = "unwrap";
+  private static final String IS_WRAPPER_FOR = "isWrapperFor";
   private static final Class<?>[] IFACES = new Class<?>[] { Connection.class };
 
   private final int hashCode;
@@ -40,6 +42,7 @@ class PooledConnection implements InvocationHandler {
   private long lastUsedTimestamp;
   private int connectionTypeCode;
   private boolean valid;
+  private StatementCache statementCache;
 
   /**
    * Constructor for SimplePooledConnection that uses the Connection and PooledDataSource passed in.
@@ -100,6 +103,24 @@ class PooledConnection implements InvocationHandler {
     return realConnection == null ? 0 : realConnection.hashCode();
   }
 
+  /**
+   * Getter for the statement cache of the real connection.
+   *
+   * @return The statement cache, or null if statements are not cached
+   */
+  public StatementCache getStatementCache() {
+    return statementCache;
+  }
+
+  /**
+   * Setter for the statement cache of the real connection.
+   *
+   * @param statementCache - the statement cache, which is handed over to every connection wrapping the same real connection
+   */
+  public void setStatementCache(StatementCache statementCache) {
+    this.statementCache = statementCache;
+  }
+
   /**
    * Getter for the connection type (based on url + user + password).
    *
@@ -236,6 +257,14 @@ class PooledConnection implements InvocationHandler {
       dataSource.pushConnection(this);
       return null;
     }
+    if (statementCache != null && args != null && args[0] == StatementCache.class) {
+      if (UNWRAP.equals(methodName)) {
+        checkConnection();
+        return statementCache;
+      } else if (IS_WRAPPER_FOR.equals(methodName)) {
+        return true;
+      }
+    }
     try {
       if (!Object.class.equals(method.getDeclaringClass())) {
         // issue #579 toString() should never fail
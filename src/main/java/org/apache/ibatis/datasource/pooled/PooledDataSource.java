@@ -42,7 +42,7 @@ public class PooledDataSource implements DataSource {
 
   private final PoolState state = new PoolState(this);
 
-  private final UnpooledDataSource dataSource;
+  protected final UnpooledDataSource dataSource;
 
   // OPTIONAL CONFIGURATION FIELDS
   protected int poolMaximumActiveConnections = 10;
@@ -53,8 +53,9 @@ public class PooledDataSource implements DataSource {
   protected String poolPingQuery = "NO PING QUERY SET";
   protected boolean poolPingEnabled;
   protected int poolPingConnectionsNotUsedFor;
+  protected int poolStatementCacheSize;
 
-  private int expectedConnectionTypeCode;
+  protected int expectedConnectionTypeCode;
 
   public PooledDataSource() {
     dataSource = new UnpooledDataSource();
@@ -247,6 +248,20 @@ public class PooledDataSource implements DataSource {
     forceCloseAll();
   }
 
+  /**
+   * The number of statements cached per connection, so that statements prepared in one session can be reused by
+   * later sessions that borrow the same connection. Statements are only cached by the <code>REUSE</code> executor.
+   * Zero, the default, disables the cache.
+   *
+   * @param poolStatementCacheSize the maximum number of statements per connection
+   * @since 3.5.3
+   * @see StatementCache
+   */
+  public void setPoolStatementCacheSize(int poolStatementCacheSize) {
+    this.poolStatementCacheSize = poolStatementCacheSize;
+    forceCloseAll();
+  }
+
   public String getDriver() {
     return dataSource.getDriver();
   }
@@ -314,6 +329,13 @@ public class PooledDataSource implements DataSource {
     return poolPingConnectionsNotUsedFor;
   }
 
+  /**
+   * @since 3.5.3
+   */
+  public int getPoolStatementCacheSize() {
+    return poolStatementCacheSize;
+  }
+
   /**
    * Closes all active and idle connections in the pool.
    */
@@ -358,7 +380,26 @@ public class PooledDataSource implements DataSource {
     return state;
   }
 
-  private int assembleConnectionTypeCode(String url, String username, String password) {
+  /**
+   * Creates the statement cache for a new physical connection.
+   *
+   * @return the cache, or null if <code>poolStatementCacheSize</code> is not positive
+   */
+  protected StatementCache newStatementCache() {
+    return poolStatementCacheSize > 0 ? new StatementCache(poolStatementCacheSize) : null;
+  }
+
+  /**
+   * Closes the statements of a connection claimed from another thread, which may still hold on to them.
+   */
+  protected StatementCache clearStatementCache(StatementCache statementCache) {
+    if (statementCache != null) {
+      statementCache.clear();
+    }
+    return statementCache;
+  }
+
+  protected int assembleConnectionTypeCode(String url, String username, String password) {
     return ("" + url + username + password).hashCode();
   }
 
@@ -373,6 +414,7 @@ public class PooledDataSource implements DataSource {
             conn.getRealConnection().rollback();
           }
           PooledConnection newConn = new PooledConnection(conn.getRealConnection(), this);
+          newConn.setStatementCache(conn.getStatementCache());
           state.idleConnections.add(newConn);
           newConn.setCreatedTimestamp(conn.getCreatedTimestamp());
           newConn.setLastUsedTimestamp(conn.getLastUsedTimestamp());
@@ -420,6 +462,7 @@ public class PooledDataSource implements DataSource {
           if (state.activeConnections.size() < poolMaximumActiveConnections) {
             // Can create new connection
             conn = new PooledConnection(dataSource.getConnection(), this);
+            conn.setStatementCache(newStatementCache());
             if (log.isDebugEnabled()) {
               log.debug("Created connection " + conn.getRealHashCode() + ".");
             }
@@ -449,6 +492,7 @@ public class PooledDataSource implements DataSource {
                 }
               }
               conn = new PooledConnection(oldestActiveConnection.getRealConnection(), this);
+              conn.setStatementCache(clearStatementCache(oldestActiveConnection.getStatementCache()));
               conn.setCreatedTimestamp(oldestActiveConnection.getCreatedTimestamp());
               conn.setLastUsedTimestamp(oldestActiveConnection.getLastUsedTimestamp());
               oldestActiveConnection.invalidate();
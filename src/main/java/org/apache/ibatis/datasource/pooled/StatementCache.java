@@ -0,0 +1,102 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, least recently used cache of statements that lives with a physical connection of a
+ * {@link PooledDataSource}, so that statements prepared by one session can be reused by the next session that borrows
+ * the same connection. Statements evicted from the cache are closed.
+ * <p>
+ * Enabled with the <code>poolStatementCacheSize</code> property of the data source. The cache of a connection is
+ * obtained with <code>connection.unwrap(StatementCache.class)</code>.
+ *
+ * @since 3.5.3
+ */
+public class StatementCache {
+
+  private final Map<Object, Statement> statements;
+
+  public StatementCache(final int size) {
+    this.statements = new LinkedHashMap<Object, Statement>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Object, Statement> eldest) {
+        if (size() > size) {
+          close(eldest.getValue());
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Returns the cached statement for the key.
+   *
+   * @param key the key, which must identify the SQL and every option the statement was prepared with
+   * @return the statement, or null if there is none
+   */
+  public synchronized Statement get(Object key) {
+    return statements.get(key);
+  }
+
+  /**
+   * Adds a statement to the cache, closing the statement it replaces and, if the cache is full, the least recently
+   * used statement.
+   */
+  public synchronized void put(Object key, Statement statement) {
+    Statement previous = statements.put(key, statement);
+    if (previous != null && previous != statement) {
+      close(previous);
+    }
+  }
+
+  /**
+   * Removes a statement from the cache without closing it.
+   */
+  public synchronized void remove(Object key) {
+    statements.remove(key);
+  }
+
+  /**
+   * Closes and removes all statements.
+   */
+  public synchronized void clear() {
+    for (Statement statement : statements.values()) {
+      close(statement);
+    }
+    statements.clear();
+  }
+
+  public synchronized int size() {
+    return statements.size();
+  }
+
+  private static void close(Statement statement) {
+    try {
+      statement.close();
+    } catch (SQLException e) {
+      // ignore
+    }
+  }
+
+}
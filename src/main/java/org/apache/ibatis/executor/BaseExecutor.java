@@ -26,6 +26,9 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.metrics.StatementMetrics;
+import org.apache.ibatis.executor.metrics.StatementPhase;
+import org.apache.ibatis.executor.pagination.SeekRowBounds;
 import org.apache.ibatis.executor.statement.StatementUtil;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
@@ -41,6 +44,7 @@ import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.LocalCacheScope;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.Seek;
 import org.apache.ibatis.transaction.Transaction;
 import org.apache.ibatis.type.TypeHandlerRegistry;
 
@@ -114,7 +118,15 @@ public abstract class BaseExecutor implements Executor {
       throw new ExecutorException("Executor was closed.");
     }
     clearLocalCache();
-    return doUpdate(ms, parameter);
+    try {
+      return doUpdate(ms, parameter);
+    } catch (BatchExecutorException e) {
+      // recorded for each statement of the failed batches
+      throw e;
+    } catch (SQLException | RuntimeException e) {
+      recordError(ms);
+      throw e;
+    }
   }
 
   @Override
@@ -151,6 +163,7 @@ public abstract class BaseExecutor implements Executor {
       queryStack++;
       list = resultHandler == null ? (List<E>) localCache.getObject(key) : null;
       if (list != null) {
+        recordCacheHit(ms);
         handleLocallyCachedOutputParameters(ms, key, parameter, boundSql);
       } else {
         list = queryFromDatabase(ms, parameter, rowBounds, resultHandler, key, boundSql);
@@ -175,7 +188,12 @@ public abstract class BaseExecutor implements Executor {
   @Override
   public <E> Cursor<E> queryCursor(MappedStatement ms, Object parameter, RowBounds rowBounds) throws SQLException {
     BoundSql boundSql = ms.getBoundSql(parameter);
-    return doQueryCursor(ms, parameter, rowBounds, boundSql);
+    try {
+      return doQueryCursor(ms, parameter, rowBounds, boundSql);
+    } catch (SQLException | RuntimeException e) {
+      recordError(ms);
+      throw e;
+    }
   }
 
   @Override
@@ -196,13 +214,10 @@ public abstract class BaseExecutor implements Executor {
     if (closed) {
       throw new ExecutorException("Executor was closed.");
     }
-    CacheKey cacheKey = new CacheKey();
-    cacheKey.update(ms.getId());
-    cacheKey.update(rowBounds.getOffset());
-    cacheKey.update(rowBounds.getLimit());
-    cacheKey.update(boundSql.getSql());
     List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+    CacheKey cacheKey = ms.newCacheKey(rowBounds, boundSql.getSql(), parameterMappings.size() + 1);
     TypeHandlerRegistry typeHandlerRegistry = ms.getConfiguration().getTypeHandlerRegistry();
+    MetaObject metaObject = null;
     // mimic DefaultParameterHandler logic
     for (ParameterMapping parameterMapping : parameterMappings) {
       if (parameterMapping.getMode() != ParameterMode.OUT) {
@@ -215,12 +230,24 @@ public abstract class BaseExecutor implements Executor {
         } else if (typeHandlerRegistry.hasTypeHandler(parameterObject.getClass())) {
           value = parameterObject;
         } else {
-          MetaObject metaObject = configuration.newMetaObject(parameterObject);
+          if (metaObject == null) {
+            metaObject = configuration.newMetaObject(parameterObject);
+          }
           value = metaObject.getValue(propertyName);
         }
         cacheKey.update(value);
       }
     }
+    if (rowBounds instanceof SeekRowBounds) {
+      // the keyset is bound to the SQL of the page only
+      Seek seek = ((SeekRowBounds) rowBounds).getSeek();
+      cacheKey.update(seek.getKeys().toString());
+      if (seek.getValues() != null) {
+        for (Object value : seek.getValues()) {
+          cacheKey.update(value);
+        }
+      }
+    }
     if (configuration.getEnvironment() != null) {
       // issue #176
       cacheKey.update(configuration.getEnvironment().getId());
@@ -322,6 +349,9 @@ public abstract class BaseExecutor implements Executor {
     localCache.putObject(key, EXECUTION_PLACEHOLDER);
     try {
       list = doQuery(ms, parameter, rowBounds, resultHandler, boundSql);
+    } catch (SQLException | RuntimeException e) {
+      recordError(ms);
+      throw e;
     } finally {
       localCache.removeObject(key);
     }
@@ -332,9 +362,49 @@ public abstract class BaseExecutor implements Executor {
     return list;
   }
 
+  private void recordCacheHit(MappedStatement ms) {
+    StatementMetrics statementMetrics = configuration.getStatementMetrics();
+    if (statementMetrics != null) {
+      statementMetrics.recordCacheHit(ms.getId());
+    }
+  }
+
+  /**
+   * Records an error of the statement in the statement metrics, if any.
+   *
+   * @since 3.5.3
+   */
+  protected void recordError(MappedStatement ms) {
+    StatementMetrics statementMetrics = configuration.getStatementMetrics();
+    if (statementMetrics != null) {
+      statementMetrics.recordError(ms.getId());
+    }
+  }
+
+  /**
+   * Returns the start time of a phase, or 0 if no metrics are recorded.
+   *
+   * @since 3.5.3
+   */
+  protected long startPhase() {
+    return configuration.getStatementMetrics() == null ? 0L : System.nanoTime();
+  }
+
+  /**
+   * Records the time elapsed since {@link #startPhase()} as a phase of the statement.
+   *
+   * @since 3.5.3
+   */
+  protected void endPhase(MappedStatement ms, StatementPhase phase, long start) {
+    StatementMetrics statementMetrics = configuration.getStatementMetrics();
+    if (statementMetrics != null) {
+      statementMetrics.recordPhase(ms.getId(), phase, System.nanoTime() - start);
+    }
+  }
+
   protected Connection getConnection(Log statementLog) throws SQLException {
     Connection connection = transaction.getConnection();
-    if (statementLog.isDebugEnabled()) {
+    if (statementLog.isDebugEnabled() && !configuration.isLightweightSqlLoggingEnabled()) {
       return ConnectionLogger.newInstance(connection, statementLog, queryStack);
     } else {
       return connection;
@@ -21,15 +21,26 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.executor.metrics.StatementPhase;
 import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.BatchGrouping;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
@@ -42,8 +53,18 @@ public class BatchExecutor extends BaseExecutor {
 
   public static final int BATCH_UPDATE_RETURN_VALUE = Integer.MIN_VALUE + 1002;
 
+  private static final Pattern TABLE_PATTERN = Pattern.compile(
+      "^\\s*(?:insert\\s+into|update|delete\\s+from|merge\\s+into)\\s+([\\w.$\"`\\[\\]]+)(?:\\s|\\(|$)", Pattern.CASE_INSENSITIVE);
+
   private final List<Statement> statementList = new ArrayList<>();
   private final List<BatchResult> batchResultList = new ArrayList<>();
+  private final Map<BatchKey, Integer> batchIndexes = new HashMap<>();
+  private final Map<String, Integer> lastBatchIndexByTable = new HashMap<>();
+  private final List<BatchResult> executedBatchResults = new ArrayList<>();
+  // batches before this index are not reused
+  private int reorderBarrier;
+  private int pendingRows;
+  private long pendingBytes;
   private String currentSql;
   private MappedStatement currentStatement;
 
@@ -58,12 +79,13 @@ public class BatchExecutor extends BaseExecutor {
     final BoundSql boundSql = handler.getBoundSql();
     final String sql = boundSql.getSql();
     final Statement stmt;
-    if (sql.equals(currentSql) && ms.equals(currentStatement)) {
-      int last = statementList.size() - 1;
-      stmt = statementList.get(last);
+    final BatchGrouping grouping = configuration.getBatchGrouping();
+    final int index = grouping == null || grouping == BatchGrouping.CONSECUTIVE ? consecutiveBatchIndex(ms, sql) : batchIndex(grouping, ms, sql);
+    if (index >= 0) {
+      stmt = statementList.get(index);
       applyTransactionTimeout(stmt);
       handler.parameterize(stmt);//fix Issues 322
-      BatchResult batchResult = batchResultList.get(last);
+      BatchResult batchResult = batchResultList.get(index);
       batchResult.addParameterObject(parameterObject);
     } else {
       Connection connection = getConnection(ms.getStatementLog());
@@ -73,11 +95,89 @@ public class BatchExecutor extends BaseExecutor {
       currentStatement = ms;
       statementList.add(stmt);
       batchResultList.add(new BatchResult(ms, sql, parameterObject));
+      if (grouping != null && grouping != BatchGrouping.CONSECUTIVE) {
+        batchIndexes.put(new BatchKey(ms, sql), statementList.size() - 1);
+      }
     }
     handler.batch(stmt);
+    if (grouping == BatchGrouping.TABLE) {
+      addedToBatch(sql, index >= 0 ? index : statementList.size() - 1);
+    }
+    pendingRows++;
+    Integer flushBytes = configuration.getBatchFlushBytes();
+    if (flushBytes != null) {
+      pendingBytes += estimateSize(boundSql, parameterObject);
+    }
+    Integer flushRows = configuration.getBatchFlushRows();
+    if ((flushRows != null && pendingRows >= flushRows) || (flushBytes != null && pendingBytes >= flushBytes)) {
+      executedBatchResults.addAll(executeBatches());
+    }
     return BATCH_UPDATE_RETURN_VALUE;
   }
 
+  private int consecutiveBatchIndex(MappedStatement ms, String sql) {
+    return sql.equals(currentSql) && ms.equals(currentStatement) ? statementList.size() - 1 : -1;
+  }
+
+  private int batchIndex(BatchGrouping grouping, MappedStatement ms, String sql) {
+    Integer index = batchIndexes.get(new BatchKey(ms, sql));
+    if (index == null) {
+      return -1;
+    }
+    if (grouping == BatchGrouping.TABLE) {
+      String table = tableOf(sql);
+      boolean ordered = table == null ? index == statementList.size() - 1 : index.equals(lastBatchIndexByTable.get(table));
+      if (!ordered || index < reorderBarrier) {
+        return -1;
+      }
+    }
+    return index;
+  }
+
+  private void addedToBatch(String sql, int index) {
+    String table = tableOf(sql);
+    if (table == null) {
+      // no update can be moved across one whose table is unknown
+      reorderBarrier = index;
+    } else {
+      lastBatchIndexByTable.put(table, index);
+    }
+  }
+
+  private static String tableOf(String sql) {
+    Matcher matcher = TABLE_PATTERN.matcher(sql);
+    return matcher.find() ? matcher.group(1).toLowerCase(Locale.ENGLISH) : null;
+  }
+
+  private long estimateSize(BoundSql boundSql, Object parameterObject) {
+    long size = 0;
+    MetaObject metaObject = null;
+    for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+      String propertyName = parameterMapping.getProperty();
+      Object value;
+      if (boundSql.hasAdditionalParameter(propertyName)) {
+        value = boundSql.getAdditionalParameter(propertyName);
+      } else if (parameterObject == null) {
+        value = null;
+      } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+        value = parameterObject;
+      } else {
+        if (metaObject == null) {
+          metaObject = configuration.newMetaObject(parameterObject);
+        }
+        value = metaObject.getValue(propertyName);
+      }
+      if (value instanceof CharSequence) {
+        size += 2L * ((CharSequence) value).length();
+      } else if (value instanceof byte[]) {
+        size += ((byte[]) value).length;
+      } else {
+        size += 8;
+      }
+    }
+    return size;
+  }
+
   @Override
   public <E> List<E> doQuery(MappedStatement ms, Object parameterObject, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql)
       throws SQLException {
@@ -110,17 +210,37 @@ public class BatchExecutor extends BaseExecutor {
   @Override
   public List<BatchResult> doFlushStatements(boolean isRollback) throws SQLException {
     try {
-      List<BatchResult> results = new ArrayList<>();
       if (isRollback) {
         return Collections.emptyList();
       }
+      List<BatchResult> results = executeBatches();
+      if (executedBatchResults.isEmpty()) {
+        return results;
+      }
+      List<BatchResult> allResults = new ArrayList<>(executedBatchResults);
+      allResults.addAll(results);
+      return allResults;
+    } finally {
+      for (Statement stmt : statementList) {
+        closeStatement(stmt);
+      }
+      clearBatches();
+      executedBatchResults.clear();
+    }
+  }
+
+  private List<BatchResult> executeBatches() throws SQLException {
+    try {
+      List<BatchResult> results = new ArrayList<>();
       for (int i = 0, n = statementList.size(); i < n; i++) {
         Statement stmt = statementList.get(i);
         applyTransactionTimeout(stmt);
         BatchResult batchResult = batchResultList.get(i);
         try {
-          batchResult.setUpdateCounts(stmt.executeBatch());
           MappedStatement ms = batchResult.getMappedStatement();
+          long start = startPhase();
+          batchResult.setUpdateCounts(stmt.executeBatch());
+          endPhase(ms, StatementPhase.EXECUTE, start);
           List<Object> parameterObjects = batchResult.getParameterObjects();
           KeyGenerator keyGenerator = ms.getKeyGenerator();
           if (Jdbc3KeyGenerator.class.equals(keyGenerator.getClass())) {
@@ -145,7 +265,10 @@ public class BatchExecutor extends BaseExecutor {
                 .append(i)
                 .append(" prior sub executor(s) completed successfully, but will be rolled back.");
           }
-          throw new BatchExecutorException(message.toString(), e, results, batchResult);
+          recordBatchErrors();
+          List<BatchResult> successfulBatchResults = new ArrayList<>(executedBatchResults);
+          successfulBatchResults.addAll(results);
+          throw new BatchExecutorException(message.toString(), e, successfulBatchResults, batchResult);
         }
         results.add(batchResult);
       }
@@ -154,9 +277,61 @@ public class BatchExecutor extends BaseExecutor {
       for (Statement stmt : statementList) {
         closeStatement(stmt);
       }
-      currentSql = null;
-      statementList.clear();
-      batchResultList.clear();
+      clearBatches();
+    }
+  }
+
+  /**
+   * Records an error for each statement with updates in the failed batches, which are all rolled back.
+   */
+  private void recordBatchErrors() {
+    Set<MappedStatement> statements = new LinkedHashSet<>();
+    for (BatchResult batchResult : executedBatchResults) {
+      statements.add(batchResult.getMappedStatement());
+    }
+    for (BatchResult batchResult : batchResultList) {
+      statements.add(batchResult.getMappedStatement());
+    }
+    for (MappedStatement ms : statements) {
+      recordError(ms);
+    }
+  }
+
+  private void clearBatches() {
+    currentSql = null;
+    statementList.clear();
+    batchResultList.clear();
+    batchIndexes.clear();
+    lastBatchIndexByTable.clear();
+    reorderBarrier = 0;
+    pendingRows = 0;
+    pendingBytes = 0;
+  }
+
+  private static class BatchKey {
+    private final MappedStatement mappedStatement;
+    private final String sql;
+
+    BatchKey(MappedStatement mappedStatement, String sql) {
+      this.mappedStatement = mappedStatement;
+      this.sql = sql;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof BatchKey)) {
+        return false;
+      }
+      BatchKey other = (BatchKey) o;
+      return mappedStatement.equals(other.mappedStatement) && sql.equals(other.sql);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * mappedStatement.hashCode() + sql.hashCode();
     }
   }
 
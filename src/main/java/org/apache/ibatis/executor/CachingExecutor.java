@@ -16,12 +16,18 @@
 package org.apache.ibatis.executor;
 
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cache.TableVersionedResult;
+import org.apache.ibatis.cache.TableVersions;
 import org.apache.ibatis.cache.TransactionalCacheManager;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.metrics.StatementMetrics;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
@@ -40,6 +46,8 @@ public class CachingExecutor implements Executor {
 
   private final Executor delegate;
   private final TransactionalCacheManager tcm = new TransactionalCacheManager();
+  private final Set<String> writtenTables = new HashSet<>();
+  private TableVersions tableVersions;
 
   public CachingExecutor(Executor delegate) {
     this.delegate = delegate;
@@ -57,8 +65,10 @@ public class CachingExecutor implements Executor {
       //issues #499, #524 and #573
       if (forceRollback) {
         tcm.rollback();
+        writtenTables.clear();
       } else {
         tcm.commit();
+        invalidateWrittenTables();
       }
     } finally {
       delegate.close(forceRollback);
@@ -72,7 +82,11 @@ public class CachingExecutor implements Executor {
 
   @Override
   public int update(MappedStatement ms, Object parameterObject) throws SQLException {
-    flushCacheIfRequired(ms);
+    if (ms.getConfiguration().isTableCacheInvalidationEnabled() && ms.isFlushCacheRequired()) {
+      addWrittenTables(ms, parameterObject);
+    } else {
+      flushCacheIfRequired(ms);
+    }
     return delegate.update(ms, parameterObject);
   }
 
@@ -97,11 +111,16 @@ public class CachingExecutor implements Executor {
       flushCacheIfRequired(ms);
       if (ms.isUseCache() && resultHandler == null) {
         ensureNoOutParams(ms, boundSql);
+        if (ms.getConfiguration().isTableCacheInvalidationEnabled()) {
+          return queryByTableVersions(ms, parameterObject, rowBounds, key, boundSql, cache);
+        }
         @SuppressWarnings("unchecked")
         List<E> list = (List<E>) tcm.getObject(cache, key);
         if (list == null) {
           list = delegate.query(ms, parameterObject, rowBounds, resultHandler, key, boundSql);
           tcm.putObject(cache, key, list); // issue #578 and #116
+        } else {
+          recordCacheHit(ms);
         }
         return list;
       }
@@ -109,6 +128,44 @@ public class CachingExecutor implements Executor {
     return delegate.query(ms, parameterObject, rowBounds, resultHandler, key, boundSql);
   }
 
+  private <E> List<E> queryByTableVersions(MappedStatement ms, Object parameterObject, RowBounds rowBounds, CacheKey key, BoundSql boundSql, Cache cache)
+      throws SQLException {
+    String[] tables = ms.getReadTables(boundSql);
+    if (tables.length == 0 || readsWrittenTables(tables)) {
+      // nothing would invalidate the result, or it may depend on writes of this transaction
+      return delegate.query(ms, parameterObject, rowBounds, null, key, boundSql);
+    }
+    TableVersions versions = ms.getConfiguration().getTableVersions();
+    Object cached = tcm.getObject(cache, key);
+    if (cached instanceof TableVersionedResult && ((TableVersionedResult) cached).isCurrent(versions)) {
+      recordCacheHit(ms);
+      @SuppressWarnings("unchecked")
+      List<E> list = (List<E>) ((TableVersionedResult) cached).getValue();
+      return list;
+    }
+    // read the versions before the rows, so that a write committed meanwhile invalidates the result
+    long[] readVersions = versions.getVersions(tables);
+    List<E> list = delegate.query(ms, parameterObject, rowBounds, null, key, boundSql);
+    tcm.putObject(cache, key, new TableVersionedResult(list, tables, readVersions));
+    return list;
+  }
+
+  private boolean readsWrittenTables(String[] tables) {
+    for (String table : tables) {
+      if (writtenTables.contains(table)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void recordCacheHit(MappedStatement ms) {
+    StatementMetrics statementMetrics = ms.getConfiguration().getStatementMetrics();
+    if (statementMetrics != null) {
+      statementMetrics.recordCacheHit(ms.getId());
+    }
+  }
+
   @Override
   public List<BatchResult> flushStatements() throws SQLException {
     return delegate.flushStatements();
@@ -118,6 +175,7 @@ public class CachingExecutor implements Executor {
   public void commit(boolean required) throws SQLException {
     delegate.commit(required);
     tcm.commit();
+    invalidateWrittenTables();
   }
 
   @Override
@@ -127,6 +185,7 @@ public class CachingExecutor implements Executor {
     } finally {
       if (required) {
         tcm.rollback();
+        writtenTables.clear();
       }
     }
   }
@@ -168,6 +227,23 @@ public class CachingExecutor implements Executor {
     }
   }
 
+  private void addWrittenTables(MappedStatement ms, Object parameterObject) {
+    String[] tables = ms.getWrittenTables(parameterObject);
+    if (tables.length == 0) {
+      flushCacheIfRequired(ms);
+    } else {
+      tableVersions = ms.getConfiguration().getTableVersions();
+      writtenTables.addAll(Arrays.asList(tables));
+    }
+  }
+
+  private void invalidateWrittenTables() {
+    if (!writtenTables.isEmpty()) {
+      tableVersions.increment(writtenTables);
+      writtenTables.clear();
+    }
+  }
+
   @Override
   public void setExecutorWrapper(Executor executor) {
     throw new UnsupportedOperationException("This method should not be called");
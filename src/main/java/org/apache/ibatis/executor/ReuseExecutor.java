@@ -23,7 +23,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.datasource.pooled.StatementCache;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.mapping.BoundSql;
@@ -39,6 +42,8 @@ import org.apache.ibatis.transaction.Transaction;
 public class ReuseExecutor extends BaseExecutor {
 
   private final Map<String, Statement> statementMap = new HashMap<>();
+  private StatementCache statementCache;
+  private boolean statementCacheResolved;
 
   public ReuseExecutor(Configuration configuration, Transaction transaction) {
     super(configuration, transaction);
@@ -48,7 +53,7 @@ public class ReuseExecutor extends BaseExecutor {
   public int doUpdate(MappedStatement ms, Object parameter) throws SQLException {
     Configuration configuration = ms.getConfiguration();
     StatementHandler handler = configuration.newStatementHandler(this, ms, parameter, RowBounds.DEFAULT, null, null);
-    Statement stmt = prepareStatement(handler, ms.getStatementLog());
+    Statement stmt = prepareStatement(handler, ms);
     return handler.update(stmt);
   }
 
@@ -56,7 +61,7 @@ public class ReuseExecutor extends BaseExecutor {
   public <E> List<E> doQuery(MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
     Configuration configuration = ms.getConfiguration();
     StatementHandler handler = configuration.newStatementHandler(wrapper, ms, parameter, rowBounds, resultHandler, boundSql);
-    Statement stmt = prepareStatement(handler, ms.getStatementLog());
+    Statement stmt = prepareStatement(handler, ms);
     return handler.query(stmt, resultHandler);
   }
 
@@ -64,7 +69,7 @@ public class ReuseExecutor extends BaseExecutor {
   protected <E> Cursor<E> doQueryCursor(MappedStatement ms, Object parameter, RowBounds rowBounds, BoundSql boundSql) throws SQLException {
     Configuration configuration = ms.getConfiguration();
     StatementHandler handler = configuration.newStatementHandler(wrapper, ms, parameter, rowBounds, null, boundSql);
-    Statement stmt = prepareStatement(handler, ms.getStatementLog());
+    Statement stmt = prepareStatement(handler, ms);
     return handler.queryCursor(stmt);
   }
 
@@ -77,11 +82,23 @@ public class ReuseExecutor extends BaseExecutor {
     return Collections.emptyList();
   }
 
-  private Statement prepareStatement(StatementHandler handler, Log statementLog) throws SQLException {
+  private Statement prepareStatement(StatementHandler handler, MappedStatement ms) throws SQLException {
     Statement stmt;
     BoundSql boundSql = handler.getBoundSql();
     String sql = boundSql.getSql();
-    if (hasStatementFor(sql)) {
+    Log statementLog = ms.getStatementLog();
+    StatementCache cache = getStatementCache();
+    if (cache != null) {
+      CacheKey key = createStatementKey(ms, sql);
+      stmt = cache.get(key);
+      if (stmt == null) {
+        Connection connection = getConnection(statementLog);
+        stmt = handler.prepare(connection, transaction.getTimeout());
+        cache.put(key, stmt);
+      } else {
+        applyTransactionTimeout(stmt);
+      }
+    } else if (hasStatementFor(sql)) {
       stmt = getStatement(sql);
       applyTransactionTimeout(stmt);
     } else {
@@ -93,6 +110,31 @@ public class ReuseExecutor extends BaseExecutor {
     return stmt;
   }
 
+  /**
+   * Returns the statement cache of the connection if it is provided by a pooled data source with
+   * <code>poolStatementCacheSize</code> set. Statements in that cache outlive this executor and belong to the connection.
+   */
+  private StatementCache getStatementCache() throws SQLException {
+    if (!statementCacheResolved) {
+      Connection connection = transaction.getConnection();
+      statementCache = connection.isWrapperFor(StatementCache.class) ? connection.unwrap(StatementCache.class) : null;
+      statementCacheResolved = true;
+    }
+    return statementCache;
+  }
+
+  private CacheKey createStatementKey(MappedStatement ms, String sql) {
+    CacheKey key = new CacheKey();
+    key.update(sql);
+    key.update(ms.getStatementType());
+    key.update(ms.getResultSetType());
+    key.update(ms.getKeyGenerator() instanceof Jdbc3KeyGenerator);
+    key.update(ms.getKeyColumns());
+    key.update(ms.getFetchSize());
+    key.update(ms.getTimeout());
+    return key;
+  }
+
   private boolean hasStatementFor(String sql) {
     try {
       return statementMap.keySet().contains(sql) && !statementMap.get(sql).getConnection().isClosed();
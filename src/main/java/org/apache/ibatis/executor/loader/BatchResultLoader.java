@@ -0,0 +1,138 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader;
+
+import java.math.BigInteger;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.defaults.DefaultSqlSession.StrictMap;
+
+/**
+ * Loads the result of a nested query together with the pending loads of other rows for the same mapping, with one
+ * execution of a batch statement for up to {@link Configuration#getBatchLoadSize()} parameters.
+ * <p>
+ * The batch statement gets the parameters as <code>list</code> (or <code>collection</code>), and the objects it
+ * returns are given to the loader whose parameter equals their key property.
+ *
+ * @since 3.5.3
+ */
+public class BatchResultLoader extends ResultLoader {
+
+  private final Batch batch;
+
+  public BatchResultLoader(Configuration config, Executor executor, MappedStatement mappedStatement, Object parameterObject,
+      Class<?> targetType, CacheKey cacheKey, BoundSql boundSql, Batch batch) {
+    super(config, executor, mappedStatement, parameterObject, targetType, cacheKey, boundSql);
+    this.batch = batch;
+    batch.add(this);
+  }
+
+  @Override
+  public Object loadResult() throws SQLException {
+    batch.load(this);
+    return resultObject;
+  }
+
+  /**
+   * The pending loads of a mapping.
+   */
+  public static class Batch {
+
+    private final MappedStatement batchStatement;
+    private final String keyProperty;
+    private final Set<BatchResultLoader> pending = new LinkedHashSet<>();
+
+    public Batch(MappedStatement batchStatement, String keyProperty) {
+      this.batchStatement = batchStatement;
+      this.keyProperty = keyProperty;
+    }
+
+    synchronized void add(BatchResultLoader loader) {
+      pending.add(loader);
+    }
+
+    synchronized void load(BatchResultLoader loader) throws SQLException {
+      if (loader.loaded) {
+        return;
+      }
+      int batchSize = Math.max(1, loader.configuration.getBatchLoadSize());
+      // loaders by key, starting with the one to load
+      Map<Object, List<BatchResultLoader>> loaders = new LinkedHashMap<>();
+      loaders.computeIfAbsent(keyOf(loader.parameterObject), k -> new ArrayList<>()).add(loader);
+      pending.remove(loader);
+      for (Iterator<BatchResultLoader> iterator = pending.iterator(); iterator.hasNext();) {
+        BatchResultLoader other = iterator.next();
+        Object key = keyOf(other.parameterObject);
+        // loaders of keys already in the batch come along for free
+        if (loaders.size() < batchSize || loaders.containsKey(key)) {
+          loaders.computeIfAbsent(key, k -> new ArrayList<>()).add(other);
+          iterator.remove();
+        }
+      }
+      List<Object> parameters = new ArrayList<>(loaders.size());
+      for (List<BatchResultLoader> sameKey : loaders.values()) {
+        parameters.add(sameKey.get(0).parameterObject);
+      }
+      Map<Object, List<Object>> results = new HashMap<>();
+      for (Object result : loader.selectList(batchStatement, wrap(parameters))) {
+        Object key = result == null ? null : keyOf(loader.configuration.newMetaObject(result).getValue(keyProperty));
+        results.computeIfAbsent(key, k -> new ArrayList<>()).add(result);
+      }
+      for (Map.Entry<Object, List<BatchResultLoader>> entry : loaders.entrySet()) {
+        List<Object> list = results.getOrDefault(entry.getKey(), Collections.emptyList());
+        for (BatchResultLoader each : entry.getValue()) {
+          each.resultObject = each.resultExtractor.extractObjectFromList(new ArrayList<>(list), each.targetType);
+          each.loaded = true;
+        }
+      }
+    }
+
+    private static Object wrap(List<Object> parameters) {
+      StrictMap<Object> map = new StrictMap<>();
+      map.put("collection", parameters);
+      map.put("list", parameters);
+      return map;
+    }
+
+    /**
+     * Integral numbers are compared by value, as the parameter and the key property may not have the same type.
+     */
+    private static Object keyOf(Object value) {
+      if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+        return ((Number) value).longValue();
+      }
+      if (value instanceof BigInteger && ((BigInteger) value).bitLength() < 64) {
+        return ((BigInteger) value).longValue();
+      }
+      return value;
+    }
+  }
+
+}
@@ -73,16 +73,38 @@ public class ResultLoader {
   }
 
   private <E> List<E> selectList() throws SQLException {
-    Executor localExecutor = executor;
-    if (Thread.currentThread().getId() != this.creatorThreadId || localExecutor.isClosed()) {
-      localExecutor = newExecutor();
-    }
+    Executor localExecutor = localExecutor();
     try {
       return localExecutor.query(mappedStatement, parameterObject, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER, cacheKey, boundSql);
     } finally {
-      if (localExecutor != executor) {
-        localExecutor.close(false);
-      }
+      closeLocalExecutor(localExecutor);
+    }
+  }
+
+  /**
+   * Runs another statement with the executor this loader would use.
+   *
+   * @since 3.5.3
+   */
+  protected <E> List<E> selectList(MappedStatement statement, Object parameter) throws SQLException {
+    Executor localExecutor = localExecutor();
+    try {
+      return localExecutor.query(statement, parameter, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+    } finally {
+      closeLocalExecutor(localExecutor);
+    }
+  }
+
+  private Executor localExecutor() {
+    if (Thread.currentThread().getId() != this.creatorThreadId || executor.isClosed()) {
+      return newExecutor();
+    }
+    return executor;
+  }
+
+  private void closeLocalExecutor(Executor localExecutor) {
+    if (localExecutor != executor) {
+      localExecutor.close(false);
     }
   }
 
@@ -0,0 +1,116 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps counters and a {@link LatencyHistogram} per phase for every mapped statement, without locking on the
+ * execution path.
+ *
+ * @since 3.5.3
+ */
+public class DefaultStatementMetrics implements StatementMetrics {
+
+  private static final StatementPhase[] PHASES = StatementPhase.values();
+
+  private final ConcurrentMap<String, Metrics> metrics = new ConcurrentHashMap<>();
+
+  @Override
+  public void recordPhase(String statementId, StatementPhase phase, long nanos) {
+    metricsFor(statementId).phases[phase.ordinal()].record(nanos);
+  }
+
+  @Override
+  public void recordError(String statementId) {
+    metricsFor(statementId).errors.increment();
+  }
+
+  @Override
+  public void recordCacheHit(String statementId) {
+    metricsFor(statementId).cacheHits.increment();
+  }
+
+  @Override
+  public void recordRows(String statementId, long rows) {
+    metricsFor(statementId).rows.add(rows);
+  }
+
+  /**
+   * Returns the metrics of a statement.
+   *
+   * @param statementId
+   *          the id of the mapped statement
+   * @return the snapshot, or null if nothing was recorded for the statement
+   */
+  public StatementMetricsSnapshot getSnapshot(String statementId) {
+    Metrics statementMetrics = metrics.get(statementId);
+    return statementMetrics == null ? null : statementMetrics.snapshot(statementId);
+  }
+
+  /**
+   * Returns the metrics of all statements, sorted by statement id.
+   */
+  public Map<String, StatementMetricsSnapshot> getSnapshots() {
+    Map<String, StatementMetricsSnapshot> snapshots = new TreeMap<>();
+    for (Map.Entry<String, Metrics> entry : metrics.entrySet()) {
+      snapshots.put(entry.getKey(), entry.getValue().snapshot(entry.getKey()));
+    }
+    return snapshots;
+  }
+
+  /**
+   * Discards all recorded metrics.
+   */
+  public void reset() {
+    metrics.clear();
+  }
+
+  private Metrics metricsFor(String statementId) {
+    Metrics statementMetrics = metrics.get(statementId);
+    if (statementMetrics == null) {
+      statementMetrics = metrics.computeIfAbsent(statementId, k -> new Metrics());
+    }
+    return statementMetrics;
+  }
+
+  private static class Metrics {
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LatencyHistogram[] phases = new LatencyHistogram[PHASES.length];
+
+    Metrics() {
+      for (int i = 0; i < phases.length; i++) {
+        phases[i] = new LatencyHistogram();
+      }
+    }
+
+    StatementMetricsSnapshot snapshot(String statementId) {
+      EnumMap<StatementPhase, LatencySnapshot> phaseSnapshots = new EnumMap<>(StatementPhase.class);
+      for (StatementPhase phase : PHASES) {
+        phaseSnapshots.put(phase, phases[phase.ordinal()].snapshot());
+      }
+      return new StatementMetricsSnapshot(statementId, errors.sum(), cacheHits.sum(), rows.sum(), phaseSnapshots);
+    }
+  }
+
+}
@@ -0,0 +1,94 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An immutable copy of a {@link LatencyHistogram}.
+ *
+ * @since 3.5.3
+ */
+public class LatencySnapshot {
+
+  private final long[] buckets;
+  private final long count;
+  private final long totalNanos;
+  private final long maxNanos;
+
+  LatencySnapshot(long[] buckets, long count, long totalNanos, long maxNanos) {
+    this.buckets = buckets;
+    this.count = count;
+    this.totalNanos = totalNanos;
+    this.maxNanos = maxNanos;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getTotalNanos() {
+    return totalNanos;
+  }
+
+  public long getMaxNanos() {
+    return maxNanos;
+  }
+
+  public long getMeanNanos() {
+    return count == 0 ? 0 : totalNanos / count;
+  }
+
+  /**
+   * Returns an upper bound of the given percentile of the recorded latencies.
+   *
+   * @param percentile
+   *          the percentile, between 0 and 100
+   * @return the latency in nanoseconds, or 0 if nothing was recorded
+   */
+  public long getPercentileNanos(double percentile) {
+    long recorded = 0;
+    for (long bucket : buckets) {
+      recorded += bucket;
+    }
+    if (recorded == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * recorded));
+    long seen = 0;
+    for (int i = 0; i < buckets.length; i++) {
+      seen += buckets[i];
+      if (seen >= rank) {
+        return Math.min(LatencyHistogram.bucketUpperBound(i), maxNanos);
+      }
+    }
+    return maxNanos;
+  }
+
+  @Override
+  public String toString() {
+    return "count=" + count
+        + ", mean=" + toMicros(getMeanNanos()) + "us"
+        + ", p50=" + toMicros(getPercentileNanos(50)) + "us"
+        + ", p99=" + toMicros(getPercentileNanos(99)) + "us"
+        + ", max=" + toMicros(maxNanos) + "us";
+  }
+
+  private static long toMicros(long nanos) {
+    return TimeUnit.NANOSECONDS.toMicros(nanos);
+  }
+
+}
@@ -0,0 +1,68 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+/**
+ * Receives measurements of statement executions, keyed by the id of the mapped statement.
+ * <p>
+ * Set with {@link org.apache.ibatis.session.Configuration#setStatementMetrics(StatementMetrics)} or the
+ * <code>statementMetrics</code> setting. Implementations are called on the execution path of every statement and must
+ * be thread-safe and cheap.
+ *
+ * @since 3.5.3
+ * @see DefaultStatementMetrics
+ */
+public interface StatementMetrics {
+
+  /**
+   * Records the time spent in one phase of an execution.
+   *
+   * @param statementId
+   *          the id of the mapped statement
+   * @param phase
+   *          the phase
+   * @param nanos
+   *          the elapsed time in nanoseconds
+   */
+  void recordPhase(String statementId, StatementPhase phase, long nanos);
+
+  /**
+   * Records an execution that failed with an exception.
+   *
+   * @param statementId
+   *          the id of the mapped statement
+   */
+  void recordError(String statementId);
+
+  /**
+   * Records a query answered from the local or the second level cache.
+   *
+   * @param statementId
+   *          the id of the mapped statement
+   */
+  void recordCacheHit(String statementId);
+
+  /**
+   * Records the number of result objects mapped by a query.
+   *
+   * @param statementId
+   *          the id of the mapped statement
+   * @param rows
+   *          the number of root result objects
+   */
+  void recordRows(String statementId, long rows);
+
+}
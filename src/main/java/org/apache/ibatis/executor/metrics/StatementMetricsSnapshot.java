@@ -0,0 +1,95 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The metrics recorded for one mapped statement by {@link DefaultStatementMetrics}.
+ *
+ * @since 3.5.3
+ */
+public class StatementMetricsSnapshot {
+
+  private final String statementId;
+  private final long errors;
+  private final long cacheHits;
+  private final long rows;
+  private final Map<StatementPhase, LatencySnapshot> phases;
+
+  StatementMetricsSnapshot(String statementId, long errors, long cacheHits, long rows,
+      EnumMap<StatementPhase, LatencySnapshot> phases) {
+    this.statementId = statementId;
+    this.errors = errors;
+    this.cacheHits = cacheHits;
+    this.rows = rows;
+    this.phases = Collections.unmodifiableMap(phases);
+  }
+
+  public String getStatementId() {
+    return statementId;
+  }
+
+  /**
+   * Returns how many times the statement was executed on the database.
+   */
+  public long getExecutions() {
+    return getPhase(StatementPhase.EXECUTE).getCount();
+  }
+
+  public long getErrors() {
+    return errors;
+  }
+
+  public long getCacheHits() {
+    return cacheHits;
+  }
+
+  public long getRows() {
+    return rows;
+  }
+
+  public LatencySnapshot getPhase(StatementPhase phase) {
+    return phases.get(phase);
+  }
+
+  /**
+   * Returns the total time spent in all phases, in nanoseconds.
+   */
+  public long getTotalNanos() {
+    long total = 0;
+    for (LatencySnapshot phase : phases.values()) {
+      total += phase.getTotalNanos();
+    }
+    return total;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder(statementId);
+    builder.append(": executions=").append(getExecutions());
+    builder.append(", errors=").append(errors);
+    builder.append(", cacheHits=").append(cacheHits);
+    builder.append(", rows=").append(rows);
+    for (Map.Entry<StatementPhase, LatencySnapshot> phase : phases.entrySet()) {
+      builder.append("\n  ").append(phase.getKey()).append(": ").append(phase.getValue());
+    }
+    return builder.toString();
+  }
+
+}
@@ -0,0 +1,51 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+/**
+ * The phases of a statement execution that are timed by {@link StatementMetrics}.
+ *
+ * @since 3.5.3
+ */
+public enum StatementPhase {
+
+  /**
+   * Building the SQL and its parameter mappings from the parameter object.
+   */
+  BUILD_SQL,
+
+  /**
+   * Creating the JDBC statement. Not recorded when a statement is reused.
+   */
+  PREPARE,
+
+  /**
+   * Setting the parameters of the JDBC statement.
+   */
+  BIND_PARAMETERS,
+
+  /**
+   * Executing the statement on the database.
+   */
+  EXECUTE,
+
+  /**
+   * Mapping the result sets to result objects, which includes fetching the rows from the driver and running nested
+   * selects.
+   */
+  MAP_RESULTS
+
+}
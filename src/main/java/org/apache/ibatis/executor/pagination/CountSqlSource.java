@@ -0,0 +1,42 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlSource;
+
+/**
+ * Counts the rows of another select with the same parameters.
+ *
+ * @since 3.5.3
+ */
+public class CountSqlSource implements SqlSource {
+
+  private final MappedStatement statement;
+
+  public CountSqlSource(MappedStatement statement) {
+    this.statement = statement;
+  }
+
+  @Override
+  public BoundSql getBoundSql(Object parameterObject) {
+    BoundSql boundSql = statement.getBoundSql(parameterObject);
+    Dialect dialect = statement.getConfiguration().getPaginationDialect();
+    return boundSql.withSql(dialect.getCountSql(boundSql.getSql()));
+  }
+
+}
@@ -0,0 +1,147 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.Seek;
+
+/**
+ * Rewrites the SQL of a select so that the database returns only one page of its rows.
+ * <p>
+ * The offset and limit are bound as parameters, so that all the pages of a select share the same SQL and the same
+ * prepared statement.
+ *
+ * @since 3.5.3
+ * @see DialectRegistry
+ */
+public interface Dialect {
+
+  /**
+   * Returns the SQL that selects the given page of the rows of a select. The SQL may contain placeholders for the
+   * values returned by {@link #getPageParameters(int, int)}.
+   *
+   * @param sql
+   *          the SQL of the select
+   * @param offset
+   *          the number of rows to skip, may be 0
+   * @param limit
+   *          the maximum number of rows to return, or {@link org.apache.ibatis.session.RowBounds#NO_ROW_LIMIT}
+   * @return the paged SQL
+   */
+  String getPageSql(String sql, int offset, int limit);
+
+  /**
+   * Returns the values of the placeholders that {@link #getPageSql(String, int, int)} writes for this page, in the
+   * order of the placeholders. Dialects that write the offset and limit as literals keep the default, which returns no
+   * values.
+   *
+   * @param offset
+   *          the number of rows to skip, may be 0
+   * @param limit
+   *          the maximum number of rows to return, or {@link org.apache.ibatis.session.RowBounds#NO_ROW_LIMIT}
+   * @return the values of the placeholders
+   */
+  default int[] getPageParameters(int offset, int limit) {
+    return new int[0];
+  }
+
+  /**
+   * Returns the bound SQL that selects the given page of the rows of a select, with the values of the placeholders of
+   * the page as additional parameters.
+   *
+   * @param configuration
+   *          the configuration
+   * @param boundSql
+   *          the bound SQL of the select
+   * @param offset
+   *          the number of rows to skip, may be 0
+   * @param limit
+   *          the maximum number of rows to return, or {@link org.apache.ibatis.session.RowBounds#NO_ROW_LIMIT}
+   * @return the bound SQL of the page
+   */
+  default BoundSql bindPage(Configuration configuration, BoundSql boundSql, int offset, int limit) {
+    String sql = getPageSql(boundSql.getSql(), offset, limit);
+    int[] values = getPageParameters(offset, limit);
+    if (values.length == 0) {
+      return boundSql.withSql(sql);
+    }
+    List<ParameterMapping> parameterMappings = new ArrayList<>(boundSql.getParameterMappings());
+    for (int i = 0; i < values.length; i++) {
+      parameterMappings.add(new ParameterMapping.Builder(configuration, "__page_" + i, Integer.class).build());
+    }
+    BoundSql pageSql = boundSql.withSql(sql, parameterMappings);
+    for (int i = 0; i < values.length; i++) {
+      pageSql.setAdditionalParameter("__page_" + i, values[i]);
+    }
+    return pageSql;
+  }
+
+  /**
+   * Returns the SQL that counts the rows of a select.
+   *
+   * @param sql
+   *          the SQL of the select
+   * @return the SQL of a select returning the count as a single column
+   */
+  default String getCountSql(String sql) {
+    return "select count(*) from (" + sql + ") count_query";
+  }
+
+  /**
+   * Returns the SQL that selects the rows of a select that follow the key values of a seek, ordered by its keys.
+   * <p>
+   * The comparison of the keys is expanded to <code>k1 &gt; ? or (k1 = ? and k2 &gt; ?)</code>, which every
+   * database can match with an index on the keys, so the placeholders are bound to the first key value, then to the
+   * first two key values and so on. The page is limited afterwards with {@link #getPageSql(String, int, int)}.
+   *
+   * @param sql
+   *          the SQL of the select
+   * @param seek
+   *          the keys and the key values, which are null for the first page
+   * @return the SQL of the page, without its limit
+   */
+  default String getSeekSql(String sql, Seek seek) {
+    List<Seek.Key> keys = seek.getKeys();
+    StringBuilder seekSql = new StringBuilder(sql.length() + 64).append("select * from (").append(sql).append(") seek_query");
+    if (!seek.isFirst()) {
+      seekSql.append(" where ");
+      for (int i = 0; i < keys.size(); i++) {
+        if (i > 0) {
+          seekSql.append(" or ");
+        }
+        seekSql.append('(');
+        for (int j = 0; j < i; j++) {
+          seekSql.append(keys.get(j).getColumn()).append(" = ? and ");
+        }
+        seekSql.append(keys.get(i).getColumn()).append(keys.get(i).isDescending() ? " < ?" : " > ?").append(')');
+      }
+    }
+    seekSql.append(" order by ");
+    for (int i = 0; i < keys.size(); i++) {
+      if (i > 0) {
+        seekSql.append(", ");
+      }
+      seekSql.append(keys.get(i).getColumn()).append(keys.get(i).isDescending() ? " desc" : " asc");
+    }
+    return seekSql.toString();
+  }
+
+}
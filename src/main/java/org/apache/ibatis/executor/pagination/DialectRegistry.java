@@ -0,0 +1,93 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Chooses the pagination dialect from the database id resolved by the
+ * {@link org.apache.ibatis.mapping.DatabaseIdProvider}.
+ * <p>
+ * Database ids are matched ignoring case, first exactly and then as a prefix, so that both the ids usually configured
+ * for the {@link org.apache.ibatis.mapping.VendorDatabaseIdProvider} (e.g. <code>mysql</code>) and the product names
+ * it returns by default (e.g. <code>MySQL</code> or <code>DB2/LINUXX8664</code>) are recognized. Unknown databases
+ * are paged with the standard {@link OffsetFetchDialect}.
+ *
+ * @since 3.5.3
+ */
+public class DialectRegistry {
+
+  private final Map<String, Dialect> dialects = new LinkedHashMap<>();
+
+  private Dialect defaultDialect = new OffsetFetchDialect();
+
+  public DialectRegistry() {
+    Dialect limitOffset = new LimitOffsetDialect();
+    register("mysql", limitOffset);
+    register("mariadb", limitOffset);
+    register("postgresql", limitOffset);
+    register("sqlite", limitOffset);
+    register("h2", limitOffset);
+    register("hsqldb", limitOffset);
+    register("hsql database engine", limitOffset);
+
+    Dialect offsetFetch = new OffsetFetchDialect();
+    register("oracle", offsetFetch);
+    register("db2", offsetFetch);
+    register("derby", offsetFetch);
+    register("apache derby", offsetFetch);
+
+    Dialect sqlServer = new SqlServerDialect();
+    register("sqlserver", sqlServer);
+    register("microsoft sql server", sqlServer);
+  }
+
+  public void register(String databaseId, Dialect dialect) {
+    if (databaseId == null || dialect == null) {
+      throw new IllegalArgumentException("A dialect must be registered with a database id");
+    }
+    dialects.put(databaseId.toLowerCase(Locale.ENGLISH), dialect);
+  }
+
+  public Dialect getDialect(String databaseId) {
+    if (databaseId == null) {
+      return defaultDialect;
+    }
+    String key = databaseId.toLowerCase(Locale.ENGLISH);
+    Dialect dialect = dialects.get(key);
+    if (dialect != null) {
+      return dialect;
+    }
+    String longestPrefix = null;
+    for (String registered : dialects.keySet()) {
+      if (key.startsWith(registered) && (longestPrefix == null || registered.length() > longestPrefix.length())) {
+        longestPrefix = registered;
+      }
+    }
+    return longestPrefix == null ? defaultDialect : dialects.get(longestPrefix);
+  }
+
+  public Dialect getDefaultDialect() {
+    return defaultDialect;
+  }
+
+  public void setDefaultDialect(Dialect defaultDialect) {
+    this.defaultDialect = defaultDialect;
+  }
+
+}
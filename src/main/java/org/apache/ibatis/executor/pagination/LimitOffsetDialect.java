@@ -0,0 +1,42 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Pages with the <code>LIMIT n OFFSET m</code> clause of MySQL, MariaDB, PostgreSQL, SQLite, H2 and HSQLDB.
+ *
+ * @since 3.5.3
+ */
+public class LimitOffsetDialect implements Dialect {
+
+  @Override
+  public String getPageSql(String sql, int offset, int limit) {
+    // MySQL does not accept an offset without a limit
+    StringBuilder pageSql = new StringBuilder(sql.length() + 32).append(sql.trim()).append(" LIMIT ?");
+    if (offset > RowBounds.NO_ROW_OFFSET) {
+      pageSql.append(" OFFSET ?");
+    }
+    return pageSql.toString();
+  }
+
+  @Override
+  public int[] getPageParameters(int offset, int limit) {
+    return offset > RowBounds.NO_ROW_OFFSET ? new int[] {limit, offset} : new int[] {limit};
+  }
+
+}
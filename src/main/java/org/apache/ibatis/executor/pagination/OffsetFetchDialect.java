@@ -0,0 +1,48 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Pages with the standard <code>OFFSET m ROWS FETCH FIRST n ROWS ONLY</code> clause of SQL:2008, supported by Oracle
+ * 12c, DB2 and Derby among others. SQL Server, which requires the offset, is paged by {@link SqlServerDialect}.
+ *
+ * @since 3.5.3
+ */
+public class OffsetFetchDialect implements Dialect {
+
+  @Override
+  public String getPageSql(String sql, int offset, int limit) {
+    StringBuilder pageSql = new StringBuilder(sql.length() + 48).append(sql.trim());
+    if (offset > RowBounds.NO_ROW_OFFSET) {
+      pageSql.append(" OFFSET ? ROWS");
+    }
+    if (limit != RowBounds.NO_ROW_LIMIT) {
+      pageSql.append(" FETCH FIRST ? ROWS ONLY");
+    }
+    return pageSql.toString();
+  }
+
+  @Override
+  public int[] getPageParameters(int offset, int limit) {
+    if (offset > RowBounds.NO_ROW_OFFSET) {
+      return limit != RowBounds.NO_ROW_LIMIT ? new int[] {offset, limit} : new int[] {offset};
+    }
+    return limit != RowBounds.NO_ROW_LIMIT ? new int[] {limit} : new int[0];
+  }
+
+}
@@ -0,0 +1,79 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.Seek;
+
+/**
+ * Row bounds of a page selected by keyset. One more row than the size of the page is selected, to tell whether
+ * another page follows.
+ *
+ * @since 3.5.3
+ */
+public class SeekRowBounds extends RowBounds {
+
+  private static final String KEY_PARAMETER_PREFIX = "__seek_";
+
+  private final Seek seek;
+
+  public SeekRowBounds(Seek seek) {
+    super(NO_ROW_OFFSET, seek.getSize() + 1);
+    if (seek.getKeys().isEmpty()) {
+      throw new IllegalArgumentException("A seek needs at least one key");
+    }
+    this.seek = seek;
+  }
+
+  public Seek getSeek() {
+    return seek;
+  }
+
+  /**
+   * Returns the bound SQL that selects the rows following the key values of the seek, ordered by its keys.
+   *
+   * @param configuration
+   *          the configuration
+   * @param boundSql
+   *          the bound SQL of the statement
+   * @return the bound SQL of the page, with the key values as additional parameters
+   */
+  public BoundSql bind(Configuration configuration, BoundSql boundSql) {
+    String sql = configuration.getPaginationDialect().getSeekSql(boundSql.getSql(), seek);
+    List<Object> values = seek.getValues();
+    if (values == null) {
+      return boundSql.withSql(sql);
+    }
+    List<ParameterMapping> parameterMappings = new ArrayList<>(boundSql.getParameterMappings());
+    for (int i = 0; i < values.size(); i++) {
+      for (int j = 0; j <= i; j++) {
+        parameterMappings.add(new ParameterMapping.Builder(configuration, KEY_PARAMETER_PREFIX + j, Object.class).build());
+      }
+    }
+    BoundSql seekSql = boundSql.withSql(sql, parameterMappings);
+    for (int i = 0; i < values.size(); i++) {
+      seekSql.setAdditionalParameter(KEY_PARAMETER_PREFIX + i, values.get(i));
+    }
+    return seekSql;
+  }
+
+}
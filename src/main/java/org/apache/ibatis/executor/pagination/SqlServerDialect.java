@@ -0,0 +1,43 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Pages with the <code>OFFSET m ROWS FETCH NEXT n ROWS ONLY</code> clause of SQL Server 2012 and later. Unlike the
+ * standard clause, SQL Server does not accept a <code>FETCH</code> without an <code>OFFSET</code>, so the offset is
+ * always written, even for the first page. The select must have an <code>ORDER BY</code> clause.
+ *
+ * @since 3.5.3
+ */
+public class SqlServerDialect implements Dialect {
+
+  @Override
+  public String getPageSql(String sql, int offset, int limit) {
+    StringBuilder pageSql = new StringBuilder(sql.length() + 48).append(sql.trim()).append(" OFFSET ? ROWS");
+    if (limit != RowBounds.NO_ROW_LIMIT) {
+      pageSql.append(" FETCH NEXT ? ROWS ONLY");
+    }
+    return pageSql.toString();
+  }
+
+  @Override
+  public int[] getPageParameters(int offset, int limit) {
+    return limit != RowBounds.NO_ROW_LIMIT ? new int[] {offset, limit} : new int[] {offset};
+  }
+
+}
@@ -45,9 +45,12 @@ public class ResultSetWrapper {
   private final List<String> columnNames = new ArrayList<>();
   private final List<String> classNames = new ArrayList<>();
   private final List<JdbcType> jdbcTypes = new ArrayList<>();
+  // 1-based index of the first column of each label, also by upper case label and by other spellings once resolved
+  private final Map<String, Integer> columnIndexes = new HashMap<>();
   private final Map<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap = new HashMap<>();
   private final Map<String, List<String>> mappedColumnNamesMap = new HashMap<>();
   private final Map<String, List<String>> unMappedColumnNamesMap = new HashMap<>();
+  private final Map<String, RowMappingPlan> rowMappingPlanMap = new HashMap<>();
 
   public ResultSetWrapper(ResultSet rs, Configuration configuration) throws SQLException {
     super();
@@ -60,6 +63,14 @@ public class ResultSetWrapper {
       jdbcTypes.add(JdbcType.forCode(metaData.getColumnType(i)));
       classNames.add(metaData.getColumnClassName(i));
     }
+    for (int i = 0; i < columnNames.size(); i++) {
+      final String columnName = columnNames.get(i);
+      // some drivers return no label for computed columns
+      if (columnName != null) {
+        columnIndexes.putIfAbsent(columnName, i + 1);
+        columnIndexes.putIfAbsent(columnName.toUpperCase(Locale.ENGLISH), i + 1);
+      }
+    }
   }
 
   public ResultSet getResultSet() {
@@ -79,12 +90,8 @@ public class ResultSetWrapper {
   }
 
   public JdbcType getJdbcType(String columnName) {
-    for (int i = 0 ; i < columnNames.size(); i++) {
-      if (columnNames.get(i).equalsIgnoreCase(columnName)) {
-        return jdbcTypes.get(i);
-      }
-    }
-    return null;
+    final int columnIndex = findColumnIndex(columnName);
+    return columnIndex > 0 ? jdbcTypes.get(columnIndex - 1) : null;
   }
 
   /**
@@ -111,8 +118,8 @@ public class ResultSetWrapper {
       // Replicate logic of UnknownTypeHandler#resolveTypeHandler
       // See issue #59 comment 10
       if (handler == null || handler instanceof UnknownTypeHandler) {
-        final int index = columnNames.indexOf(columnName);
-        final Class<?> javaType = resolveClass(classNames.get(index));
+        final int columnIndex = findColumnIndex(columnName);
+        final Class<?> javaType = columnIndex > 0 ? resolveClass(classNames.get(columnIndex - 1)) : null;
         if (javaType != null && jdbcType != null) {
           handler = typeHandlerRegistry.getTypeHandler(javaType, jdbcType);
         } else if (javaType != null) {
@@ -176,6 +183,44 @@ public class ResultSetWrapper {
     return unMappedColumnNames;
   }
 
+  RowMappingPlan getRowMappingPlan(ResultMap resultMap, String columnPrefix) {
+    return rowMappingPlanMap.get(getMapKey(resultMap, columnPrefix));
+  }
+
+  void putRowMappingPlan(ResultMap resultMap, String columnPrefix, RowMappingPlan rowMappingPlan) {
+    rowMappingPlanMap.put(getMapKey(resultMap, columnPrefix), rowMappingPlan);
+  }
+
+  /**
+   * Gets the index of the first column matching the given name, ignoring case.
+   *
+   * @param columnName the column name
+   * @return the 1-based column index or 0 if there is no such column
+   */
+  int findColumnIndex(String columnName) {
+    if (columnName == null) {
+      return 0;
+    }
+    Integer columnIndex = columnIndexes.get(columnName);
+    if (columnIndex == null) {
+      columnIndex = columnIndexes.get(columnName.toUpperCase(Locale.ENGLISH));
+      if (columnIndex == null) {
+        columnIndex = findColumnIndexIgnoringCase(columnName);
+      }
+      columnIndexes.put(columnName, columnIndex);
+    }
+    return columnIndex;
+  }
+
+  private int findColumnIndexIgnoringCase(String columnName) {
+    for (int i = 0; i < columnNames.size(); i++) {
+      if (columnName.equalsIgnoreCase(columnNames.get(i))) {
+        return i + 1;
+      }
+    }
+    return 0;
+  }
+
   private String getMapKey(ResultMap resultMap, String columnPrefix) {
     return resultMap.getId() + ":" + columnPrefix;
   }
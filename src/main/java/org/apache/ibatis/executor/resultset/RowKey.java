@@ -0,0 +1,156 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.apache.ibatis.reflection.ArrayUtil;
+
+/**
+ * Identifies the object built from a row for a result map, for joins that return the same object on several rows.
+ * <p>
+ * The values of the id columns are kept in column order, with <code>null</code> for a column without value, so
+ * column names are not part of the key. A single value is kept without an array. The key of a nested object refers
+ * to the key of its parent instead of copying it.
+ */
+final class RowKey {
+
+  /**
+   * Marks a row that cannot be identified, whose object is not looked up or kept.
+   */
+  static final RowKey NULL = new RowKey(null, null, null, null, null);
+
+  private final String resultMapId;
+  private final String columnPrefix;
+  private final Object value;
+  private final Object[] values;
+  private final RowKey parent;
+  private final int hashCode;
+
+  private RowKey(String resultMapId, String columnPrefix, Object value, Object[] values, RowKey parent) {
+    this.resultMapId = resultMapId;
+    this.columnPrefix = columnPrefix;
+    this.value = value;
+    this.values = values;
+    this.parent = parent;
+    int hash = Objects.hashCode(resultMapId);
+    hash = 31 * hash + Objects.hashCode(columnPrefix);
+    if (values == null) {
+      hash = 31 * hash + ArrayUtil.hashCode(value);
+    } else {
+      for (Object each : values) {
+        hash = 31 * hash + ArrayUtil.hashCode(each);
+      }
+    }
+    this.hashCode = parent == null ? hash : 31 * hash + parent.hashCode;
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    if (this == object) {
+      return true;
+    }
+    if (!(object instanceof RowKey) || this == NULL || object == NULL) {
+      return false;
+    }
+    RowKey that = (RowKey) object;
+    if (hashCode != that.hashCode || !Objects.equals(resultMapId, that.resultMapId)
+        || !Objects.equals(columnPrefix, that.columnPrefix)) {
+      return false;
+    }
+    if (values == null) {
+      if (that.values != null || !ArrayUtil.equals(value, that.value)) {
+        return false;
+      }
+    } else {
+      if (that.values == null || values.length != that.values.length) {
+        return false;
+      }
+      for (int i = 0; i < values.length; i++) {
+        if (!ArrayUtil.equals(values[i], that.values[i])) {
+          return false;
+        }
+      }
+    }
+    return Objects.equals(parent, that.parent);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    return resultMapId + (values == null ? ":" + ArrayUtil.toString(value) : ":" + Arrays.toString(values))
+        + (parent == null ? "" : "<" + parent);
+  }
+
+  /**
+   * Collects the values of a row. A builder is reused for the keys of a result set.
+   */
+  static final class Builder {
+
+    private Object[] buffer = new Object[4];
+    private int size;
+    private boolean found;
+
+    Builder reset() {
+      size = 0;
+      found = false;
+      return this;
+    }
+
+    /**
+     * Adds the value of an id column.
+     */
+    Builder add(Object value) {
+      append(value);
+      found = true;
+      return this;
+    }
+
+    /**
+     * Records an id column whose value is not part of the identity of the row.
+     */
+    Builder skip() {
+      append(null);
+      return this;
+    }
+
+    private void append(Object value) {
+      if (size == buffer.length) {
+        buffer = Arrays.copyOf(buffer, size * 2);
+      }
+      buffer[size++] = value;
+    }
+
+    /**
+     * Returns the key of the collected values, or {@link #NULL} if there is no value or the parent is {@link #NULL}.
+     */
+    RowKey build(String resultMapId, String columnPrefix, RowKey parent) {
+      if (!found || parent == NULL) {
+        return NULL;
+      }
+      RowKey key = size == 1 ? new RowKey(resultMapId, columnPrefix, buffer[0], null, parent)
+          : new RowKey(resultMapId, columnPrefix, null, Arrays.copyOf(buffer, size), parent);
+      Arrays.fill(buffer, 0, size, null);
+      return key;
+    }
+  }
+
+}
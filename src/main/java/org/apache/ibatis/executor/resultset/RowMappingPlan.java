@@ -0,0 +1,254 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.type.DoubleResultHandler;
+import org.apache.ibatis.type.IntResultHandler;
+import org.apache.ibatis.type.LongResultHandler;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * A simple result map applied to one result set layout, compiled into (column index, type handler, setter) entries
+ * so that rows can be mapped without resolving column labels or property paths again.
+ */
+final class RowMappingPlan {
+
+  /**
+   * Marks a result map that cannot be mapped with a compiled plan.
+   */
+  static final RowMappingPlan UNSUPPORTED = new RowMappingPlan(null, new Entry[0], false);
+
+  private final Class<?> targetType;
+  private final Entry[] entries;
+  private final boolean callSettersOnNulls;
+
+  private RowMappingPlan(Class<?> targetType, Entry[] entries, boolean callSettersOnNulls) {
+    this.targetType = targetType;
+    this.entries = entries;
+    this.callSettersOnNulls = callSettersOnNulls;
+  }
+
+  /**
+   * Returns whether the plan was compiled for the class of the given row object.
+   */
+  boolean accepts(Object rowValue) {
+    return targetType != null && rowValue.getClass() == targetType;
+  }
+
+  /**
+   * Maps the current row into the row object.
+   *
+   * @return true if at least one non-null value was found
+   */
+  boolean apply(ResultSet rs, Object rowValue) throws SQLException {
+    boolean foundValues = false;
+    for (Entry entry : entries) {
+      if (entry.primitiveMapping != null) {
+        foundValues |= entry.applyPrimitive(rs, rowValue);
+        continue;
+      }
+      final Object value = entry.typeHandler.getResult(rs, entry.columnIndex);
+      if (value != null) {
+        foundValues = true;
+      }
+      if (value != null || (callSettersOnNulls && !entry.primitive)) {
+        // gcode issue #377, call setter on nulls (value is not 'found')
+        entry.setter.set(rowValue, value);
+      }
+    }
+    return foundValues;
+  }
+
+  static class Builder {
+
+    private final Class<?> targetType;
+    private final Reflector reflector;
+    private final boolean callSettersOnNulls;
+    private final List<Entry> entries = new ArrayList<>();
+    private boolean supported = true;
+
+    /**
+     * @param targetType
+     *          the class of the row object
+     * @param reflector
+     *          the reflector of a bean row object, or null for a {@link Map}
+     * @param callSettersOnNulls
+     *          the <code>callSettersOnNulls</code> setting
+     */
+    Builder(Class<?> targetType, Reflector reflector, boolean callSettersOnNulls) {
+      this.targetType = targetType;
+      this.reflector = reflector;
+      this.callSettersOnNulls = callSettersOnNulls;
+    }
+
+    Builder add(int columnIndex, TypeHandler<?> typeHandler, String property) {
+      if (columnIndex < 1 || property.indexOf('.') >= 0 || property.indexOf('[') >= 0) {
+        supported = false;
+      } else if (reflector == null) {
+        entries.add(new Entry(columnIndex, typeHandler, (target, value) -> mapSet(target, property, value), false, property, null));
+      } else if (reflector.hasSetter(property)) {
+        final Invoker invoker = reflector.getSetInvoker(property);
+        final boolean primitive = reflector.getSetterType(property).isPrimitive();
+        final PrimitiveMapping primitiveMapping = primitive ? findPrimitiveMapping(typeHandler, reflector.getPrimitiveSetter(property)) : null;
+        entries.add(new Entry(columnIndex, typeHandler, (target, value) -> beanSet(invoker, target, property, value), primitive,
+            property, primitiveMapping));
+      } else {
+        supported = false;
+      }
+      return this;
+    }
+
+    void unsupported() {
+      supported = false;
+    }
+
+    RowMappingPlan build() {
+      return supported ? new RowMappingPlan(targetType, entries.toArray(new Entry[0]), callSettersOnNulls) : UNSUPPORTED;
+    }
+
+    /**
+     * Returns a mapping that reads and sets the value without boxing if the type handler reads the primitive type of
+     * the setter. Handlers that override <code>getNullableResult(ResultSet, int)</code> without overriding the
+     * primitive getter are skipped, because the primitive getter would bypass their conversion.
+     */
+    @SuppressWarnings("unchecked")
+    private static PrimitiveMapping findPrimitiveMapping(TypeHandler<?> typeHandler, Object primitiveSetter) {
+      if (primitiveSetter instanceof ObjIntConsumer && typeHandler instanceof IntResultHandler
+          && readsLikeNullableResult(typeHandler, "getIntResult")) {
+        final IntResultHandler handler = (IntResultHandler) typeHandler;
+        final ObjIntConsumer<Object> setter = (ObjIntConsumer<Object>) primitiveSetter;
+        return (rs, columnIndex, target) -> {
+          final int value = handler.getIntResult(rs, columnIndex);
+          if (value == 0 && rs.wasNull()) {
+            return false;
+          }
+          setter.accept(target, value);
+          return true;
+        };
+      } else if (primitiveSetter instanceof ObjLongConsumer && typeHandler instanceof LongResultHandler
+          && readsLikeNullableResult(typeHandler, "getLongResult")) {
+        final LongResultHandler handler = (LongResultHandler) typeHandler;
+        final ObjLongConsumer<Object> setter = (ObjLongConsumer<Object>) primitiveSetter;
+        return (rs, columnIndex, target) -> {
+          final long value = handler.getLongResult(rs, columnIndex);
+          if (value == 0 && rs.wasNull()) {
+            return false;
+          }
+          setter.accept(target, value);
+          return true;
+        };
+      } else if (primitiveSetter instanceof ObjDoubleConsumer && typeHandler instanceof DoubleResultHandler
+          && readsLikeNullableResult(typeHandler, "getDoubleResult")) {
+        final DoubleResultHandler handler = (DoubleResultHandler) typeHandler;
+        final ObjDoubleConsumer<Object> setter = (ObjDoubleConsumer<Object>) primitiveSetter;
+        return (rs, columnIndex, target) -> {
+          final double value = handler.getDoubleResult(rs, columnIndex);
+          if (value == 0 && rs.wasNull()) {
+            return false;
+          }
+          setter.accept(target, value);
+          return true;
+        };
+      }
+      return null;
+    }
+
+    private static boolean readsLikeNullableResult(TypeHandler<?> typeHandler, String getterName) {
+      try {
+        final Class<?> readerClass = typeHandler.getClass().getMethod(getterName, ResultSet.class, int.class).getDeclaringClass();
+        final Class<?> handlerClass = typeHandler.getClass().getMethod("getNullableResult", ResultSet.class, int.class).getDeclaringClass();
+        return readerClass == handlerClass;
+      } catch (NoSuchMethodException e) {
+        return false;
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void mapSet(Object target, String property, Object value) {
+      ((Map<String, Object>) target).put(property, value);
+    }
+
+    private static void beanSet(Invoker invoker, Object target, String property, Object value) {
+      try {
+        try {
+          invoker.invoke(target, new Object[] {value});
+        } catch (Throwable t) {
+          throw ExceptionUtil.unwrapThrowable(t);
+        }
+      } catch (Throwable t) {
+        throw new ReflectionException("Could not set property '" + property + "' of '" + target.getClass() + "' with value '" + value + "' Cause: " + t.toString(), t);
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface Setter {
+    void set(Object target, Object value);
+  }
+
+  /**
+   * Reads a column and calls a primitive setter without boxing. A primitive setter is never called with null.
+   */
+  @FunctionalInterface
+  private interface PrimitiveMapping {
+    /**
+     * @return false if the column is null
+     */
+    boolean apply(ResultSet rs, int columnIndex, Object target) throws SQLException;
+  }
+
+  private static class Entry {
+    private final int columnIndex;
+    private final TypeHandler<?> typeHandler;
+    private final Setter setter;
+    private final boolean primitive;
+    private final String property;
+    private final PrimitiveMapping primitiveMapping;
+
+    Entry(int columnIndex, TypeHandler<?> typeHandler, Setter setter, boolean primitive, String property, PrimitiveMapping primitiveMapping) {
+      this.columnIndex = columnIndex;
+      this.typeHandler = typeHandler;
+      this.setter = setter;
+      this.primitive = primitive;
+      this.property = property;
+      this.primitiveMapping = primitiveMapping;
+    }
+
+    boolean applyPrimitive(ResultSet rs, Object rowValue) throws SQLException {
+      try {
+        return primitiveMapping.apply(rs, columnIndex, rowValue);
+      } catch (SQLException e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new ReflectionException("Could not set property '" + property + "' of '" + rowValue.getClass() + "' Cause: " + t.toString(), t);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,120 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statement;
+
+import java.util.List;
+
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.JdbcType;
+
+/**
+ * Chooses the fetch size of a statement from the rows returned by its previous executions.
+ * <p>
+ * The average is updated without locking; concurrent executions may lose an update, which only delays the
+ * adaptation.
+ *
+ * @since 3.5.3
+ */
+public class AdaptiveFetchSize {
+
+  private static final int UNKNOWN = -1;
+
+  private volatile int averageRows = UNKNOWN;
+  private volatile int rowBytes = UNKNOWN;
+
+  /**
+   * Returns the fetch size for the next execution.
+   *
+   * @param configuration
+   *          the configuration holding the bounds
+   * @param streaming
+   *          whether the rows are read through a cursor or a result handler rather than collected
+   * @return the fetch size, or null to leave the fetch size of the driver
+   */
+  public Integer getFetchSize(Configuration configuration, boolean streaming) {
+    int fetchSize;
+    if (streaming) {
+      fetchSize = configuration.getMaxAdaptiveFetchSize();
+    } else if (averageRows == UNKNOWN) {
+      Integer defaultFetchSize = configuration.getDefaultFetchSize();
+      fetchSize = defaultFetchSize != null ? defaultFetchSize : configuration.getMinAdaptiveFetchSize();
+    } else {
+      // one more row spares drivers a round trip to find out that there are no more rows
+      fetchSize = Math.min(averageRows, Integer.MAX_VALUE - 1) + 1;
+      fetchSize = Math.max(configuration.getMinAdaptiveFetchSize(), Math.min(fetchSize, configuration.getMaxAdaptiveFetchSize()));
+    }
+    int knownRowBytes = rowBytes;
+    if (knownRowBytes > 0) {
+      fetchSize = Math.min(fetchSize, Math.max(1, configuration.getAdaptiveFetchMemoryBudget() / knownRowBytes));
+    }
+    return fetchSize;
+  }
+
+  /**
+   * Records the rows returned by an execution.
+   *
+   * @param rows
+   *          the number of rows
+   * @param jdbcTypes
+   *          the types of the columns of the rows
+   */
+  public void record(long rows, List<JdbcType> jdbcTypes) {
+    int sample = (int) Math.min(rows, Integer.MAX_VALUE);
+    int average = averageRows;
+    averageRows = average == UNKNOWN ? sample : (int) (average + (sample - (long) average) / 4);
+    if (rowBytes == UNKNOWN) {
+      rowBytes = estimateRowBytes(jdbcTypes);
+    }
+  }
+
+  public int getAverageRows() {
+    return averageRows;
+  }
+
+  static int estimateRowBytes(List<JdbcType> jdbcTypes) {
+    int bytes = 0;
+    for (JdbcType jdbcType : jdbcTypes) {
+      bytes += estimateColumnBytes(jdbcType);
+    }
+    return Math.max(bytes, 1);
+  }
+
+  private static int estimateColumnBytes(JdbcType jdbcType) {
+    if (jdbcType == null) {
+      return 64;
+    }
+    switch (jdbcType) {
+      case CHAR:
+      case VARCHAR:
+      case NCHAR:
+      case NVARCHAR:
+      case BINARY:
+      case VARBINARY:
+        return 256;
+      case LONGVARCHAR:
+      case LONGNVARCHAR:
+      case LONGVARBINARY:
+      case BLOB:
+      case CLOB:
+      case NCLOB:
+      case SQLXML:
+        return 4096;
+      default:
+        return 16;
+    }
+  }
+
+}
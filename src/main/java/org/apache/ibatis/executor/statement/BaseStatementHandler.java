@@ -23,10 +23,16 @@ import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.metrics.StatementMetrics;
+import org.apache.ibatis.executor.metrics.StatementPhase;
+import org.apache.ibatis.executor.pagination.Dialect;
+import org.apache.ibatis.executor.pagination.SeekRowBounds;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
@@ -50,26 +56,48 @@ public abstract class BaseStatementHandler implements StatementHandler {
 
   protected BoundSql boundSql;
 
+  private final StatementMetrics statementMetrics;
+
   protected BaseStatementHandler(Executor executor, MappedStatement mappedStatement, Object parameterObject, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) {
     this.configuration = mappedStatement.getConfiguration();
     this.executor = executor;
     this.mappedStatement = mappedStatement;
-    this.rowBounds = rowBounds;
 
     this.typeHandlerRegistry = configuration.getTypeHandlerRegistry();
     this.objectFactory = configuration.getObjectFactory();
+    this.statementMetrics = configuration.getStatementMetrics();
 
     if (boundSql == null) { // issue #435, get the key before calculating the statement
       generateKeys(parameterObject);
       boundSql = mappedStatement.getBoundSql(parameterObject);
     }
 
+    if (rowBounds instanceof SeekRowBounds) {
+      boundSql = ((SeekRowBounds) rowBounds).bind(configuration, boundSql);
+    }
+    if (isPagedByDatabase(rowBounds)) {
+      Dialect dialect = configuration.getPaginationDialect();
+      boundSql = dialect.bindPage(configuration, boundSql, rowBounds.getOffset(), rowBounds.getLimit());
+      rowBounds = RowBounds.DEFAULT;
+    }
+
+    this.rowBounds = rowBounds;
     this.boundSql = boundSql;
 
     this.parameterHandler = configuration.newParameterHandler(mappedStatement, parameterObject, boundSql);
     this.resultSetHandler = configuration.newResultSetHandler(executor, mappedStatement, rowBounds, parameterHandler, resultHandler, boundSql);
   }
 
+  private boolean isPagedByDatabase(RowBounds rowBounds) {
+    return (configuration.isPaginationEnabled() || rowBounds instanceof SeekRowBounds)
+        && (rowBounds.getOffset() != RowBounds.NO_ROW_OFFSET || rowBounds.getLimit() != RowBounds.NO_ROW_LIMIT)
+        && mappedStatement.getSqlCommandType() == SqlCommandType.SELECT
+        && mappedStatement.getStatementType() != StatementType.CALLABLE
+        // rows of nested result maps and of multiple result sets do not match result objects
+        && !mappedStatement.hasNestedResultMaps()
+        && mappedStatement.getResultSets() == null;
+  }
+
   @Override
   public BoundSql getBoundSql() {
     return boundSql;
@@ -85,9 +113,11 @@ public abstract class BaseStatementHandler implements StatementHandler {
     ErrorContext.instance().sql(boundSql.getSql());
     Statement statement = null;
     try {
+      long start = startPhase();
       statement = instantiateStatement(connection);
       setStatementTimeout(statement, transactionTimeout);
       setFetchSize(statement);
+      endPhase(StatementPhase.PREPARE, start);
       return statement;
     } catch (SQLException e) {
       closeStatement(statement);
@@ -119,12 +149,55 @@ public abstract class BaseStatementHandler implements StatementHandler {
       stmt.setFetchSize(fetchSize);
       return;
     }
+    if (isAdaptiveFetchSize()) {
+      // set on each execution by setAdaptiveFetchSize
+      return;
+    }
     Integer defaultFetchSize = configuration.getDefaultFetchSize();
     if (defaultFetchSize != null) {
       stmt.setFetchSize(defaultFetchSize);
     }
   }
 
+  /**
+   * Sets the fetch size chosen from the rows of previous executions before each execution, so that statements reused
+   * across executions follow it too.
+   *
+   * @param streaming
+   *          whether the rows are read through a cursor or a result handler rather than into a list
+   * @since 3.5.3
+   */
+  protected void setAdaptiveFetchSize(Statement stmt, boolean streaming) throws SQLException {
+    if (isAdaptiveFetchSize()) {
+      stmt.setFetchSize(mappedStatement.getAdaptiveFetchSize().getFetchSize(configuration, streaming));
+    }
+  }
+
+  private boolean isAdaptiveFetchSize() {
+    return configuration.isAdaptiveFetchSizeEnabled() && mappedStatement.getFetchSize() == null
+        && mappedStatement.getSqlCommandType() == SqlCommandType.SELECT;
+  }
+
+  /**
+   * Returns the start time of a phase, or 0 if no metrics are recorded.
+   *
+   * @since 3.5.3
+   */
+  protected long startPhase() {
+    return statementMetrics == null ? 0L : System.nanoTime();
+  }
+
+  /**
+   * Records the time elapsed since {@link #startPhase()} as a phase of this statement.
+   *
+   * @since 3.5.3
+   */
+  protected void endPhase(StatementPhase phase, long start) {
+    if (statementMetrics != null) {
+      statementMetrics.recordPhase(mappedStatement.getId(), phase, System.nanoTime() - start);
+    }
+  }
+
   protected void closeStatement(Statement statement) {
     try {
       if (statement != null) {
@@ -26,6 +26,7 @@ import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.metrics.StatementPhase;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ResultSetType;
@@ -44,7 +45,9 @@ public class PreparedStatementHandler extends BaseStatementHandler {
   @Override
   public int update(Statement statement) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
+    long start = startPhase();
     ps.execute();
+    endPhase(StatementPhase.EXECUTE, start);
     int rows = ps.getUpdateCount();
     Object parameterObject = boundSql.getParameterObject();
     KeyGenerator keyGenerator = mappedStatement.getKeyGenerator();
@@ -61,14 +64,20 @@ public class PreparedStatementHandler extends BaseStatementHandler {
   @Override
   public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
+    setAdaptiveFetchSize(ps, resultHandler != null);
+    long start = startPhase();
     ps.execute();
+    endPhase(StatementPhase.EXECUTE, start);
     return resultSetHandler.handleResultSets(ps);
   }
 
   @Override
   public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
+    setAdaptiveFetchSize(ps, true);
+    long start = startPhase();
     ps.execute();
+    endPhase(StatementPhase.EXECUTE, start);
     return resultSetHandler.handleCursorResultSets(ps);
   }
 
@@ -91,7 +100,9 @@ public class PreparedStatementHandler extends BaseStatementHandler {
 
   @Override
   public void parameterize(Statement statement) throws SQLException {
+    long start = startPhase();
     parameterHandler.setParameters((PreparedStatement) statement);
+    endPhase(StatementPhase.BIND_PARAMETERS, start);
   }
 
 }
@@ -0,0 +1,158 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.logging.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+
+/**
+ * Statement handler that adds logging without proxying the JDBC connection, statements and result sets.
+ * <p>
+ * The SQL and the parameter values are logged when the statement is executed, and only the row count of a query is
+ * logged. Used when the <code>lightweightSqlLoggingEnabled</code> setting is on.
+ *
+ * @since 3.5.3
+ */
+public final class StatementHandlerLogger extends BaseJdbcLogger implements StatementHandler {
+
+  private final StatementHandler delegate;
+  private final Configuration configuration;
+
+  private StatementHandlerLogger(StatementHandler delegate, Configuration configuration, Log statementLog) {
+    super(statementLog, 0);
+    this.delegate = delegate;
+    this.configuration = configuration;
+  }
+
+  /**
+   * Returns a logging version of the statement handler, or the handler itself if the statement log is not
+   * debug-enabled or this execution was not sampled.
+   *
+   * @param handler - the statement handler
+   * @param configuration - the configuration
+   * @param statementLog - the statement log
+   * @return - the statement handler with logging
+   */
+  public static StatementHandler newInstance(StatementHandler handler, Configuration configuration, Log statementLog) {
+    if (!statementLog.isDebugEnabled()) {
+      return handler;
+    }
+    int samplingInterval = configuration.getSqlLogSamplingInterval();
+    if (samplingInterval > 1 && ThreadLocalRandom.current().nextInt(samplingInterval) != 0) {
+      return handler;
+    }
+    return new StatementHandlerLogger(handler, configuration, statementLog);
+  }
+
+  @Override
+  public Statement prepare(Connection connection, Integer transactionTimeout) throws SQLException {
+    return delegate.prepare(connection, transactionTimeout);
+  }
+
+  @Override
+  public void parameterize(Statement statement) throws SQLException {
+    delegate.parameterize(statement);
+  }
+
+  @Override
+  public void batch(Statement statement) throws SQLException {
+    logStatement();
+    delegate.batch(statement);
+  }
+
+  @Override
+  public int update(Statement statement) throws SQLException {
+    logStatement();
+    int updateCount = delegate.update(statement);
+    debug("   Updates: " + updateCount, false);
+    return updateCount;
+  }
+
+  @Override
+  public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
+    logStatement();
+    List<E> list = delegate.query(statement, resultHandler);
+    if (resultHandler == null && list != null) {
+      debug("     Total: " + list.size(), false);
+    }
+    return list;
+  }
+
+  @Override
+  public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
+    logStatement();
+    return delegate.queryCursor(statement);
+  }
+
+  @Override
+  public BoundSql getBoundSql() {
+    return delegate.getBoundSql();
+  }
+
+  @Override
+  public ParameterHandler getParameterHandler() {
+    return delegate.getParameterHandler();
+  }
+
+  private void logStatement() {
+    BoundSql boundSql = getBoundSql();
+    debug(" Preparing: " + removeBreakingWhitespace(boundSql.getSql()), true);
+    List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+    if (parameterMappings == null || parameterMappings.isEmpty()) {
+      return;
+    }
+    Object parameterObject = getParameterHandler().getParameterObject();
+    MetaObject metaObject = null;
+    for (int i = 0; i < parameterMappings.size(); i++) {
+      ParameterMapping parameterMapping = parameterMappings.get(i);
+      if (parameterMapping.getMode() == ParameterMode.OUT) {
+        continue;
+      }
+      String propertyName = parameterMapping.getProperty();
+      Object value;
+      if (boundSql.hasAdditionalParameter(propertyName)) {
+        value = boundSql.getAdditionalParameter(propertyName);
+      } else if (parameterObject == null) {
+        value = null;
+      } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+        value = parameterObject;
+      } else {
+        if (metaObject == null) {
+          metaObject = configuration.newMetaObject(parameterObject);
+        }
+        value = metaObject.getValue(propertyName);
+      }
+      setColumn(i + 1, value);
+    }
+    debug("Parameters: " + getParameterValueString(), true);
+    clearColumnInfo();
+  }
+
+}
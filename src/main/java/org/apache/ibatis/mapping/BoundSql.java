@@ -49,6 +49,40 @@ public class BoundSql {
     this.metaParameters = configuration.newMetaObject(additionalParameters);
   }
 
+  private BoundSql(String sql, List<ParameterMapping> parameterMappings, BoundSql boundSql) {
+    this.sql = sql;
+    this.parameterMappings = parameterMappings;
+    this.parameterObject = boundSql.parameterObject;
+    this.additionalParameters = boundSql.additionalParameters;
+    this.metaParameters = boundSql.metaParameters;
+  }
+
+  /**
+   * Returns a bound SQL that runs the given SQL with the parameters of this one.
+   *
+   * @param sql
+   *          the SQL, with the same parameter placeholders in the same order
+   * @return the new bound SQL
+   * @since 3.5.3
+   */
+  public BoundSql withSql(String sql) {
+    return new BoundSql(sql, parameterMappings, this);
+  }
+
+  /**
+   * Returns a bound SQL that runs the given SQL with the given parameter mappings and the parameters of this one.
+   *
+   * @param sql
+   *          the SQL
+   * @param parameterMappings
+   *          the parameter mappings of the placeholders of the SQL
+   * @return the new bound SQL
+   * @since 3.5.3
+   */
+  public BoundSql withSql(String sql, List<ParameterMapping> parameterMappings) {
+    return new BoundSql(sql, parameterMappings, this);
+  }
+
   public String getSql() {
     return sql;
   }
@@ -62,6 +96,12 @@ public class BoundSql {
   }
 
   public boolean hasAdditionalParameter(String name) {
+    if (additionalParameters.isEmpty()) {
+      return false;
+    }
+    if (name != null && name.indexOf('.') < 0 && name.indexOf('[') < 0) {
+      return additionalParameters.containsKey(name);
+    }
     String paramName = new PropertyTokenizer(name).getName();
     return additionalParameters.containsKey(paramName);
   }
@@ -25,6 +25,7 @@ import org.apache.ibatis.builder.InitializingObject;
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheException;
 import org.apache.ibatis.cache.decorators.BlockingCache;
+import org.apache.ibatis.cache.decorators.CoalescingCache;
 import org.apache.ibatis.cache.decorators.LoggingCache;
 import org.apache.ibatis.cache.decorators.LruCache;
 import org.apache.ibatis.cache.decorators.ScheduledCache;
@@ -46,6 +47,7 @@ public class CacheBuilder {
   private boolean readWrite;
   private Properties properties;
   private boolean blocking;
+  private boolean coalescing;
 
   public CacheBuilder(String id) {
     this.id = id;
@@ -84,6 +86,14 @@ public class CacheBuilder {
     return this;
   }
 
+  /**
+   * @since 3.5.3
+   */
+  public CacheBuilder coalescing(boolean coalescing) {
+    this.coalescing = coalescing;
+    return this;
+  }
+
   public CacheBuilder properties(Properties properties) {
     this.properties = properties;
     return this;
@@ -100,8 +110,13 @@ public class CacheBuilder {
         setCacheProperties(cache);
       }
       cache = setStandardDecorators(cache);
-    } else if (!LoggingCache.class.isAssignableFrom(cache.getClass())) {
-      cache = new LoggingCache(cache);
+    } else {
+      if (!LoggingCache.class.isAssignableFrom(cache.getClass())) {
+        cache = new LoggingCache(cache);
+      }
+      if (coalescing) {
+        cache = newCoalescingCache(cache);
+      }
     }
     return cache;
   }
@@ -130,7 +145,9 @@ public class CacheBuilder {
       }
       cache = new LoggingCache(cache);
       cache = new SynchronizedCache(cache);
-      if (blocking) {
+      if (coalescing) {
+        cache = newCoalescingCache(cache);
+      } else if (blocking) {
         cache = new BlockingCache(cache);
       }
       return cache;
@@ -139,6 +156,12 @@ public class CacheBuilder {
     }
   }
 
+  private Cache newCoalescingCache(Cache cache) {
+    cache = new CoalescingCache(cache);
+    setCacheProperties(cache);
+    return cache;
+  }
+
   private void setCacheProperties(Cache cache) {
     if (properties != null) {
       MetaObject metaCache = SystemMetaObject.forObject(cache);
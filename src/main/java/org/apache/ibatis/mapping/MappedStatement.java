@@ -17,22 +17,36 @@ package org.apache.ibatis.mapping;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cache.SqlTableParser;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.executor.metrics.StatementMetrics;
+import org.apache.ibatis.executor.metrics.StatementPhase;
+import org.apache.ibatis.executor.statement.AdaptiveFetchSize;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.scripting.LanguageDriver;
+import org.apache.ibatis.scripting.defaults.ParameterBindingPlan;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
 
 /**
  * @author Clinton Begin
  */
 public final class MappedStatement {
 
+  private static final CacheKey EMPTY_CACHE_KEY = new CacheKey();
+  private static final int MAX_PARSED_SQL_TEXTS = 64;
+  private static final int MAX_PARAMETER_BINDING_PLANS = 16;
+
   private String resource;
   private Configuration configuration;
   private String id;
@@ -56,6 +70,13 @@ public final class MappedStatement {
   private Log statementLog;
   private LanguageDriver lang;
   private String[] resultSets;
+  private String[] tables;
+  private final Map<String, String[]> readTables = new ConcurrentHashMap<>();
+  private final Map<String, String[]> writtenTables = new ConcurrentHashMap<>();
+  private volatile CacheKeyPrefix cacheKeyPrefix;
+  private final Map<Object, ParameterBindingPlan> parameterBindingPlans = new ConcurrentHashMap<>();
+  private volatile ParameterBindingPlan lastParameterBindingPlan;
+  private final AdaptiveFetchSize adaptiveFetchSize = new AdaptiveFetchSize();
 
   MappedStatement() {
     // constructor disabled
@@ -174,6 +195,20 @@ public final class MappedStatement {
       return this;
     }
 
+    /**
+     * @since 3.5.3
+     */
+    public Builder tables(String tables) {
+      String[] names = delimitedStringToArray(tables);
+      if (names != null) {
+        for (int i = 0; i < names.length; i++) {
+          names[i] = SqlTableParser.normalizeTableName(names[i]);
+        }
+      }
+      mappedStatement.tables = names;
+      return this;
+    }
+
     /**
      * @deprecated Use {@link #resultSets}
      */
@@ -293,7 +328,64 @@ public final class MappedStatement {
     return resultSets;
   }
 
+  /**
+   * Returns the tables this statement reads or writes as declared by the mapper, normalized by
+   * {@link SqlTableParser#normalizeTableName(String)}, or null to parse them from the SQL.
+   *
+   * @since 3.5.3
+   */
+  public String[] getTables() {
+    return tables;
+  }
+
+  /**
+   * Returns the tables a query reads: the declared tables, or else the tables parsed from its SQL. Parsed tables are
+   * kept for the SQL texts last generated by this statement.
+   *
+   * @since 3.5.3
+   */
+  public String[] getReadTables(BoundSql boundSql) {
+    if (tables != null) {
+      return tables;
+    }
+    String sql = boundSql.getSql();
+    String[] parsed = readTables.get(sql);
+    if (parsed == null) {
+      parsed = SqlTableParser.parseReadTables(sql).toArray(new String[0]);
+      if (readTables.size() >= MAX_PARSED_SQL_TEXTS) {
+        readTables.clear();
+      }
+      readTables.put(sql, parsed);
+    }
+    return parsed;
+  }
+
+  /**
+   * Returns the tables an insert, update or delete writes: the declared tables, or else the tables parsed from its SQL.
+   * Parsed tables are kept for the SQL texts last generated by this statement. Statements whose table name is
+   * substituted by a parameter must declare their tables.
+   *
+   * @since 3.5.3
+   */
+  public String[] getWrittenTables(Object parameterObject) {
+    if (tables != null) {
+      return tables;
+    }
+    String sql = getBoundSql(parameterObject).getSql();
+    String[] parsed = writtenTables.get(sql);
+    if (parsed == null) {
+      parsed = SqlTableParser.parseWrittenTables(sql).toArray(new String[0]);
+      if (writtenTables.size() >= MAX_PARSED_SQL_TEXTS) {
+        writtenTables.clear();
+      }
+      writtenTables.put(sql, parsed);
+    }
+    return parsed;
+  }
+
   public BoundSql getBoundSql(Object parameterObject) {
+    final StatementMetrics metrics = configuration.getStatementMetrics();
+    final long start = metrics == null ? 0L : System.nanoTime();
     BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
     List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
     if (parameterMappings == null || parameterMappings.isEmpty()) {
@@ -311,9 +403,99 @@ public final class MappedStatement {
       }
     }
 
+    if (metrics != null) {
+      metrics.recordPhase(id, StatementPhase.BUILD_SQL, System.nanoTime() - start);
+    }
     return boundSql;
   }
 
+  /**
+   * Creates a cache key holding the id of this statement, the row bounds and the SQL, in this order, with room for
+   * further updates. Keys for the default row bounds and the SQL seen first are copied from a precomputed prefix.
+   *
+   * @param rowBounds
+   *          the row bounds of the query
+   * @param sql
+   *          the SQL of the query
+   * @param additionalUpdates
+   *          the number of updates the caller is going to add
+   * @return a new cache key
+   * @since 3.5.3
+   */
+  public CacheKey newCacheKey(RowBounds rowBounds, String sql, int additionalUpdates) {
+    if (rowBounds == RowBounds.DEFAULT) {
+      CacheKeyPrefix prefix = cacheKeyPrefix;
+      if (prefix == null) {
+        prefix = new CacheKeyPrefix(sql, buildCacheKey(rowBounds, sql, 0));
+        cacheKeyPrefix = prefix;
+      }
+      if (prefix.sql.equals(sql)) {
+        return new CacheKey(prefix.key, additionalUpdates);
+      }
+    }
+    return buildCacheKey(rowBounds, sql, additionalUpdates);
+  }
+
+  /**
+   * Returns the parameter binding plan kept for this key, if any.
+   *
+   * @since 3.5.3
+   */
+  public ParameterBindingPlan getParameterBindingPlan(Object key) {
+    return parameterBindingPlans.get(key);
+  }
+
+  /**
+   * Keeps a parameter binding plan for this key. At most 16 plans are kept per statement; one of them is dropped to
+   * make room for a new one.
+   *
+   * @since 3.5.3
+   */
+  public void putParameterBindingPlan(Object key, ParameterBindingPlan parameterBindingPlan) {
+    if (parameterBindingPlans.size() >= MAX_PARAMETER_BINDING_PLANS) {
+      Iterator<Object> keys = parameterBindingPlans.keySet().iterator();
+      if (keys.hasNext()) {
+        keys.next();
+        keys.remove();
+      }
+    }
+    parameterBindingPlans.put(key, parameterBindingPlan);
+  }
+
+  /**
+   * Returns the parameter binding plan last used by this statement, if any.
+   *
+   * @since 3.5.3
+   */
+  public ParameterBindingPlan getLastParameterBindingPlan() {
+    return lastParameterBindingPlan;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public void setLastParameterBindingPlan(ParameterBindingPlan lastParameterBindingPlan) {
+    this.lastParameterBindingPlan = lastParameterBindingPlan;
+  }
+
+  /**
+   * Returns the fetch size chosen from the rows returned by previous executions of this statement.
+   *
+   * @since 3.5.3
+   */
+  public AdaptiveFetchSize getAdaptiveFetchSize() {
+    return adaptiveFetchSize;
+  }
+
+  private CacheKey buildCacheKey(RowBounds rowBounds, String sql, int additionalUpdates) {
+    CacheKey cacheKey = new CacheKey(EMPTY_CACHE_KEY, 4 + additionalUpdates);
+    cacheKey.update(id);
+    cacheKey.update(rowBounds.getOffset());
+    cacheKey.update(rowBounds.getLimit());
+    cacheKey.update(sql);
+    return cacheKey;
+  }
+
   private static String[] delimitedStringToArray(String in) {
     if (in == null || in.trim().length() == 0) {
       return null;
@@ -322,4 +504,14 @@ public final class MappedStatement {
     }
   }
 
+  private static class CacheKeyPrefix {
+    private final String sql;
+    private final CacheKey key;
+
+    CacheKeyPrefix(String sql, CacheKey key) {
+      this.sql = sql;
+      this.key = key;
+    }
+  }
+
 }
@@ -45,6 +45,8 @@ public class ResultMapping {
   private String resultSet;
   private String foreignColumn;
   private boolean lazy;
+  private String batchQueryId;
+  private String batchKeyProperty;
 
   ResultMapping() {
   }
@@ -132,6 +134,22 @@ public class ResultMapping {
       return this;
     }
 
+    /**
+     * @since 3.5.3
+     */
+    public Builder batchQueryId(String batchQueryId) {
+      resultMapping.batchQueryId = batchQueryId;
+      return this;
+    }
+
+    /**
+     * @since 3.5.3
+     */
+    public Builder batchKeyProperty(String batchKeyProperty) {
+      resultMapping.batchKeyProperty = batchKeyProperty;
+      return this;
+    }
+
     public ResultMapping build() {
       // lock down collections
       resultMapping.flags = Collections.unmodifiableList(resultMapping.flags);
@@ -167,6 +185,14 @@ public class ResultMapping {
           throw new IllegalStateException("There should be the same number of columns and foreignColumns in property " + resultMapping.property);
         }
       }
+      if (resultMapping.batchQueryId != null) {
+        if (resultMapping.nestedQueryId == null) {
+          throw new IllegalStateException("Cannot define batchQueryId without nestedQueryId in property " + resultMapping.property);
+        }
+        if (resultMapping.batchKeyProperty == null) {
+          throw new IllegalStateException("Mapping is missing batchKeyProperty attribute for property " + resultMapping.property);
+        }
+      }
     }
 
     private void resolveTypeHandler() {
@@ -251,6 +277,24 @@ public class ResultMapping {
     this.lazy = lazy;
   }
 
+  /**
+   * Returns the id of the statement that loads the nested results of several rows at once, or <code>null</code>.
+   *
+   * @since 3.5.3
+   */
+  public String getBatchQueryId() {
+    return batchQueryId;
+  }
+
+  /**
+   * Returns the property of the objects loaded by the batch statement that holds the parameter of the nested query.
+   *
+   * @since 3.5.3
+   */
+  public String getBatchKeyProperty() {
+    return batchKeyProperty;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -298,6 +342,8 @@ public class ResultMapping {
     sb.append(", resultSet='").append(resultSet).append('\'');
     sb.append(", foreignColumn='").append(foreignColumn).append('\'');
     sb.append(", lazy=").append(lazy);
+    sb.append(", batchQueryId='").append(batchQueryId).append('\'');
+    sb.append(", batchKeyProperty='").append(batchKeyProperty).append('\'');
     sb.append('}');
     return sb.toString();
   }
@@ -0,0 +1,215 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.plugin;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * Applies several interceptors to a target with a single proxy, which behaves like the proxies nested by
+ * {@link Plugin#wrap(Object, Interceptor)} for each interceptor in turn.
+ * <p>
+ * The interceptors applying to a target class and the interceptors of each method are resolved once per class.
+ * Methods that no interceptor intercepts are invoked on the target directly. An interceptor that asks for the target
+ * of its invocation gets a proxy applying the interceptors added before it, as it would with nested proxies.
+ *
+ * @since 3.5.3
+ */
+public class ComposedPlugin implements InvocationHandler {
+
+  private final Object target;
+  private final Pipeline pipeline;
+  // number of interceptors applied by this proxy, from the first one
+  private final int level;
+  // targets seen by each interceptor, created on demand and shared by the proxies of a target
+  private final Object[] views;
+
+  private ComposedPlugin(Object target, Pipeline pipeline, int level, Object[] views) {
+    this.target = target;
+    this.pipeline = pipeline;
+    this.level = level;
+    this.views = views;
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    try {
+      int[] chain = pipeline.chains.get(method);
+      int position = chain == null ? -1 : outermost(chain, level);
+      if (position >= 0) {
+        return pipeline.interceptors[chain[position]].intercept(new ComposedInvocation(this, method, args, chain, position));
+      }
+      return method.invoke(target, args);
+    } catch (Exception e) {
+      throw ExceptionUtil.unwrapThrowable(e);
+    }
+  }
+
+  private static int outermost(int[] chain, int level) {
+    int position = chain.length - 1;
+    while (position >= 0 && chain[position] >= level) {
+      position--;
+    }
+    return position;
+  }
+
+  /**
+   * Returns the target of the interceptor at the given index.
+   */
+  private Object view(int index) {
+    if (index == 0) {
+      return target;
+    }
+    Object view = views[index];
+    if (view == null) {
+      view = pipeline.newProxy(target, index, views);
+      views[index] = view;
+    }
+    return view;
+  }
+
+  /**
+   * A run of interceptors that use the default {@link Interceptor#plugin(Object)}.
+   */
+  static class Composition {
+
+    private final List<Interceptor> interceptors;
+    private final List<Map<Class<?>, Set<Method>>> signatureMaps = new ArrayList<>();
+    private final Map<Class<?>, Pipeline> pipelines = new ConcurrentHashMap<>();
+
+    Composition(List<Interceptor> interceptors) {
+      this.interceptors = interceptors;
+      for (Interceptor interceptor : interceptors) {
+        signatureMaps.add(Plugin.getSignatureMap(interceptor));
+      }
+    }
+
+    Object wrap(Object target) {
+      Pipeline pipeline = pipelines.computeIfAbsent(target.getClass(), this::newPipeline);
+      int level = pipeline.interceptors.length;
+      return level == 0 ? target : pipeline.newProxy(target, level, new Object[level]);
+    }
+
+    private Pipeline newPipeline(Class<?> type) {
+      List<Interceptor> applied = new ArrayList<>();
+      Set<Class<?>> interfaces = new LinkedHashSet<>();
+      Map<Method, List<Integer>> chains = new HashMap<>();
+      for (int i = 0; i < interceptors.size(); i++) {
+        Map<Class<?>, Set<Method>> signatureMap = signatureMaps.get(i);
+        Class<?>[] wrapped = Plugin.getAllInterfaces(type, signatureMap);
+        if (wrapped.length == 0) {
+          continue;
+        }
+        for (Set<Method> methods : signatureMap.values()) {
+          for (Method method : methods) {
+            // Plugin looks intercepted methods up by their declaring class
+            Set<Method> declared = signatureMap.get(method.getDeclaringClass());
+            if (declared != null && declared.contains(method)) {
+              chains.computeIfAbsent(method, k -> new ArrayList<>()).add(applied.size());
+            }
+          }
+        }
+        for (Class<?> wrappedInterface : wrapped) {
+          interfaces.add(wrappedInterface);
+        }
+        applied.add(interceptors.get(i));
+      }
+      Map<Method, int[]> chainArrays = new HashMap<>();
+      chains.forEach((method, indexes) -> chainArrays.put(method, indexes.stream().distinct().mapToInt(Integer::intValue).toArray()));
+      return new Pipeline(type, applied.toArray(new Interceptor[0]), interfaces.toArray(new Class<?>[0]), chainArrays);
+    }
+  }
+
+  private static class Pipeline {
+    private final Class<?> type;
+    private final Interceptor[] interceptors;
+    private final Class<?>[] interfaces;
+    // indexes of the interceptors of each method, from the innermost
+    private final Map<Method, int[]> chains;
+
+    Pipeline(Class<?> type, Interceptor[] interceptors, Class<?>[] interfaces, Map<Method, int[]> chains) {
+      this.type = type;
+      this.interceptors = interceptors;
+      this.interfaces = interfaces;
+      this.chains = chains;
+    }
+
+    Object newProxy(Object target, int level, Object[] views) {
+      return Proxy.newProxyInstance(type.getClassLoader(), interfaces, new ComposedPlugin(target, this, level, views));
+    }
+  }
+
+  private static class ComposedInvocation extends Invocation {
+    private final ComposedPlugin plugin;
+    private final int[] chain;
+    private final int position;
+
+    ComposedInvocation(ComposedPlugin plugin, Method method, Object[] args, int[] chain, int position) {
+      super(plugin.target, method, args);
+      this.plugin = plugin;
+      this.chain = chain;
+      this.position = position;
+    }
+
+    @Override
+    public Object getTarget() {
+      return plugin.view(chain[position]);
+    }
+
+    @Override
+    public Object proceed() throws InvocationTargetException, IllegalAccessException {
+      if (position == 0) {
+        return getMethod().invoke(plugin.target, getArgs());
+      }
+      try {
+        return plugin.pipeline.interceptors[chain[position - 1]]
+            .intercept(new ComposedInvocation(plugin, getMethod(), getArgs(), chain, position - 1));
+      } catch (Throwable t) {
+        // what invoking the method on a nested proxy would throw
+        throw new InvocationTargetException(asThrownByProxy(t));
+      }
+    }
+
+    private Throwable asThrownByProxy(Throwable t) {
+      if (!(t instanceof Exception)) {
+        return t;
+      }
+      Throwable unwrapped = ExceptionUtil.unwrapThrowable(t);
+      if (unwrapped instanceof RuntimeException || unwrapped instanceof Error) {
+        return unwrapped;
+      }
+      for (Class<?> exceptionType : getMethod().getExceptionTypes()) {
+        if (exceptionType.isInstance(unwrapped)) {
+          return unwrapped;
+        }
+      }
+      return new UndeclaredThrowableException(unwrapped);
+    }
+  }
+
+}
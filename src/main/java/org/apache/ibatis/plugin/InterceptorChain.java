@@ -25,6 +25,8 @@ import java.util.List;
 public class InterceptorChain {
 
   private final List<Interceptor> interceptors = new ArrayList<>();
+  // interceptors using the default plugin method are grouped into compositions
+  private volatile List<Object> segments;
 
   public Object pluginAll(Object target) {
     for (Interceptor interceptor : interceptors) {
@@ -33,12 +35,65 @@ public class InterceptorChain {
     return target;
   }
 
+  /**
+   * Applies the interceptors like {@link #pluginAll(Object)}, but with a single {@link ComposedPlugin} proxy for each
+   * run of interceptors that do not override {@link Interceptor#plugin(Object)}.
+   *
+   * @param target
+   *          the object to intercept
+   * @return the target, or a proxy of it
+   * @since 3.5.3
+   */
+  public Object composeAll(Object target) {
+    for (Object segment : getSegments()) {
+      if (segment instanceof ComposedPlugin.Composition) {
+        target = ((ComposedPlugin.Composition) segment).wrap(target);
+      } else {
+        target = ((Interceptor) segment).plugin(target);
+      }
+    }
+    return target;
+  }
+
   public void addInterceptor(Interceptor interceptor) {
     interceptors.add(interceptor);
+    segments = null;
   }
 
   public List<Interceptor> getInterceptors() {
     return Collections.unmodifiableList(interceptors);
   }
 
+  private List<Object> getSegments() {
+    List<Object> result = segments;
+    if (result == null) {
+      result = new ArrayList<>();
+      List<Interceptor> run = new ArrayList<>();
+      for (Interceptor interceptor : interceptors) {
+        if (usesDefaultPlugin(interceptor)) {
+          run.add(interceptor);
+        } else {
+          if (!run.isEmpty()) {
+            result.add(new ComposedPlugin.Composition(run));
+            run = new ArrayList<>();
+          }
+          result.add(interceptor);
+        }
+      }
+      if (!run.isEmpty()) {
+        result.add(new ComposedPlugin.Composition(run));
+      }
+      segments = result;
+    }
+    return result;
+  }
+
+  private static boolean usesDefaultPlugin(Interceptor interceptor) {
+    try {
+      return interceptor.getClass().getMethod("plugin", Object.class).getDeclaringClass() == Interceptor.class;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
 }
@@ -33,6 +33,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import org.apache.ibatis.reflection.invoker.GeneratedMethodInvoker;
 import org.apache.ibatis.reflection.invoker.GetFieldInvoker;
 import org.apache.ibatis.reflection.invoker.Invoker;
 import org.apache.ibatis.reflection.invoker.MethodInvoker;
@@ -54,12 +55,26 @@ public class Reflector {
   private final Map<String, Invoker> getMethods = new HashMap<>();
   private final Map<String, Class<?>> setTypes = new HashMap<>();
   private final Map<String, Class<?>> getTypes = new HashMap<>();
+  private final boolean generateAccessors;
   private Constructor<?> defaultConstructor;
 
   private Map<String, String> caseInsensitivePropertyMap = new HashMap<>();
 
   public Reflector(Class<?> clazz) {
+    this(clazz, false);
+  }
+
+  /**
+   * @param clazz
+   *          the class to reflect
+   * @param generateAccessors
+   *          whether getters and setters are called through generated accessors instead of reflection
+   * @since 3.5.3
+   * @see GeneratedMethodInvoker
+   */
+  public Reflector(Class<?> clazz, boolean generateAccessors) {
     type = clazz;
+    this.generateAccessors = generateAccessors;
     addDefaultConstructor(clazz);
     addGetMethods(clazz);
     addSetMethods(clazz);
@@ -125,12 +140,16 @@ public class Reflector {
 
   private void addGetMethod(String name, Method method) {
     if (isValidPropertyName(name)) {
-      getMethods.put(name, new MethodInvoker(method));
+      getMethods.put(name, newMethodInvoker(method));
       Type returnType = TypeParameterResolver.resolveReturnType(method, type);
       getTypes.put(name, typeToClass(returnType));
     }
   }
 
+  private Invoker newMethodInvoker(Method method) {
+    return generateAccessors ? GeneratedMethodInvoker.forMethod(method) : new MethodInvoker(method);
+  }
+
   private void addSetMethods(Class<?> clazz) {
     Map<String, List<Method>> conflictingSetters = new HashMap<>();
     Method[] methods = getClassMethods(clazz);
@@ -192,7 +211,7 @@ public class Reflector {
 
   private void addSetMethod(String name, Method method) {
     if (isValidPropertyName(name)) {
-      setMethods.put(name, new MethodInvoker(method));
+      setMethods.put(name, newMethodInvoker(method));
       Type[] paramTypes = TypeParameterResolver.resolveParamTypes(method, type);
       setTypes.put(name, typeToClass(paramTypes[0]));
     }
@@ -365,6 +384,20 @@ public class Reflector {
     return method;
   }
 
+  /**
+   * Gets a setter that takes an unboxed <code>int</code>, <code>long</code> or <code>double</code> value, as an
+   * <code>ObjIntConsumer</code>, <code>ObjLongConsumer</code> or <code>ObjDoubleConsumer</code>.
+   * Only available when this reflector generates accessors.
+   *
+   * @param propertyName - the name of the property
+   * @return the primitive setter, or null if the property has no such setter
+   * @see GeneratedMethodInvoker#getPrimitiveSetter()
+   */
+  public Object getPrimitiveSetter(String propertyName) {
+    Invoker method = setMethods.get(propertyName);
+    return method instanceof GeneratedMethodInvoker ? ((GeneratedMethodInvoker) method).getPrimitiveSetter() : null;
+  }
+
   public Invoker getGetInvoker(String propertyName) {
     Invoker method = getMethods.get(propertyName);
     if (method == null) {
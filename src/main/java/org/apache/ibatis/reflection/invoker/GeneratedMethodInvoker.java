@@ -0,0 +1,180 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Invokes a getter or setter through a {@link Function} or {@link BiConsumer} spun by {@link LambdaMetafactory}.
+ * Unlike {@link Method#invoke(Object, Object...)}, the generated call site is a plain interface call that the JIT
+ * compiler can inline, and no argument array has to be checked or unpacked per call.
+ * <p>
+ * Accessors are only generated for public instance methods whose declaring, parameter and return types are public
+ * and visible from the class loader of MyBatis; {@link #forMethod(Method)} falls back to a {@link MethodInvoker} for
+ * any other method.
+ *
+ * @since 3.5.3
+ */
+public class GeneratedMethodInvoker extends MethodInvoker {
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  private final Class<?> declaringClass;
+  private final Class<?> type;
+  private final Function<Object, Object> getter;
+  private final BiConsumer<Object, Object> setter;
+  private final Object primitiveSetter;
+
+  /**
+   * Returns an invoker for the given getter or setter, which is a {@link GeneratedMethodInvoker} if an accessor can be
+   * generated for the method and a {@link MethodInvoker} otherwise.
+   */
+  public static Invoker forMethod(Method method) {
+    if (isGeneratable(method)) {
+      try {
+        return new GeneratedMethodInvoker(method);
+      } catch (Throwable t) {
+        // ignore and fall back to reflection
+      }
+    }
+    return new MethodInvoker(method);
+  }
+
+  @SuppressWarnings("unchecked")
+  private GeneratedMethodInvoker(Method method) throws Throwable {
+    super(method);
+    MethodHandle handle = LOOKUP.unreflect(method);
+    declaringClass = method.getDeclaringClass();
+    if (method.getParameterTypes().length == 1) {
+      type = method.getParameterTypes()[0];
+      CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(BiConsumer.class),
+          MethodType.methodType(void.class, Object.class, Object.class), handle,
+          MethodType.methodType(void.class, declaringClass, wrap(type)));
+      getter = null;
+      setter = (BiConsumer<Object, Object>) site.getTarget().invokeWithArguments();
+      primitiveSetter = createPrimitiveSetter(handle);
+    } else {
+      type = method.getReturnType();
+      CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply", MethodType.methodType(Function.class),
+          MethodType.methodType(Object.class, Object.class), handle,
+          MethodType.methodType(wrap(type), declaringClass));
+      getter = (Function<Object, Object>) site.getTarget().invokeWithArguments();
+      setter = null;
+      primitiveSetter = null;
+    }
+  }
+
+  /**
+   * Returns a setter that takes the unboxed value if this invoker calls a setter whose parameter is an
+   * <code>int</code>, <code>long</code> or <code>double</code>: an {@link ObjIntConsumer}, an {@link ObjLongConsumer}
+   * or an {@link ObjDoubleConsumer} respectively.
+   *
+   * @return the primitive setter, or null if the setter does not take one of these types
+   */
+  public Object getPrimitiveSetter() {
+    return primitiveSetter;
+  }
+
+  private Object createPrimitiveSetter(MethodHandle handle) throws Throwable {
+    if (type == int.class) {
+      return spin(handle, ObjIntConsumer.class);
+    } else if (type == long.class) {
+      return spin(handle, ObjLongConsumer.class);
+    } else if (type == double.class) {
+      return spin(handle, ObjDoubleConsumer.class);
+    }
+    return null;
+  }
+
+  private Object spin(MethodHandle handle, Class<?> consumerType) throws Throwable {
+    CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(consumerType),
+        MethodType.methodType(void.class, Object.class, type), handle,
+        MethodType.methodType(void.class, declaringClass, type));
+    return site.getTarget().invokeWithArguments();
+  }
+
+  @Override
+  public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
+    try {
+      if (setter != null) {
+        setter.accept(target, args[0]);
+        return null;
+      }
+      return getter.apply(target);
+    } catch (ClassCastException | NullPointerException e) {
+      if (!declaringClass.isInstance(target) || (setter != null && !isAssignable(args[0]))) {
+        // let reflection widen primitives or report the illegal argument
+        return super.invoke(target, args);
+      }
+      throw new InvocationTargetException(e);
+    } catch (Throwable t) {
+      throw new InvocationTargetException(t);
+    }
+  }
+
+  private boolean isAssignable(Object value) {
+    return value == null ? !type.isPrimitive() : wrap(type).isInstance(value);
+  }
+
+  private static Class<?> wrap(Class<?> clazz) {
+    return MethodType.methodType(clazz).wrap().returnType();
+  }
+
+  private static boolean isGeneratable(Method method) {
+    if (Modifier.isStatic(method.getModifiers()) || !Modifier.isPublic(method.getModifiers())) {
+      return false;
+    }
+    if (!isAccessible(method.getDeclaringClass()) || !isAccessible(method.getReturnType())) {
+      return false;
+    }
+    for (Class<?> parameterType : method.getParameterTypes()) {
+      if (!isAccessible(parameterType)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isAccessible(Class<?> clazz) {
+    while (clazz.isArray()) {
+      clazz = clazz.getComponentType();
+    }
+    if (clazz.isPrimitive()) {
+      return true;
+    }
+    if (!Modifier.isPublic(clazz.getModifiers())) {
+      return false;
+    }
+    try {
+      return Class.forName(clazz.getName(), false, GeneratedMethodInvoker.class.getClassLoader()) == clazz;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+
+}
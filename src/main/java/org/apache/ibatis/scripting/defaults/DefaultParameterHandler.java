@@ -62,7 +62,10 @@ public class DefaultParameterHandler implements ParameterHandler {
   public void setParameters(PreparedStatement ps) {
     ErrorContext.instance().activity("setting parameters").object(mappedStatement.getParameterMap().getId());
     List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
-    if (parameterMappings != null) {
+    if (parameterMappings != null && configuration.isCompiledParameterBindingEnabled()) {
+      ParameterBindingPlan.forStatement(mappedStatement, parameterMappings, parameterObject)
+          .setParameters(ps, parameterObject, boundSql, configuration);
+    } else if (parameterMappings != null) {
       for (int i = 0; i < parameterMappings.size(); i++) {
         ParameterMapping parameterMapping = parameterMappings.get(i);
         if (parameterMapping.getMode() != ParameterMode.OUT) {
@@ -0,0 +1,240 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.defaults;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
+import org.apache.ibatis.reflection.wrapper.ObjectWrapper;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeException;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * The parameter mappings of a statement resolved for one parameter class into (getter, type handler) entries, so
+ * that parameters can be set without resolving property paths again. Parameters that are not read from a simple
+ * property of a bean or a map are read through a {@link MetaObject} created once per execution.
+ *
+ * @since 3.5.3
+ */
+public final class ParameterBindingPlan {
+
+  private static final Entry[] NO_ENTRIES = new Entry[0];
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+
+  private final Class<?> parameterType;
+  private final Entry[] entries;
+  private volatile List<ParameterMapping> lastParameterMappings;
+
+  private ParameterBindingPlan(Class<?> parameterType, Entry[] entries) {
+    this.parameterType = parameterType;
+    this.entries = entries;
+  }
+
+  /**
+   * Returns the plan of the statement for these parameter mappings and parameter class, compiling and keeping a new
+   * one if the statement has none for them. Mappings generated again by dynamic SQL share the plan of equal mappings.
+   * The plan last used by the statement is reused without a lookup when it is asked for the same mappings list.
+   */
+  static ParameterBindingPlan forStatement(MappedStatement ms, List<ParameterMapping> parameterMappings, Object parameterObject) {
+    Class<?> parameterType = parameterObject == null ? null : parameterObject.getClass();
+    ParameterBindingPlan plan = ms.getLastParameterBindingPlan();
+    if (plan != null && plan.parameterType == parameterType && plan.lastParameterMappings == parameterMappings) {
+      return plan;
+    }
+    Key key = new Key(parameterType, parameterMappings);
+    plan = ms.getParameterBindingPlan(key);
+    if (plan == null) {
+      plan = compile(ms.getConfiguration(), parameterType, parameterMappings);
+      ms.putParameterBindingPlan(key, plan);
+    }
+    plan.lastParameterMappings = parameterMappings;
+    ms.setLastParameterBindingPlan(plan);
+    return plan;
+  }
+
+  private static ParameterBindingPlan compile(Configuration configuration, Class<?> parameterType, List<ParameterMapping> parameterMappings) {
+    Entry[] entries = parameterMappings.isEmpty() ? NO_ENTRIES : new Entry[parameterMappings.size()];
+    boolean defaultWrappers = configuration.getObjectWrapperFactory() instanceof DefaultObjectWrapperFactory;
+    for (int i = 0; i < entries.length; i++) {
+      ParameterMapping parameterMapping = parameterMappings.get(i);
+      String property = parameterMapping.getProperty();
+      boolean simpleProperty = property != null && property.indexOf('.') < 0 && property.indexOf('[') < 0;
+      int source;
+      Invoker getter = null;
+      if (parameterMapping.getMode() == ParameterMode.OUT) {
+        source = Entry.SKIP;
+      } else if (parameterType == null) {
+        source = Entry.NULL;
+      } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterType)) {
+        source = Entry.PARAMETER;
+      } else if (!simpleProperty || !defaultWrappers || ObjectWrapper.class.isAssignableFrom(parameterType)) {
+        source = Entry.META_OBJECT;
+      } else if (Map.class.isAssignableFrom(parameterType)) {
+        source = Entry.MAP;
+      } else {
+        Reflector reflector = configuration.getReflectorFactory().findForClass(parameterType);
+        if (!Collection.class.isAssignableFrom(parameterType) && reflector.hasGetter(property)) {
+          source = Entry.GETTER;
+          getter = reflector.getGetInvoker(property);
+        } else {
+          source = Entry.META_OBJECT;
+        }
+      }
+      entries[i] = new Entry(source, getter);
+    }
+    return new ParameterBindingPlan(parameterType, entries);
+  }
+
+  /**
+   * Sets the parameters of the statement like {@link DefaultParameterHandler} does.
+   */
+  void setParameters(PreparedStatement ps, Object parameterObject, BoundSql boundSql, Configuration configuration) {
+    List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+    MetaObject metaObject = null;
+    for (int i = 0; i < entries.length; i++) {
+      Entry entry = entries[i];
+      if (entry.source == Entry.SKIP) {
+        continue;
+      }
+      ParameterMapping parameterMapping = parameterMappings.get(i);
+      String propertyName = parameterMapping.getProperty();
+      Object value;
+      if (boundSql.hasAdditionalParameter(propertyName)) { // issue #448 ask first for additional params
+        value = boundSql.getAdditionalParameter(propertyName);
+      } else {
+        switch (entry.source) {
+          case Entry.NULL:
+            value = null;
+            break;
+          case Entry.PARAMETER:
+            value = parameterObject;
+            break;
+          case Entry.MAP:
+            value = ((Map<?, ?>) parameterObject).get(propertyName);
+            break;
+          case Entry.GETTER:
+            value = get(entry.getter, parameterObject, propertyName);
+            break;
+          default:
+            if (metaObject == null) {
+              metaObject = configuration.newMetaObject(parameterObject);
+            }
+            value = metaObject.getValue(propertyName);
+        }
+      }
+      TypeHandler typeHandler = parameterMapping.getTypeHandler();
+      JdbcType jdbcType = parameterMapping.getJdbcType();
+      if (value == null && jdbcType == null) {
+        jdbcType = configuration.getJdbcTypeForNull();
+      }
+      try {
+        typeHandler.setParameter(ps, i + 1, value, jdbcType);
+      } catch (TypeException | SQLException e) {
+        throw new TypeException("Could not set parameters for mapping: " + parameterMapping + ". Cause: " + e, e);
+      }
+    }
+  }
+
+  private static Object get(Invoker getter, Object parameterObject, String property) {
+    try {
+      try {
+        return getter.invoke(parameterObject, NO_ARGUMENTS);
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new ReflectionException("Could not get property '" + property + "' from " + parameterObject.getClass() + ".  Cause: " + t.toString(), t);
+    }
+  }
+
+  /**
+   * The parameter class and what a plan reads from each parameter mapping: property, java type, type handler class,
+   * jdbc type and mode.
+   */
+  private static final class Key {
+    private final Class<?> parameterType;
+    private final Object[] mappings;
+    private final int hashCode;
+
+    Key(Class<?> parameterType, List<ParameterMapping> parameterMappings) {
+      this.parameterType = parameterType;
+      this.mappings = new Object[parameterMappings.size() * 5];
+      int i = 0;
+      for (ParameterMapping parameterMapping : parameterMappings) {
+        mappings[i++] = parameterMapping.getProperty();
+        mappings[i++] = parameterMapping.getJavaType();
+        mappings[i++] = parameterMapping.getTypeHandler() == null ? null : parameterMapping.getTypeHandler().getClass();
+        mappings[i++] = parameterMapping.getJdbcType();
+        mappings[i++] = parameterMapping.getMode();
+      }
+      this.hashCode = 31 * Objects.hashCode(parameterType) + Arrays.hashCode(mappings);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      return parameterType == key.parameterType && Arrays.equals(mappings, key.mappings);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  private static class Entry {
+    static final int SKIP = 0;
+    static final int NULL = 1;
+    static final int PARAMETER = 2;
+    static final int MAP = 3;
+    static final int GETTER = 4;
+    static final int META_OBJECT = 5;
+
+    private final int source;
+    private final Invoker getter;
+
+    Entry(int source, Invoker getter) {
+      this.source = source;
+      this.getter = getter;
+    }
+  }
+
+}
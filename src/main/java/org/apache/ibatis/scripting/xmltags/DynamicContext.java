@@ -46,9 +46,9 @@ public class DynamicContext {
     if (parameterObject != null && !(parameterObject instanceof Map)) {
       MetaObject metaObject = configuration.newMetaObject(parameterObject);
       boolean existsTypeHandler = configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass());
-      bindings = new ContextMap(metaObject, existsTypeHandler);
+      bindings = new ContextMap(metaObject, existsTypeHandler, configuration.isDynamicSqlShortcutsEnabled());
     } else {
-      bindings = new ContextMap(null, false);
+      bindings = new ContextMap(null, false, configuration.isDynamicSqlShortcutsEnabled());
     }
     bindings.put(PARAMETER_OBJECT_KEY, parameterObject);
     bindings.put(DATABASE_ID_KEY, configuration.getDatabaseId());
@@ -78,10 +78,28 @@ public class DynamicContext {
     private static final long serialVersionUID = 2977601501966151582L;
     private final MetaObject parameterMetaObject;
     private final boolean fallbackParameterObject;
+    private final boolean shareOgnlContext;
+    private transient Map<?, ?> ognlContext;
 
     public ContextMap(MetaObject parameterMetaObject, boolean fallbackParameterObject) {
+      this(parameterMetaObject, fallbackParameterObject, false);
+    }
+
+    ContextMap(MetaObject parameterMetaObject, boolean fallbackParameterObject, boolean shareOgnlContext) {
       this.parameterMetaObject = parameterMetaObject;
       this.fallbackParameterObject = fallbackParameterObject;
+      this.shareOgnlContext = shareOgnlContext;
+    }
+
+    /**
+     * Returns the OGNL context shared by all expressions evaluated against these bindings, or null if each
+     * expression gets its own context.
+     */
+    Map<?, ?> getOgnlContext() {
+      if (shareOgnlContext && ognlContext == null) {
+        ognlContext = OgnlCache.createContext(this);
+      }
+      return ognlContext;
     }
 
     @Override
@@ -108,8 +126,10 @@ public class DynamicContext {
 
     @Override
     public Object getProperty(Map context, Object target, Object name) {
-      Map map = (Map) target;
+      return getBinding((Map) target, name);
+    }
 
+    static Object getBinding(Map map, Object name) {
       Object result = map.get(name);
       if (map.containsKey(name) || result != null) {
         return result;
@@ -15,9 +15,16 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
 import org.apache.ibatis.builder.SqlSourceBuilder;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.session.Configuration;
 
 /**
@@ -27,22 +34,150 @@ public class DynamicSqlSource implements SqlSource {
 
   private final Configuration configuration;
   private final SqlNode rootSqlNode;
+  private final SqlSourceBuilder cachingSqlSourceParser;
+  private final Map<SqlSourceKey, ParsedSqlSource> parsedSqlSources = new LinkedHashMap<SqlSourceKey, ParsedSqlSource>(16, 0.75f, true) {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<SqlSourceKey, ParsedSqlSource> eldest) {
+      return size() > configuration.getDynamicSqlCacheSize();
+    }
+  };
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder cacheMisses = new LongAdder();
 
   public DynamicSqlSource(Configuration configuration, SqlNode rootSqlNode) {
     this.configuration = configuration;
     this.rootSqlNode = rootSqlNode;
+    this.cachingSqlSourceParser = configuration.isDynamicSqlShortcutsEnabled()
+        ? new SqlSourceBuilder(configuration, true) : null;
   }
 
   @Override
   public BoundSql getBoundSql(Object parameterObject) {
     DynamicContext context = new DynamicContext(configuration, parameterObject);
     rootSqlNode.apply(context);
-    SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
     Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
-    SqlSource sqlSource = sqlSourceParser.parse(context.getSql(), parameterType, context.getBindings());
+    SqlSource sqlSource = configuration.getDynamicSqlCacheSize() > 0
+        ? getParsedSqlSource(context, parameterType) : parse(context, parameterType);
     BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
     context.getBindings().forEach(boundSql::setAdditionalParameter);
     return boundSql;
   }
 
+  /**
+   * Returns how many executions reused a parsed SQL text.
+   *
+   * @since 3.5.3
+   */
+  public long getCacheHitCount() {
+    return cacheHits.sum();
+  }
+
+  /**
+   * Returns how many executions parsed the generated SQL text while the cache was enabled.
+   *
+   * @since 3.5.3
+   */
+  public long getCacheMissCount() {
+    return cacheMisses.sum();
+  }
+
+  /**
+   * Returns the ratio of executions that reused a parsed SQL text, or 0 if none was counted.
+   *
+   * @since 3.5.3
+   */
+  public double getCacheHitRatio() {
+    long hits = getCacheHitCount();
+    long requests = hits + getCacheMissCount();
+    return requests == 0 ? 0 : (double) hits / requests;
+  }
+
+  private SqlSource parse(DynamicContext context, Class<?> parameterType) {
+    SqlSourceBuilder sqlSourceParser = cachingSqlSourceParser != null
+        ? cachingSqlSourceParser : new SqlSourceBuilder(configuration);
+    return sqlSourceParser.parse(context.getSql(), parameterType, context.getBindings());
+  }
+
+  private SqlSource getParsedSqlSource(DynamicContext context, Class<?> parameterType) {
+    SqlSourceKey key = new SqlSourceKey(context.getSql(), parameterType);
+    ParsedSqlSource parsed;
+    synchronized (parsedSqlSources) {
+      parsed = parsedSqlSources.get(key);
+    }
+    MetaObject metaBindings = configuration.newMetaObject(context.getBindings());
+    if (parsed != null && parsed.matches(metaBindings)) {
+      cacheHits.increment();
+      return parsed.sqlSource;
+    }
+    cacheMisses.increment();
+    SqlSource sqlSource = parse(context, parameterType);
+    parsed = new ParsedSqlSource(sqlSource, sqlSource.getBoundSql(null).getParameterMappings(), metaBindings);
+    synchronized (parsedSqlSources) {
+      parsedSqlSources.put(key, parsed);
+    }
+    return sqlSource;
+  }
+
+  private static class SqlSourceKey {
+    private final String sql;
+    private final Class<?> parameterType;
+
+    SqlSourceKey(String sql, Class<?> parameterType) {
+      this.sql = sql;
+      this.parameterType = parameterType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof SqlSourceKey)) {
+        return false;
+      }
+      SqlSourceKey other = (SqlSourceKey) o;
+      return sql.equals(other.sql) && parameterType.equals(other.parameterType);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * sql.hashCode() + parameterType.hashCode();
+    }
+  }
+
+  /**
+   * A parsed SQL text. The types of parameters that were resolved from the bindings (e.g. foreach items) depend on
+   * the values bound by an execution, so they are kept to check that another execution resolves them alike.
+   */
+  private static class ParsedSqlSource {
+    private final SqlSource sqlSource;
+    private final String[] properties;
+    private final Class<?>[] bindingTypes;
+
+    ParsedSqlSource(SqlSource sqlSource, List<ParameterMapping> parameterMappings, MetaObject metaBindings) {
+      this.sqlSource = sqlSource;
+      this.properties = new String[parameterMappings.size()];
+      this.bindingTypes = new Class<?>[properties.length];
+      for (int i = 0; i < properties.length; i++) {
+        properties[i] = parameterMappings.get(i).getProperty();
+        bindingTypes[i] = getBindingType(metaBindings, properties[i]);
+      }
+    }
+
+    boolean matches(MetaObject metaBindings) {
+      for (int i = 0; i < properties.length; i++) {
+        if (bindingTypes[i] != getBindingType(metaBindings, properties[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private static Class<?> getBindingType(MetaObject metaBindings, String property) {
+      return property != null && metaBindings.hasGetter(property) ? metaBindings.getGetterType(property) : null;
+    }
+  }
+
 }
@@ -33,6 +33,9 @@ public class ExpressionEvaluator {
     if (value instanceof Boolean) {
       return (Boolean) value;
     }
+    if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+      return ((Number) value).longValue() != 0;
+    }
     if (value instanceof Number) {
       return new BigDecimal(String.valueOf(value)).compareTo(BigDecimal.ZERO) != 0;
     }
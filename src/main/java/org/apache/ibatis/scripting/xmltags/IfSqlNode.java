@@ -24,9 +24,13 @@ public class IfSqlNode implements SqlNode {
   private final SqlNode contents;
 
   public IfSqlNode(SqlNode contents, String test) {
+    this(contents, test, new ExpressionEvaluator());
+  }
+
+  IfSqlNode(SqlNode contents, String test, ExpressionEvaluator evaluator) {
     this.test = test;
     this.contents = contents;
-    this.evaluator = new ExpressionEvaluator();
+    this.evaluator = evaluator;
   }
 
   @Override
@@ -0,0 +1,128 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Evaluates a <code>test</code> expression made only of null checks of bindings, such as
+ * <code>name != null and id == null</code>, without OGNL. Any other expression is evaluated by OGNL.
+ *
+ * @since 3.5.3
+ */
+class NullCheckEvaluator extends ExpressionEvaluator {
+
+  private static final Pattern TOKEN = Pattern.compile("\\s*([A-Za-z_$][A-Za-z0-9_$]*|!=|==|&&|\\|\\|)");
+  private static final Set<String> KEYWORDS = new HashSet<>(Arrays.asList("null", "true", "false", "and", "or",
+      "not", "in", "instanceof", "new", "eq", "neq", "lt", "gt", "lte", "gte", "shl", "shr", "ushr", "bor", "xor",
+      "band"));
+
+  private final String expression;
+  // disjunction of conjunctions
+  private final NullCheck[][] checks;
+
+  private NullCheckEvaluator(String expression, NullCheck[][] checks) {
+    this.expression = expression;
+    this.checks = checks;
+  }
+
+  /**
+   * Returns an evaluator that evaluates the expression without OGNL when possible.
+   */
+  static ExpressionEvaluator forExpression(String expression) {
+    NullCheck[][] checks = expression == null ? null : compile(expression);
+    return checks == null ? new ExpressionEvaluator() : new NullCheckEvaluator(expression, checks);
+  }
+
+  @Override
+  public boolean evaluateBoolean(String expression, Object parameterObject) {
+    if (parameterObject instanceof DynamicContext.ContextMap && this.expression.equals(expression)) {
+      try {
+        return evaluate((DynamicContext.ContextMap) parameterObject);
+      } catch (RuntimeException e) {
+        // let OGNL report the failure
+      }
+    }
+    return super.evaluateBoolean(expression, parameterObject);
+  }
+
+  private boolean evaluate(DynamicContext.ContextMap bindings) {
+    for (NullCheck[] conjunction : checks) {
+      boolean matched = true;
+      for (NullCheck check : conjunction) {
+        if ((DynamicContext.ContextAccessor.getBinding(bindings, check.name) == null) == check.notNull) {
+          matched = false;
+          break;
+        }
+      }
+      if (matched) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static NullCheck[][] compile(String expression) {
+    List<String> tokens = new ArrayList<>();
+    Matcher matcher = TOKEN.matcher(expression);
+    int end = 0;
+    while (matcher.lookingAt()) {
+      tokens.add(matcher.group(1));
+      end = matcher.end();
+      matcher.region(end, expression.length());
+    }
+    // n checks take 3n tokens plus n - 1 connectives
+    if ((tokens.size() + 1) % 4 != 0 || !expression.substring(end).trim().isEmpty()) {
+      return null;
+    }
+    List<NullCheck[]> disjunction = new ArrayList<>();
+    List<NullCheck> conjunction = new ArrayList<>();
+    for (int i = 0; i < tokens.size(); i += 4) {
+      String name = tokens.get(i);
+      String operator = tokens.get(i + 1);
+      if (!Character.isJavaIdentifierStart(name.charAt(0)) || KEYWORDS.contains(name)
+          || !"null".equals(tokens.get(i + 2)) || !("!=".equals(operator) || "==".equals(operator))) {
+        return null;
+      }
+      conjunction.add(new NullCheck(name, "!=".equals(operator)));
+      String connective = i + 3 < tokens.size() ? tokens.get(i + 3) : null;
+      if (connective == null || "or".equals(connective) || "||".equals(connective)) {
+        disjunction.add(conjunction.toArray(new NullCheck[0]));
+        conjunction = new ArrayList<>();
+      } else if (!"and".equals(connective) && !"&&".equals(connective)) {
+        return null;
+      }
+    }
+    return disjunction.toArray(new NullCheck[0][]);
+  }
+
+  private static class NullCheck {
+    private final String name;
+    private final boolean notNull;
+
+    NullCheck(String name, boolean notNull) {
+      this.name = name;
+      this.notNull = notNull;
+    }
+  }
+
+}
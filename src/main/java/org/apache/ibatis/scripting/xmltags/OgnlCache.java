@@ -42,13 +42,20 @@ public final class OgnlCache {
 
   public static Object getValue(String expression, Object root) {
     try {
-      Map context = Ognl.createDefaultContext(root, MEMBER_ACCESS, CLASS_RESOLVER, null);
+      Map context = root instanceof DynamicContext.ContextMap ? ((DynamicContext.ContextMap) root).getOgnlContext() : null;
+      if (context == null) {
+        context = createContext(root);
+      }
       return Ognl.getValue(parseExpression(expression), context, root);
     } catch (OgnlException e) {
       throw new BuilderException("Error evaluating expression '" + expression + "'. Cause: " + e, e);
     }
   }
 
+  static Map createContext(Object root) {
+    return Ognl.createDefaultContext(root, MEMBER_ACCESS, CLASS_RESOLVER, null);
+  }
+
   private static Object parseExpression(String expression) throws OgnlException {
     Object node = expressionCache.get(expression);
     if (node == null) {
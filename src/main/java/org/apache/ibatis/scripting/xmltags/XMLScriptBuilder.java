@@ -190,7 +190,9 @@ public class XMLScriptBuilder extends BaseBuilder {
     public void handleNode(XNode nodeToHandle, List<SqlNode> targetContents) {
       MixedSqlNode mixedSqlNode = parseDynamicTags(nodeToHandle);
       String test = nodeToHandle.getStringAttribute("test");
-      IfSqlNode ifSqlNode = new IfSqlNode(mixedSqlNode, test);
+      IfSqlNode ifSqlNode = configuration.isDynamicSqlShortcutsEnabled()
+          ? new IfSqlNode(mixedSqlNode, test, NullCheckEvaluator.forExpression(test))
+          : new IfSqlNode(mixedSqlNode, test);
       targetContents.add(ifSqlNode);
     }
   }
@@ -0,0 +1,44 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+/**
+ * Specifies the session a mapper method returning {@link java.util.concurrent.CompletableFuture} runs in. A call never
+ * runs in the session the mapper was obtained from, so it neither joins its transaction nor sees its uncommitted
+ * changes.
+ *
+ * @since 3.5.3
+ */
+public enum AsyncSessionScope {
+
+  /**
+   * Mapper methods returning a future are not allowed and fail when called.
+   */
+  NONE,
+
+  /**
+   * Each call runs in a new session opened from the configuration with the default executor type, which is closed
+   * without being committed when the statement completes.
+   */
+  SESSION,
+
+  /**
+   * Each call runs in a new session opened from the configuration with the default executor type, which is committed
+   * when the statement succeeds and closed when it completes.
+   */
+  COMMITTED_SESSION
+
+}
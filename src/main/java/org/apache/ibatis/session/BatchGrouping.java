@@ -0,0 +1,44 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+/**
+ * Specifies which updates the batch executor adds to the same JDBC batch. Batches are executed in the order they
+ * were created, so grouping may execute an update before updates on other tables that were added earlier; dependencies
+ * between tables, such as foreign keys, are not tracked.
+ *
+ * @since 3.5.3
+ */
+public enum BatchGrouping {
+
+  /**
+   * Only consecutive updates with the same statement and SQL share a batch.
+   */
+  CONSECUTIVE,
+
+  /**
+   * Updates with the same statement and SQL share a batch even if other updates were added in between, as long as
+   * none of those touched the same table. Updates whose table cannot be told from the SQL only share a batch with
+   * consecutive updates, and no update is moved across them.
+   */
+  TABLE,
+
+  /**
+   * All updates with the same statement and SQL share a batch, regardless of the updates added in between.
+   */
+  STATEMENT
+
+}
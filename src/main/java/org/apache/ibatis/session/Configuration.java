@@ -15,8 +15,10 @@
  */
 package org.apache.ibatis.session;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -25,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 
 import org.apache.ibatis.binding.MapperRegistry;
@@ -34,12 +37,14 @@ import org.apache.ibatis.builder.ResultMapResolver;
 import org.apache.ibatis.builder.annotation.MethodResolver;
 import org.apache.ibatis.builder.xml.XMLStatementBuilder;
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.TableVersions;
 import org.apache.ibatis.cache.decorators.FifoCache;
 import org.apache.ibatis.cache.decorators.LruCache;
 import org.apache.ibatis.cache.decorators.SoftCache;
 import org.apache.ibatis.cache.decorators.WeakCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.datasource.jndi.JndiDataSourceFactory;
+import org.apache.ibatis.datasource.pooled.ConcurrentPooledDataSourceFactory;
 import org.apache.ibatis.datasource.pooled.PooledDataSourceFactory;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSourceFactory;
 import org.apache.ibatis.executor.BatchExecutor;
@@ -51,6 +56,13 @@ import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.loader.ProxyFactory;
 import org.apache.ibatis.executor.loader.cglib.CglibProxyFactory;
 import org.apache.ibatis.executor.loader.javassist.JavassistProxyFactory;
+import org.apache.ibatis.executor.metrics.StatementMetrics;
+import org.apache.ibatis.executor.pagination.CountSqlSource;
+import org.apache.ibatis.executor.pagination.Dialect;
+import org.apache.ibatis.executor.pagination.DialectRegistry;
+import org.apache.ibatis.executor.pagination.LimitOffsetDialect;
+import org.apache.ibatis.executor.pagination.OffsetFetchDialect;
+import org.apache.ibatis.executor.pagination.SqlServerDialect;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
@@ -60,6 +72,7 @@ import org.apache.ibatis.io.VFS;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.logging.commons.JakartaCommonsLoggingImpl;
+import org.apache.ibatis.logging.jdbc.StatementHandlerLogger;
 import org.apache.ibatis.logging.jdk14.Jdk14LoggingImpl;
 import org.apache.ibatis.logging.log4j.Log4jImpl;
 import org.apache.ibatis.logging.log4j2.Log4j2Impl;
@@ -72,6 +85,7 @@ import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMap;
 import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.mapping.VendorDatabaseIdProvider;
 import org.apache.ibatis.parsing.XNode;
 import org.apache.ibatis.plugin.Interceptor;
@@ -113,11 +127,34 @@ public class Configuration {
   protected boolean callSettersOnNulls;
   protected boolean useActualParamName = true;
   protected boolean returnInstanceForEmptyRow;
+  protected boolean compiledRowMappingEnabled;
+  protected boolean dynamicSqlShortcutsEnabled;
+  protected int dynamicSqlCacheSize;
+  protected java.util.concurrent.Executor asyncExecutor;
+  protected AsyncSessionScope asyncSessionScope = AsyncSessionScope.NONE;
+  protected boolean compiledParameterBindingEnabled;
+  protected boolean composedPluginsEnabled;
+  protected int batchLoadSize = 500;
+  protected boolean columnIndexMappingEnabled;
+  protected boolean lightweightSqlLoggingEnabled;
+  protected int sqlLogSamplingInterval = 1;
+  protected boolean paginationEnabled;
+  protected boolean adaptiveFetchSizeEnabled;
+  protected int minAdaptiveFetchSize = 10;
+  protected int maxAdaptiveFetchSize = 1000;
+  protected int adaptiveFetchMemoryBudget = 4 * 1024 * 1024;
+  protected boolean tableCacheInvalidationEnabled;
+
+  protected StatementMetrics statementMetrics;
+  protected Dialect paginationDialect;
 
   protected String logPrefix;
   protected Class<? extends Log> logImpl;
   protected Class<? extends VFS> vfsImpl;
   protected LocalCacheScope localCacheScope = LocalCacheScope.SESSION;
+  protected BatchGrouping batchGrouping = BatchGrouping.CONSECUTIVE;
+  protected Integer batchFlushRows;
+  protected Integer batchFlushBytes;
   protected JdbcType jdbcTypeForNull = JdbcType.OTHER;
   protected Set<String> lazyLoadTriggerMethods = new HashSet<>(Arrays.asList("equals", "clone", "hashCode", "toString"));
   protected Integer defaultStatementTimeout;
@@ -149,6 +186,8 @@ public class Configuration {
   protected final TypeHandlerRegistry typeHandlerRegistry = new TypeHandlerRegistry();
   protected final TypeAliasRegistry typeAliasRegistry = new TypeAliasRegistry();
   protected final LanguageDriverRegistry languageRegistry = new LanguageDriverRegistry();
+  protected final DialectRegistry dialectRegistry = new DialectRegistry();
+  protected final TableVersions tableVersions = new TableVersions();
 
   protected final Map<String, MappedStatement> mappedStatements = new StrictMap<MappedStatement>("Mapped Statements collection")
       .conflictMessageProducer((savedValue, targetValue) ->
@@ -157,6 +196,7 @@ public class Configuration {
   protected final Map<String, ResultMap> resultMaps = new StrictMap<>("Result Maps collection");
   protected final Map<String, ParameterMap> parameterMaps = new StrictMap<>("Parameter Maps collection");
   protected final Map<String, KeyGenerator> keyGenerators = new StrictMap<>("Key Generators collection");
+  protected final Map<String, MappedStatement> countStatements = new ConcurrentHashMap<>();
 
   protected final Set<String> loadedResources = new HashSet<>();
   protected final Map<String, XNode> sqlFragments = new StrictMap<>("XML fragments parsed from previous mappers");
@@ -184,6 +224,7 @@ public class Configuration {
 
     typeAliasRegistry.registerAlias("JNDI", JndiDataSourceFactory.class);
     typeAliasRegistry.registerAlias("POOLED", PooledDataSourceFactory.class);
+    typeAliasRegistry.registerAlias("CONCURRENT_POOLED", ConcurrentPooledDataSourceFactory.class);
     typeAliasRegistry.registerAlias("UNPOOLED", UnpooledDataSourceFactory.class);
 
     typeAliasRegistry.registerAlias("PERPETUAL", PerpetualCache.class);
@@ -194,6 +235,10 @@ public class Configuration {
 
     typeAliasRegistry.registerAlias("DB_VENDOR", VendorDatabaseIdProvider.class);
 
+    typeAliasRegistry.registerAlias("LIMIT_OFFSET", LimitOffsetDialect.class);
+    typeAliasRegistry.registerAlias("OFFSET_FETCH", OffsetFetchDialect.class);
+    typeAliasRegistry.registerAlias("SQL_SERVER", SqlServerDialect.class);
+
     typeAliasRegistry.registerAlias("XML", XMLLanguageDriver.class);
     typeAliasRegistry.registerAlias("RAW", RawLanguageDriver.class);
 
@@ -266,6 +311,383 @@ public class Configuration {
     this.returnInstanceForEmptyRow = returnEmptyInstance;
   }
 
+  /**
+   * @since 3.5.3
+   */
+  public boolean isCompiledRowMappingEnabled() {
+    return compiledRowMappingEnabled;
+  }
+
+  /**
+   * Sets whether simple result maps are compiled, on the first row of each result set, into a plan of column index,
+   * type handler and setter that is executed for the remaining rows.
+   *
+   * @param compiledRowMappingEnabled
+   *          true to map rows using a compiled plan
+   * @since 3.5.3
+   */
+  public void setCompiledRowMappingEnabled(boolean compiledRowMappingEnabled) {
+    this.compiledRowMappingEnabled = compiledRowMappingEnabled;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public boolean isDynamicSqlShortcutsEnabled() {
+    return dynamicSqlShortcutsEnabled;
+  }
+
+  /**
+   * Sets whether dynamic SQL reuses the parameter mappings it built for earlier executions, evaluates simple null
+   * checks without OGNL and shares one OGNL context per execution.
+   *
+   * @param dynamicSqlShortcutsEnabled
+   *          true to enable
+   * @since 3.5.3
+   */
+  public void setDynamicSqlShortcutsEnabled(boolean dynamicSqlShortcutsEnabled) {
+    this.dynamicSqlShortcutsEnabled = dynamicSqlShortcutsEnabled;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public int getDynamicSqlCacheSize() {
+    return dynamicSqlCacheSize;
+  }
+
+  /**
+   * Sets how many distinct SQL texts each dynamic SQL statement keeps parsed, or 0 (the default) to parse the
+   * generated SQL on every execution.
+   *
+   * @param dynamicSqlCacheSize
+   *          the maximum number of parsed SQL texts per statement
+   * @since 3.5.3
+   */
+  public void setDynamicSqlCacheSize(int dynamicSqlCacheSize) {
+    this.dynamicSqlCacheSize = dynamicSqlCacheSize;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public java.util.concurrent.Executor getAsyncExecutor() {
+    return asyncExecutor;
+  }
+
+  /**
+   * Sets the executor that runs mapper methods returning {@link java.util.concurrent.CompletableFuture}. The
+   * statements are blocking JDBC calls, so the executor should have threads of its own rather than share a pool meant
+   * for computations. Such methods fail when called while no executor is set.
+   *
+   * @param asyncExecutor
+   *          the executor, or null to disallow asynchronous mapper methods
+   * @since 3.5.3
+   */
+  public void setAsyncExecutor(java.util.concurrent.Executor asyncExecutor) {
+    this.asyncExecutor = asyncExecutor;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public AsyncSessionScope getAsyncSessionScope() {
+    return asyncSessionScope;
+  }
+
+  /**
+   * Sets the session mapper methods returning {@link java.util.concurrent.CompletableFuture} run in. By default
+   * ({@link AsyncSessionScope#NONE}) such methods fail when called.
+   *
+   * @param asyncSessionScope
+   *          the session scope of asynchronous mapper methods
+   * @since 3.5.3
+   */
+  public void setAsyncSessionScope(AsyncSessionScope asyncSessionScope) {
+    this.asyncSessionScope = asyncSessionScope;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public boolean isCompiledParameterBindingEnabled() {
+    return compiledParameterBindingEnabled;
+  }
+
+  /**
+   * Sets whether the default parameter handler binds parameters through a plan of getters and type handlers that is
+   * resolved once per statement and parameter class, instead of resolving each property path for every execution.
+   *
+   * @param compiledParameterBindingEnabled
+   *          true to enable
+   * @since 3.5.3
+   */
+  public void setCompiledParameterBindingEnabled(boolean compiledParameterBindingEnabled) {
+    this.compiledParameterBindingEnabled = compiledParameterBindingEnabled;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public boolean isComposedPluginsEnabled() {
+    return composedPluginsEnabled;
+  }
+
+  /**
+   * Sets whether the interceptors are applied to executors and statement, parameter and result set handlers by a
+   * single proxy whose intercepted methods are resolved once per target class, instead of one proxy per interceptor.
+   * Interceptors overriding {@link Interceptor#plugin(Object)} are still applied by their own plugin method.
+   *
+   * @param composedPluginsEnabled
+   *          true to enable
+   * @since 3.5.3
+   */
+  public void setComposedPluginsEnabled(boolean composedPluginsEnabled) {
+    this.composedPluginsEnabled = composedPluginsEnabled;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public int getBatchLoadSize() {
+    return batchLoadSize;
+  }
+
+  /**
+   * Sets how many nested query parameters are passed at most to one execution of the batch statement of a mapping.
+   *
+   * @param batchLoadSize
+   *          the maximum number of parameters per batch
+   * @since 3.5.3
+   */
+  public void setBatchLoadSize(int batchLoadSize) {
+    this.batchLoadSize = batchLoadSize;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public boolean isColumnIndexMappingEnabled() {
+    return columnIndexMappingEnabled;
+  }
+
+  /**
+   * Sets whether result mappings read column values with
+   * {@link TypeHandler#getResult(java.sql.ResultSet, int)}, resolving each column label once per result set, instead
+   * of letting the driver resolve the label for every row.
+   *
+   * @param columnIndexMappingEnabled
+   *          true to enable
+   * @since 3.5.3
+   */
+  public void setColumnIndexMappingEnabled(boolean columnIndexMappingEnabled) {
+    this.columnIndexMappingEnabled = columnIndexMappingEnabled;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public boolean isLightweightSqlLoggingEnabled() {
+    return lightweightSqlLoggingEnabled;
+  }
+
+  /**
+   * Sets whether SQL statements are logged by a statement handler instead of by proxies around the JDBC connection,
+   * statements and result sets. Only the row count of a query is logged, not its rows.
+   *
+   * @param lightweightSqlLoggingEnabled
+   *          true to enable
+   * @since 3.5.3
+   */
+  public void setLightweightSqlLoggingEnabled(boolean lightweightSqlLoggingEnabled) {
+    this.lightweightSqlLoggingEnabled = lightweightSqlLoggingEnabled;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public int getSqlLogSamplingInterval() {
+    return sqlLogSamplingInterval;
+  }
+
+  /**
+   * Sets how many executions of a statement are logged on average by the lightweight SQL logging: one in every
+   * <code>sqlLogSamplingInterval</code> executions, chosen at random.
+   *
+   * @param sqlLogSamplingInterval
+   *          the sampling interval, 1 to log every execution
+   * @since 3.5.3
+   */
+  public void setSqlLogSamplingInterval(int sqlLogSamplingInterval) {
+    this.sqlLogSamplingInterval = sqlLogSamplingInterval;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public StatementMetrics getStatementMetrics() {
+    return statementMetrics;
+  }
+
+  /**
+   * Sets the receiver of the execution metrics of all statements, or null to record no metrics.
+   *
+   * @param statementMetrics
+   *          the statement metrics
+   * @since 3.5.3
+   * @see org.apache.ibatis.executor.metrics.DefaultStatementMetrics
+   */
+  public void setStatementMetrics(StatementMetrics statementMetrics) {
+    this.statementMetrics = statementMetrics;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public boolean isPaginationEnabled() {
+    return paginationEnabled;
+  }
+
+  /**
+   * Sets whether statements invoked with row bounds are paged by the database, by rewriting their SQL with the
+   * pagination dialect, instead of skipping rows on the client.
+   *
+   * @param paginationEnabled
+   *          true to enable
+   * @since 3.5.3
+   */
+  public void setPaginationEnabled(boolean paginationEnabled) {
+    this.paginationEnabled = paginationEnabled;
+  }
+
+  /**
+   * Returns the pagination dialect, which is the one set explicitly or else the one registered for the database id.
+   *
+   * @since 3.5.3
+   */
+  public Dialect getPaginationDialect() {
+    return paginationDialect != null ? paginationDialect : dialectRegistry.getDialect(databaseId);
+  }
+
+  /**
+   * Sets the pagination dialect to use regardless of the database id.
+   *
+   * @param paginationDialect
+   *          the dialect, or null to choose it from the {@link DialectRegistry}
+   * @since 3.5.3
+   */
+  public void setPaginationDialect(Dialect paginationDialect) {
+    this.paginationDialect = paginationDialect;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public DialectRegistry getDialectRegistry() {
+    return dialectRegistry;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public boolean isAdaptiveFetchSizeEnabled() {
+    return adaptiveFetchSizeEnabled;
+  }
+
+  /**
+   * Sets whether statements without a fetch size pick one from the rows they returned in previous executions.
+   *
+   * @param adaptiveFetchSizeEnabled
+   *          true to enable
+   * @since 3.5.3
+   */
+  public void setAdaptiveFetchSizeEnabled(boolean adaptiveFetchSizeEnabled) {
+    this.adaptiveFetchSizeEnabled = adaptiveFetchSizeEnabled;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public int getMinAdaptiveFetchSize() {
+    return minAdaptiveFetchSize;
+  }
+
+  /**
+   * Sets the smallest fetch size chosen by the adaptive fetch size.
+   *
+   * @param minAdaptiveFetchSize
+   *          the number of rows
+   * @since 3.5.3
+   */
+  public void setMinAdaptiveFetchSize(int minAdaptiveFetchSize) {
+    this.minAdaptiveFetchSize = minAdaptiveFetchSize;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public int getMaxAdaptiveFetchSize() {
+    return maxAdaptiveFetchSize;
+  }
+
+  /**
+   * Sets the largest fetch size chosen by the adaptive fetch size, which is also the fetch size of selects read
+   * through a cursor or a result handler.
+   *
+   * @param maxAdaptiveFetchSize
+   *          the number of rows
+   * @since 3.5.3
+   */
+  public void setMaxAdaptiveFetchSize(int maxAdaptiveFetchSize) {
+    this.maxAdaptiveFetchSize = maxAdaptiveFetchSize;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public int getAdaptiveFetchMemoryBudget() {
+    return adaptiveFetchMemoryBudget;
+  }
+
+  /**
+   * Sets how many bytes the rows of one fetch may take, as estimated from the types of their columns. The adaptive
+   * fetch size is lowered below <code>minAdaptiveFetchSize</code> if needed to stay within this budget.
+   *
+   * @param adaptiveFetchMemoryBudget
+   *          the number of bytes
+   * @since 3.5.3
+   */
+  public void setAdaptiveFetchMemoryBudget(int adaptiveFetchMemoryBudget) {
+    this.adaptiveFetchMemoryBudget = adaptiveFetchMemoryBudget;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public boolean isTableCacheInvalidationEnabled() {
+    return tableCacheInvalidationEnabled;
+  }
+
+  /**
+   * Sets whether writes invalidate only the cached results read from the tables they write, in all namespaces,
+   * rather than clearing the cache of their namespace. The tables of a statement are declared with its
+   * <code>tables</code> attribute or parsed from its SQL; selects whose tables are unknown are not cached.
+   *
+   * @param tableCacheInvalidationEnabled
+   *          true to enable
+   * @since 3.5.3
+   */
+  public void setTableCacheInvalidationEnabled(boolean tableCacheInvalidationEnabled) {
+    this.tableCacheInvalidationEnabled = tableCacheInvalidationEnabled;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public TableVersions getTableVersions() {
+    return tableVersions;
+  }
+
   public String getDatabaseId() {
     return databaseId;
   }
@@ -463,6 +885,57 @@ public class Configuration {
     this.localCacheScope = localCacheScope;
   }
 
+  /**
+   * @since 3.5.3
+   */
+  public BatchGrouping getBatchGrouping() {
+    return batchGrouping;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public void setBatchGrouping(BatchGrouping batchGrouping) {
+    this.batchGrouping = batchGrouping;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public Integer getBatchFlushRows() {
+    return batchFlushRows;
+  }
+
+  /**
+   * Sets how many pending updates make the batch executor execute its batches before the next flush.
+   *
+   * @param batchFlushRows
+   *          the number of updates, or null to wait for the flush
+   * @since 3.5.3
+   */
+  public void setBatchFlushRows(Integer batchFlushRows) {
+    this.batchFlushRows = batchFlushRows;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public Integer getBatchFlushBytes() {
+    return batchFlushBytes;
+  }
+
+  /**
+   * Sets how many bytes of pending parameter values, as roughly estimated from their types, make the batch executor
+   * execute its batches before the next flush.
+   *
+   * @param batchFlushBytes
+   *          the number of bytes, or null to wait for the flush
+   * @since 3.5.3
+   */
+  public void setBatchFlushBytes(Integer batchFlushBytes) {
+    this.batchFlushBytes = batchFlushBytes;
+  }
+
   public JdbcType getJdbcTypeForNull() {
     return jdbcTypeForNull;
   }
@@ -577,20 +1050,23 @@ public class Configuration {
 
   public ParameterHandler newParameterHandler(MappedStatement mappedStatement, Object parameterObject, BoundSql boundSql) {
     ParameterHandler parameterHandler = mappedStatement.getLang().createParameterHandler(mappedStatement, parameterObject, boundSql);
-    parameterHandler = (ParameterHandler) interceptorChain.pluginAll(parameterHandler);
+    parameterHandler = (ParameterHandler) pluginAll(parameterHandler);
     return parameterHandler;
   }
 
   public ResultSetHandler newResultSetHandler(Executor executor, MappedStatement mappedStatement, RowBounds rowBounds, ParameterHandler parameterHandler,
       ResultHandler resultHandler, BoundSql boundSql) {
     ResultSetHandler resultSetHandler = new DefaultResultSetHandler(executor, mappedStatement, parameterHandler, resultHandler, boundSql, rowBounds);
-    resultSetHandler = (ResultSetHandler) interceptorChain.pluginAll(resultSetHandler);
+    resultSetHandler = (ResultSetHandler) pluginAll(resultSetHandler);
     return resultSetHandler;
   }
 
   public StatementHandler newStatementHandler(Executor executor, MappedStatement mappedStatement, Object parameterObject, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) {
     StatementHandler statementHandler = new RoutingStatementHandler(executor, mappedStatement, parameterObject, rowBounds, resultHandler, boundSql);
-    statementHandler = (StatementHandler) interceptorChain.pluginAll(statementHandler);
+    if (lightweightSqlLoggingEnabled) {
+      statementHandler = StatementHandlerLogger.newInstance(statementHandler, this, mappedStatement.getStatementLog());
+    }
+    statementHandler = (StatementHandler) pluginAll(statementHandler);
     return statementHandler;
   }
 
@@ -612,7 +1088,7 @@ public class Configuration {
     if (cacheEnabled) {
       executor = new CachingExecutor(executor);
     }
-    executor = (Executor) interceptorChain.pluginAll(executor);
+    executor = (Executor) pluginAll(executor);
     return executor;
   }
 
@@ -755,10 +1231,42 @@ public class Configuration {
     return mappedStatements.get(id);
   }
 
+  /**
+   * Returns the statement that counts the rows selected by the given statement, with the same parameters.
+   * <p>
+   * Its id is the id of the given statement followed by <code>_COUNT</code> and it shares the cache of the given
+   * statement.
+   *
+   * @param ms
+   *          a select statement
+   * @return the count statement, created on first use
+   * @since 3.5.3
+   */
+  public MappedStatement getCountStatement(MappedStatement ms) {
+    return countStatements.computeIfAbsent(ms.getId(), id -> {
+      String countId = id + "_COUNT";
+      ResultMap resultMap = new ResultMap.Builder(this, countId + "-Inline", Long.class, new ArrayList<>(), null).build();
+      return new MappedStatement.Builder(this, countId, new CountSqlSource(ms), SqlCommandType.SELECT)
+          .resource(ms.getResource())
+          .statementType(ms.getStatementType())
+          .timeout(ms.getTimeout())
+          .databaseId(ms.getDatabaseId())
+          .resultMaps(Collections.singletonList(resultMap))
+          .flushCacheRequired(ms.isFlushCacheRequired())
+          .useCache(ms.isUseCache())
+          .cache(ms.getCache())
+          .build();
+    });
+  }
+
   public Map<String, XNode> getSqlFragments() {
     return sqlFragments;
   }
 
+  private Object pluginAll(Object target) {
+    return composedPluginsEnabled ? interceptorChain.composeAll(target) : interceptorChain.pluginAll(target);
+  }
+
   public void addInterceptor(Interceptor interceptor) {
     interceptorChain.addInterceptor(interceptor);
   }
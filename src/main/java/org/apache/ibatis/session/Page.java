@@ -0,0 +1,81 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.reflection.MetaObject;
+
+/**
+ * A page of results selected with a {@link Seek}.
+ *
+ * @param <E>
+ *          the type of the results
+ * @since 3.5.3
+ */
+public class Page<E> {
+
+  private final List<E> items;
+  private final Seek nextSeek;
+
+  public Page(List<E> items, Seek nextSeek) {
+    this.items = items;
+    this.nextSeek = nextSeek;
+  }
+
+  /**
+   * Returns the page of the rows selected with a seek, which selects one row more than the size of the page to tell
+   * whether a next page follows. The seek of the next page is positioned after the key values of the last item.
+   *
+   * @param configuration
+   *          the configuration that reads the key properties of the items
+   * @param seek
+   *          the seek of the rows
+   * @param rows
+   *          the rows selected with the seek
+   * @return the page of the rows
+   */
+  public static <E> Page<E> of(Configuration configuration, Seek seek, List<E> rows) {
+    if (rows.size() <= seek.getSize()) {
+      return new Page<>(rows, null);
+    }
+    List<E> items = new ArrayList<>(rows.subList(0, seek.getSize()));
+    MetaObject last = configuration.newMetaObject(items.get(items.size() - 1));
+    List<Seek.Key> keys = seek.getKeys();
+    Object[] values = new Object[keys.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = last.getValue(keys.get(i).getProperty());
+    }
+    return new Page<>(items, seek.after(values));
+  }
+
+  public List<E> getItems() {
+    return items;
+  }
+
+  /**
+   * Returns the seek of the next page, or null if this page is the last one.
+   */
+  public Seek getNextSeek() {
+    return nextSeek;
+  }
+
+  public boolean hasNext() {
+    return nextSeek != null;
+  }
+
+}
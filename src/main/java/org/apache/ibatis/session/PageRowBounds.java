@@ -0,0 +1,45 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+/**
+ * Row bounds of a page that also requests the total number of rows of the select.
+ * <p>
+ * When a list is selected with these bounds, a companion count query is run first and its result is made available
+ * through {@link #getTotal()}.
+ *
+ * @since 3.5.3
+ */
+public class PageRowBounds extends RowBounds {
+
+  private Long total;
+
+  public PageRowBounds(int offset, int limit) {
+    super(offset, limit);
+  }
+
+  /**
+   * Returns the total number of rows of the select, or null if it was not run yet.
+   */
+  public Long getTotal() {
+    return total;
+  }
+
+  public void setTotal(Long total) {
+    this.total = total;
+  }
+
+}
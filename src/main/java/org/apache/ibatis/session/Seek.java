@@ -0,0 +1,178 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Position and size of a page of a select that is paged by keyset, also known as seek pagination.
+ * <p>
+ * Instead of skipping rows, a page is selected by comparing its keys with the keys of the last row of the previous
+ * page, so that every page costs the same whatever its depth. The keys must identify the rows uniquely and must not
+ * be null, e.g. a creation date followed by the primary key:
+ *
+ * <pre>
+ * Page&lt;Post&gt; page = mapper.selectPosts(blogId, Seek.first(20).descending("created_on", "createdOn").ascending("id"));
+ * page = mapper.selectPosts(blogId, page.getNextSeek());
+ * </pre>
+ *
+ * The key columns are labels of the columns selected by the statement and are written into the SQL as is. The
+ * statement itself should not order its rows, as the page is ordered by its keys.
+ *
+ * @since 3.5.3
+ * @see Page
+ */
+public final class Seek {
+
+  private final int size;
+  private final List<Key> keys;
+  private final List<Object> values;
+
+  private Seek(int size, List<Key> keys, List<Object> values) {
+    this.size = size;
+    this.keys = keys;
+    this.values = values;
+  }
+
+  /**
+   * Returns the first page of the given size, before any key is added.
+   */
+  public static Seek first(int size) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("The size of a page must be positive but was " + size);
+    }
+    return new Seek(size, Collections.emptyList(), null);
+  }
+
+  public Seek ascending(String column) {
+    return ascending(column, column);
+  }
+
+  /**
+   * Returns this seek with one more key, ordered ascending.
+   *
+   * @param column
+   *          the label of the key column
+   * @param property
+   *          the property of the result objects holding the key
+   * @return the new seek
+   */
+  public Seek ascending(String column, String property) {
+    return withKey(new Key(column, property, false));
+  }
+
+  public Seek descending(String column) {
+    return descending(column, column);
+  }
+
+  /**
+   * Returns this seek with one more key, ordered descending.
+   *
+   * @param column
+   *          the label of the key column
+   * @param property
+   *          the property of the result objects holding the key
+   * @return the new seek
+   */
+  public Seek descending(String column, String property) {
+    return withKey(new Key(column, property, true));
+  }
+
+  /**
+   * Returns the page following the row with the given keys.
+   *
+   * @param values
+   *          the values of the keys of the last row of the previous page, in the order of the keys
+   * @return the new seek
+   */
+  public Seek after(Object... values) {
+    if (values.length != keys.size()) {
+      throw new IllegalArgumentException("Expected " + keys.size() + " key values but got " + values.length);
+    }
+    return new Seek(size, keys, Collections.unmodifiableList(Arrays.asList(values.clone())));
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public List<Key> getKeys() {
+    return keys;
+  }
+
+  /**
+   * Returns the key values of the row preceding the page, or null for the first page.
+   */
+  public List<Object> getValues() {
+    return values;
+  }
+
+  public boolean isFirst() {
+    return values == null;
+  }
+
+  private Seek withKey(Key key) {
+    if (values != null) {
+      throw new IllegalStateException("Keys cannot be added after the key values");
+    }
+    List<Key> newKeys = new ArrayList<>(keys);
+    newKeys.add(key);
+    return new Seek(size, Collections.unmodifiableList(newKeys), null);
+  }
+
+  @Override
+  public String toString() {
+    return "Seek{size=" + size + ", keys=" + keys + ", values=" + values + "}";
+  }
+
+  public static final class Key {
+
+    private final String column;
+    private final String property;
+    private final boolean descending;
+
+    Key(String column, String property, boolean descending) {
+      if (column == null || property == null) {
+        throw new IllegalArgumentException("A key needs a column and a property");
+      }
+      this.column = column;
+      this.property = property;
+      this.descending = descending;
+    }
+
+    public String getColumn() {
+      return column;
+    }
+
+    public String getProperty() {
+      return property;
+    }
+
+    public boolean isDescending() {
+      return descending;
+    }
+
+    @Override
+    public String toString() {
+      return column + (descending ? " desc" : " asc");
+    }
+
+  }
+
+}
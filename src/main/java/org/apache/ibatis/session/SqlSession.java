@@ -22,6 +22,7 @@ import java.util.Map;
 
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.pagination.SeekRowBounds;
 
 /**
  * The primary Java interface for working with MyBatis.
@@ -143,6 +144,20 @@ public interface SqlSession extends Closeable {
    */
   <T> Cursor<T> selectCursor(String statement, Object parameter, RowBounds rowBounds);
 
+  /**
+   * Retrieve a page of mapped objects selected by keyset, along with the seek of the next page.
+   * @param <E> the returned page element type
+   * @param statement Unique identifier matching the statement to use.
+   * @param parameter A parameter object to pass to the statement.
+   * @param seek  The keys and the position of the page
+   * @return Page of mapped objects
+   * @since 3.5.3
+   */
+  default <E> Page<E> selectPage(String statement, Object parameter, Seek seek) {
+    List<E> rows = selectList(statement, parameter, new SeekRowBounds(seek));
+    return Page.of(getConfiguration(), seek, rows);
+  }
+
   /**
    * Retrieve a single row mapped from the statement key and parameter
    * using a {@code ResultHandler}.
@@ -196,6 +196,11 @@ public class SqlSessionManager implements SqlSessionFactory, SqlSession {
     return sqlSessionProxy.selectCursor(statement, parameter, rowBounds);
   }
 
+  @Override
+  public <E> Page<E> selectPage(String statement, Object parameter, Seek seek) {
+    return sqlSessionProxy.selectPage(statement, parameter, seek);
+  }
+
   @Override
   public <E> List<E> selectList(String statement) {
     return sqlSessionProxy.selectList(statement);
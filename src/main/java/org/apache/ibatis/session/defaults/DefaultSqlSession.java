@@ -31,12 +31,16 @@ import org.apache.ibatis.exceptions.TooManyResultsException;
 import org.apache.ibatis.executor.BatchResult;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.pagination.SeekRowBounds;
 import org.apache.ibatis.executor.result.DefaultMapResultHandler;
 import org.apache.ibatis.executor.result.DefaultResultContext;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.Page;
+import org.apache.ibatis.session.PageRowBounds;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.Seek;
 import org.apache.ibatis.session.SqlSession;
 
 /**
@@ -130,6 +134,12 @@ public class DefaultSqlSession implements SqlSession {
     }
   }
 
+  @Override
+  public <E> Page<E> selectPage(String statement, Object parameter, Seek seek) {
+    List<E> rows = this.selectList(statement, parameter, new SeekRowBounds(seek));
+    return Page.of(configuration, seek, rows);
+  }
+
   @Override
   public <E> List<E> selectList(String statement) {
     return this.selectList(statement, null);
@@ -144,7 +154,12 @@ public class DefaultSqlSession implements SqlSession {
   public <E> List<E> selectList(String statement, Object parameter, RowBounds rowBounds) {
     try {
       MappedStatement ms = configuration.getMappedStatement(statement);
-      return executor.query(ms, wrapCollection(parameter), rowBounds, Executor.NO_RESULT_HANDLER);
+      Object parameterObject = wrapCollection(parameter);
+      if (rowBounds instanceof PageRowBounds) {
+        List<Long> total = executor.query(configuration.getCountStatement(ms), parameterObject, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+        ((PageRowBounds) rowBounds).setTotal(total.get(0));
+      }
+      return executor.query(ms, parameterObject, rowBounds, Executor.NO_RESULT_HANDLER);
     } catch (Exception e) {
       throw ExceptionFactory.wrapException("Error querying database.  Cause: " + e, e);
     } finally {
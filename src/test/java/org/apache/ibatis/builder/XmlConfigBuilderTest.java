@@ -25,6 +25,7 @@ import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.ibatis.builder.mapper.CustomMapper;
 import org.apache.ibatis.builder.typehandler.CustomIntegerTypeHandler;
@@ -37,6 +38,9 @@ import org.apache.ibatis.domain.blog.mappers.NestedBlogMapper;
 import org.apache.ibatis.domain.jpetstore.Cart;
 import org.apache.ibatis.executor.loader.cglib.CglibProxyFactory;
 import org.apache.ibatis.executor.loader.javassist.JavassistProxyFactory;
+import org.apache.ibatis.executor.metrics.DefaultStatementMetrics;
+import org.apache.ibatis.executor.pagination.LimitOffsetDialect;
+import org.apache.ibatis.executor.pagination.OffsetFetchDialect;
 import org.apache.ibatis.io.JBoss6VFS;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.logging.slf4j.Slf4jImpl;
@@ -46,6 +50,8 @@ import org.apache.ibatis.scripting.defaults.RawLanguageDriver;
 import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.AutoMappingUnknownColumnBehavior;
+import org.apache.ibatis.session.AsyncSessionScope;
+import org.apache.ibatis.session.BatchGrouping;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.LocalCacheScope;
@@ -91,11 +97,33 @@ class XmlConfigBuilderTest {
       assertThat(config.isMapUnderscoreToCamelCase()).isFalse();
       assertThat(config.isSafeRowBoundsEnabled()).isFalse();
       assertThat(config.getLocalCacheScope()).isEqualTo(LocalCacheScope.SESSION);
+      assertThat(config.getBatchGrouping()).isEqualTo(BatchGrouping.CONSECUTIVE);
+      assertNull(config.getBatchFlushRows());
+      assertNull(config.getBatchFlushBytes());
       assertThat(config.getJdbcTypeForNull()).isEqualTo(JdbcType.OTHER);
       assertThat(config.getLazyLoadTriggerMethods()).isEqualTo(new HashSet<>(Arrays.asList("equals", "clone", "hashCode", "toString")));
       assertThat(config.isSafeResultHandlerEnabled()).isTrue();
       assertThat(config.getDefaultScriptingLanuageInstance()).isInstanceOf(XMLLanguageDriver.class);
       assertThat(config.isCallSettersOnNulls()).isFalse();
+      assertThat(config.isCompiledRowMappingEnabled()).isFalse();
+      assertThat(config.isDynamicSqlShortcutsEnabled()).isFalse();
+      assertThat(config.isCompiledParameterBindingEnabled()).isFalse();
+      assertThat(config.isComposedPluginsEnabled()).isFalse();
+      assertThat(config.isColumnIndexMappingEnabled()).isFalse();
+      assertThat(config.isLightweightSqlLoggingEnabled()).isFalse();
+      assertThat(config.isPaginationEnabled()).isFalse();
+      assertThat(config.isAdaptiveFetchSizeEnabled()).isFalse();
+      assertThat(config.isTableCacheInvalidationEnabled()).isFalse();
+      assertThat(config.getDynamicSqlCacheSize()).isEqualTo(0);
+      assertThat(config.getBatchLoadSize()).isEqualTo(500);
+      assertThat(config.getSqlLogSamplingInterval()).isEqualTo(1);
+      assertThat(config.getStatementMetrics()).isNull();
+      assertThat(config.getPaginationDialect()).isInstanceOf(OffsetFetchDialect.class);
+      assertThat(config.getMinAdaptiveFetchSize()).isEqualTo(10);
+      assertThat(config.getMaxAdaptiveFetchSize()).isEqualTo(1000);
+      assertThat(config.getAdaptiveFetchMemoryBudget()).isEqualTo(4 * 1024 * 1024);
+      assertThat(config.getAsyncExecutor()).isNull();
+      assertThat(config.getAsyncSessionScope()).isEqualTo(AsyncSessionScope.NONE);
       assertNull(config.getLogPrefix());
       assertNull(config.getLogImpl());
       assertNull(config.getConfigurationFactory());
@@ -185,11 +213,33 @@ class XmlConfigBuilderTest {
       assertThat(config.isMapUnderscoreToCamelCase()).isTrue();
       assertThat(config.isSafeRowBoundsEnabled()).isTrue();
       assertThat(config.getLocalCacheScope()).isEqualTo(LocalCacheScope.STATEMENT);
+      assertThat(config.getBatchGrouping()).isEqualTo(BatchGrouping.TABLE);
+      assertThat(config.getBatchFlushRows()).isEqualTo(1000);
+      assertThat(config.getBatchFlushBytes()).isEqualTo(1048576);
       assertThat(config.getJdbcTypeForNull()).isEqualTo(JdbcType.NULL);
       assertThat(config.getLazyLoadTriggerMethods()).isEqualTo(new HashSet<>(Arrays.asList("equals", "clone", "hashCode", "toString", "xxx")));
       assertThat(config.isSafeResultHandlerEnabled()).isFalse();
       assertThat(config.getDefaultScriptingLanuageInstance()).isInstanceOf(RawLanguageDriver.class);
       assertThat(config.isCallSettersOnNulls()).isTrue();
+      assertThat(config.isCompiledRowMappingEnabled()).isTrue();
+      assertThat(config.isDynamicSqlShortcutsEnabled()).isTrue();
+      assertThat(config.isCompiledParameterBindingEnabled()).isTrue();
+      assertThat(config.isComposedPluginsEnabled()).isTrue();
+      assertThat(config.isColumnIndexMappingEnabled()).isTrue();
+      assertThat(config.isLightweightSqlLoggingEnabled()).isTrue();
+      assertThat(config.isPaginationEnabled()).isTrue();
+      assertThat(config.isAdaptiveFetchSizeEnabled()).isTrue();
+      assertThat(config.isTableCacheInvalidationEnabled()).isTrue();
+      assertThat(config.getDynamicSqlCacheSize()).isEqualTo(64);
+      assertThat(config.getBatchLoadSize()).isEqualTo(200);
+      assertThat(config.getSqlLogSamplingInterval()).isEqualTo(100);
+      assertThat(config.getStatementMetrics()).isInstanceOf(DefaultStatementMetrics.class);
+      assertThat(config.getPaginationDialect()).isInstanceOf(LimitOffsetDialect.class);
+      assertThat(config.getMinAdaptiveFetchSize()).isEqualTo(50);
+      assertThat(config.getMaxAdaptiveFetchSize()).isEqualTo(5000);
+      assertThat(config.getAdaptiveFetchMemoryBudget()).isEqualTo(1048576);
+      assertThat(config.getAsyncExecutor()).isInstanceOf(ForkJoinPool.class);
+      assertThat(config.getAsyncSessionScope()).isEqualTo(AsyncSessionScope.COMMITTED_SESSION);
       assertThat(config.getLogPrefix()).isEqualTo("mybatis_");
       assertThat(config.getLogImpl().getName()).isEqualTo(Slf4jImpl.class.getName());
       assertThat(config.getVfsImpl().getName()).isEqualTo(JBoss6VFS.class.getName());
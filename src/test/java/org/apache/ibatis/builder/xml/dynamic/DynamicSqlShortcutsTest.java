@@ -0,0 +1,140 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.xml.dynamic;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class DynamicSqlShortcutsTest {
+
+  private static final String SCRIPT = "<script>select * from author"
+      + "<where>"
+      + "<if test=\"id != null and username != null\">id = #{id} and username = #{username}</if>"
+      + "<if test=\"email == null || password!=null\">and password = #{password}</if>"
+      + "<if test=\"id != null and id > 0\">and id &gt; #{id, jdbcType=INTEGER}</if>"
+      + "<choose>"
+      + "<when test=\"bio != null\">and bio = #{bio}</when>"
+      + "<otherwise>and bio is null</otherwise>"
+      + "</choose>"
+      + "<bind name=\"pattern\" value=\"'%' + username + '%'\" />"
+      + "<if test=\"pattern != null\">and username like #{pattern}</if>"
+      + "</where></script>";
+
+  private static final String FOREACH_SCRIPT = "<script>select * from author where 1 = 1"
+      + "<if test=\"id != null\">and id = #{id}</if>"
+      + "<if test=\"ids != null\">and id in "
+      + "<foreach collection=\"ids\" item=\"item\" open=\"(\" separator=\",\" close=\")\">#{item}</foreach>"
+      + "</if></script>";
+
+  @Test
+  void shouldGenerateSameSqlForBean() {
+    assertSameSql(SCRIPT, new Author(1, "jim", "secret", null, "bio", null), Author.class);
+    assertSameSql(SCRIPT, new Author(-1, "sally", null, "sally@ibatis.apache.org", null, null), Author.class);
+  }
+
+  @Test
+  void shouldGenerateSameSqlForMap() {
+    Map<String, Object> param = new HashMap<>();
+    param.put("id", 3);
+    param.put("username", "sally");
+    param.put("ids", Arrays.asList(1, 2, 3));
+    assertSameSql(FOREACH_SCRIPT, param, Map.class);
+    param.put("email", "sally@ibatis.apache.org");
+    param.put("ids", Arrays.asList(4, 5));
+    param.put("bio", "bio");
+    assertSameSql(SCRIPT, param, Map.class);
+    assertSameSql(FOREACH_SCRIPT, param, Map.class);
+  }
+
+  @Test
+  void shouldFindMapEntriesThroughParameterObject() {
+    Map<String, Object> param = new HashMap<>();
+    param.put("name", "sally");
+    String script = "<script>select * from author where 1 = 1"
+        + "<if test=\"name != null\">and username = #{name}</if>"
+        + "<if test=\"_parameter != null and missing == null\">and id is not null</if>"
+        + "</script>";
+    for (int i = 0; i < 2; i++) {
+      assertEquals(getBoundSql(script, param, Map.class, false).getSql(),
+          getBoundSql(script, param, Map.class, true).getSql());
+    }
+    assertEquals("select * from author where 1 = 1 and username = ? and id is not null",
+        getBoundSql(script, param, Map.class, true).getSql());
+  }
+
+  @Test
+  void shouldReportMissingPropertyLikeOgnl() {
+    String script = "<script>select * from author<if test=\"unknown != null\">where id = #{id}</if></script>";
+    Author author = new Author(1);
+    Exception classic = assertThrows(RuntimeException.class, () -> getBoundSql(script, author, Author.class, false));
+    Exception shortcut = assertThrows(RuntimeException.class, () -> getBoundSql(script, author, Author.class, true));
+    assertEquals(classic.getClass(), shortcut.getClass());
+    assertEquals(classic.getMessage(), shortcut.getMessage());
+  }
+
+  @Test
+  void shouldKeepParsingExpressionsThatAreNotNullChecks() {
+    String script = "<script>select * from author where 1 = 1"
+        + "<if test=\"null != username\">and username = #{username}</if>"
+        + "<if test=\"username != null and\">and 1 = 0</if>"
+        + "</script>";
+    Author author = new Author(1, "jim", null, null, null, null);
+    Exception e = assertThrows(RuntimeException.class, () -> getBoundSql(script, author, Author.class, true));
+    assertTrue(e.getMessage().contains("username != null and"));
+  }
+
+  private void assertSameSql(String script, Object parameterObject, Class<?> parameterType) {
+    BoundSql expected = getBoundSql(script, parameterObject, parameterType, false);
+    // the second call reuses the cached parameter mappings
+    for (int i = 0; i < 2; i++) {
+      BoundSql actual = getBoundSql(script, parameterObject, parameterType, true);
+      assertEquals(expected.getSql(), actual.getSql());
+      assertEquals(describe(expected.getParameterMappings()), describe(actual.getParameterMappings()));
+    }
+  }
+
+  private final Map<Boolean, Map<String, SqlSource>> sqlSources = new HashMap<>();
+
+  private BoundSql getBoundSql(String script, Object parameterObject, Class<?> parameterType, boolean shortcuts) {
+    SqlSource sqlSource = sqlSources.computeIfAbsent(shortcuts, k -> new HashMap<>()).computeIfAbsent(script, k -> {
+      Configuration configuration = new Configuration();
+      configuration.setDynamicSqlShortcutsEnabled(shortcuts);
+      return new XMLLanguageDriver().createSqlSource(configuration, script, parameterType);
+    });
+    return sqlSource.getBoundSql(parameterObject);
+  }
+
+  private static List<String> describe(List<ParameterMapping> parameterMappings) {
+    return parameterMappings.stream()
+        .map(p -> p.getProperty() + ":" + p.getJavaType().getName() + ":" + p.getJdbcType() + ":"
+            + p.getTypeHandler().getClass().getName())
+        .collect(Collectors.toList());
+  }
+
+}
@@ -16,12 +16,14 @@
 package org.apache.ibatis.builder.xml.dynamic;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import java.io.IOException;
 import java.io.Reader;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -390,6 +392,51 @@ class DynamicSqlSourceTest extends BaseDataTest {
     return new MixedSqlNode(Arrays.asList(contents));
   }
 
+  @Test
+  void shouldReuseParsedSqlForSameGeneratedSql() {
+    Configuration configuration = new Configuration();
+    configuration.setDynamicSqlCacheSize(2);
+    DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(new TextSqlNode("SELECT * FROM BLOG"),
+        new WhereSqlNode(configuration, mixedContents(
+            new IfSqlNode(mixedContents(new TextSqlNode("AND ID = #{id}")), "id != null"),
+            new IfSqlNode(mixedContents(new TextSqlNode("AND NAME = #{name}")), "name != null")))));
+    Map<String, Object> byId = new HashMap<>();
+    byId.put("id", 1);
+    Map<String, Object> byName = new HashMap<>();
+    byName.put("name", "jim");
+    BoundSql first = source.getBoundSql(byId);
+    BoundSql second = source.getBoundSql(byId);
+    assertEquals("SELECT * FROM BLOG WHERE  ID = ?", second.getSql());
+    assertSame(first.getParameterMappings(), second.getParameterMappings());
+    assertEquals(1, source.getCacheHitCount());
+    assertEquals(1, source.getCacheMissCount());
+    assertEquals("SELECT * FROM BLOG WHERE  NAME = ?", source.getBoundSql(byName).getSql());
+    source.getBoundSql(Collections.emptyMap());
+    // the least recently used SQL was evicted
+    source.getBoundSql(byId);
+    assertEquals(1, source.getCacheHitCount());
+    assertEquals(4, source.getCacheMissCount());
+    source.getBoundSql(byId);
+    assertEquals(2, source.getCacheHitCount());
+    assertEquals(2.0 / 6, source.getCacheHitRatio(), 0.001);
+  }
+
+  @Test
+  void shouldParseAgainWhenBoundParameterTypeChanges() {
+    Configuration configuration = new Configuration();
+    configuration.setDynamicSqlCacheSize(10);
+    DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(new TextSqlNode("SELECT * FROM BLOG WHERE ID IN "),
+        new ForEachSqlNode(configuration, mixedContents(new TextSqlNode("#{item}")), "list", null, "item", "(", ")", ",")));
+    Map<String, Object> param = new HashMap<>();
+    param.put("list", Arrays.asList(1, 2));
+    assertEquals(Integer.class, source.getBoundSql(param).getParameterMappings().get(0).getJavaType());
+    param.put("list", Arrays.asList("1", "2"));
+    assertEquals(String.class, source.getBoundSql(param).getParameterMappings().get(0).getJavaType());
+    assertEquals(0, source.getCacheHitCount());
+    assertEquals(String.class, source.getBoundSql(param).getParameterMappings().get(0).getJavaType());
+    assertEquals(1, source.getCacheHitCount());
+  }
+
   @Test
   void shouldMapNullStringsToEmptyStrings() {
     final String expected = "id=${id}";
@@ -17,6 +17,11 @@ package org.apache.ibatis.cache;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -87,6 +92,39 @@ class CacheKeyTest {
     assertEquals(key1, key2);
   }
 
+  @Test
+  void shouldCopyPrefixWithoutChangingIt() {
+    CacheKey prefix = new CacheKey(new Object[] { "statement", 0, Integer.MAX_VALUE });
+    CacheKey key1 = new CacheKey(prefix, 2);
+    key1.update("sql");
+    key1.update(1);
+    CacheKey key2 = new CacheKey(new Object[] { "statement", 0, Integer.MAX_VALUE, "sql", 1 });
+    assertEquals(key1, key2);
+    assertEquals(key2, key1);
+    assertEquals(key1.hashCode(), key2.hashCode());
+    assertEquals(key1.toString(), key2.toString());
+    assertEquals(3, prefix.getUpdateCount());
+    assertEquals(new CacheKey(new Object[] { "statement", 0, Integer.MAX_VALUE }), prefix);
+  }
+
+  @Test
+  void shouldCreateSameKeyFromMappedStatementPrefix() {
+    Configuration configuration = new Configuration();
+    MappedStatement ms = new MappedStatement.Builder(configuration, "select",
+        new StaticSqlSource(configuration, "select 1"), SqlCommandType.SELECT).build();
+    CacheKey expected = new CacheKey(new Object[] { "select", 0, RowBounds.NO_ROW_LIMIT, "select 1", "value" });
+    for (int i = 0; i < 2; i++) {
+      CacheKey key = ms.newCacheKey(RowBounds.DEFAULT, "select 1", 1);
+      key.update("value");
+      assertEquals(expected, key);
+      assertEquals(expected.toString(), key.toString());
+    }
+    CacheKey otherSql = ms.newCacheKey(RowBounds.DEFAULT, "select 2", 0);
+    assertEquals(new CacheKey(new Object[] { "select", 0, RowBounds.NO_ROW_LIMIT, "select 2" }), otherSql);
+    CacheKey otherRowBounds = ms.newCacheKey(new RowBounds(10, 5), "select 1", 0);
+    assertEquals(new CacheKey(new Object[] { "select", 10, 5, "select 1" }), otherRowBounds);
+  }
+
   @Test
   void serializationExceptionTest() {
     CacheKey cacheKey = new CacheKey();
@@ -0,0 +1,134 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.cache.decorators.CoalescingCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.cache.impl.TinyLfuCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.junit.jupiter.api.Test;
+
+class CoalescingCacheTest {
+
+  @Test
+  void shouldLetOnlyOneThreadLoadAMissingKey() throws Exception {
+    CoalescingCache cache = new CoalescingCache(new PerpetualCache("default"));
+    AtomicInteger loads = new AtomicInteger();
+    int threads = 8;
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Object>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          Object value = cache.getObject("key");
+          if (value == null) {
+            loads.incrementAndGet();
+            Thread.sleep(100);
+            value = "value";
+            cache.putObject("key", value);
+          }
+          return value;
+        }));
+      }
+      start.countDown();
+      for (Future<Object> future : futures) {
+        assertEquals("value", future.get(10, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(1, loads.get());
+    assertTrue(getLoads(cache).isEmpty());
+  }
+
+  @Test
+  void shouldHandOverLoadWhenLoaderReleasesKey() throws Exception {
+    CoalescingCache cache = new CoalescingCache(new PerpetualCache("default"));
+    assertNull(cache.getObject("key"));
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Object> waiting = executor.submit(() -> cache.getObject("key"));
+      Thread.sleep(100);
+      assertFalse(waiting.isDone());
+      cache.removeObject("key");
+      assertNull(waiting.get(10, TimeUnit.SECONDS));
+      // the waiting thread is now the loader
+      assertEquals(1, getLoads(cache).size());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void shouldNotWaitForOwnLoad() {
+    CoalescingCache cache = new CoalescingCache(new PerpetualCache("default"));
+    assertNull(cache.getObject("key"));
+    assertNull(cache.getObject("key"));
+    cache.putObject("key", "value");
+    assertEquals("value", cache.getObject("key"));
+    assertTrue(getLoads(cache).isEmpty());
+  }
+
+  @Test
+  void shouldFailWhenWaitingLongerThanTimeout() throws Exception {
+    CoalescingCache cache = new CoalescingCache(new PerpetualCache("default"));
+    cache.setTimeout(50);
+    assertNull(cache.getObject("key"));
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Object> waiting = executor.submit(() -> cache.getObject("key"));
+      Exception e = assertThrows(Exception.class, () -> waiting.get(10, TimeUnit.SECONDS));
+      assertTrue(e.getCause() instanceof CacheException);
+    } finally {
+      executor.shutdownNow();
+    }
+    cache.removeObject("key");
+    assertTrue(getLoads(cache).isEmpty());
+  }
+
+  @Test
+  void shouldBeBuiltWhenCoalescingIsEnabled() {
+    Properties props = new Properties();
+    props.setProperty("timeout", "500");
+    Cache cache = new CacheBuilder("default").coalescing(true).blocking(true).properties(props).build();
+    assertTrue(cache instanceof CoalescingCache);
+    assertEquals(500L, ((CoalescingCache) cache).getTimeout());
+    Cache customCache = new CacheBuilder("default").implementation(TinyLfuCache.class).coalescing(true).build();
+    assertTrue(customCache instanceof CoalescingCache);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<Object, Object> getLoads(CoalescingCache cache) {
+    return (Map<Object, Object>) SystemMetaObject.forObject(cache).getValue("loads");
+  }
+
+}
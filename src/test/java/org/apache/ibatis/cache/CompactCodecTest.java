@@ -0,0 +1,156 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.cache.codec.CacheCodec;
+import org.apache.ibatis.cache.codec.CompactCodec;
+import org.junit.jupiter.api.Test;
+
+class CompactCodecTest {
+
+  private final CacheCodec codec = new CompactCodec();
+
+  @Test
+  void shouldCopyResultObjects() throws IOException {
+    Blog blog = new Blog(1, "Blog1", Status.PUBLISHED);
+    blog.rating = new BigDecimal("4.50");
+    blog.created = new Timestamp(1546300800123L);
+    blog.created.setNanos(123456789);
+    blog.tags.put("lang", "java");
+    blog.posts.add(new Post(blog, 10L, new byte[] {1, 2, 3}));
+    blog.posts.add(new Post(blog, 11L, null));
+
+    @SuppressWarnings("unchecked")
+    List<Blog> copy = (List<Blog>) roundTrip(new ArrayList<>(Arrays.asList(blog, blog)));
+    Blog copied = copy.get(0);
+    assertNotSame(blog, copied);
+    assertSame(copied, copy.get(1));
+    assertEquals(1, copied.id);
+    assertEquals("Blog1", copied.title);
+    assertEquals(Status.PUBLISHED, copied.status);
+    assertEquals(new BigDecimal("4.50"), copied.rating);
+    assertEquals(blog.created, copied.created);
+    assertEquals(blog.tags, copied.tags);
+    assertEquals(2, copied.posts.size());
+    assertSame(copied, copied.posts.get(0).blog);
+    assertEquals(10L, copied.posts.get(0).id);
+    assertArrayEquals(new byte[] {1, 2, 3}, copied.posts.get(0).content);
+    assertNull(copied.posts.get(1).content);
+  }
+
+  @Test
+  void shouldBeSmallerThanJavaSerialization() throws IOException {
+    List<Blog> blogs = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      blogs.add(new Blog(i, "Blog" + i, Status.DRAFT));
+    }
+    ByteArrayOutputStream compact = new ByteArrayOutputStream();
+    codec.encode(blogs, compact);
+    ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(serialized)) {
+      oos.writeObject(blogs);
+    }
+    assertTrue(compact.size() * 2 < serialized.size(), compact.size() + " bytes instead of " + serialized.size());
+  }
+
+  @Test
+  void shouldSerializeObjectsWithoutDefaultConstructor() throws IOException {
+    Map<String, Object> row = new HashMap<>();
+    row.put("author", new Author("jim"));
+    @SuppressWarnings("unchecked")
+    Map<String, Object> copy = (Map<String, Object>) roundTrip(row);
+    assertEquals("jim", ((Author) copy.get("author")).name);
+  }
+
+  @Test
+  void shouldRejectNonSerializableObjects() {
+    CacheException e = assertThrows(CacheException.class,
+        () -> codec.encode(new ArrayList<>(Arrays.asList(new Object())), new ByteArrayOutputStream()));
+    assertTrue(e.getMessage().startsWith("CompactCodec could not encode"), e.getMessage());
+  }
+
+  private Object roundTrip(Object value) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    codec.encode(value, out);
+    return codec.decode(new ByteArrayInputStream(out.toByteArray()));
+  }
+
+  enum Status {
+    DRAFT, PUBLISHED
+  }
+
+  static class Blog implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private final int id;
+    private String title;
+    private Status status;
+    private BigDecimal rating;
+    private Timestamp created;
+    private final Map<String, String> tags = new HashMap<>();
+    private final List<Post> posts = new ArrayList<>();
+
+    private Blog() {
+      this(0, null, null);
+    }
+
+    Blog(int id, String title, Status status) {
+      this.id = id;
+      this.title = title;
+      this.status = status;
+    }
+  }
+
+  static class Post implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private Blog blog;
+    private long id;
+    private byte[] content;
+
+    Post() {
+    }
+
+    Post(Blog blog, long id, byte[] content) {
+      this.blog = blog;
+      this.id = id;
+      this.content = content;
+    }
+  }
+
+  static class Author implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private final String name;
+
+    Author(String name) {
+      this.name = name;
+    }
+  }
+
+}
@@ -0,0 +1,135 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.ibatis.cache.codec.SerializationCodec;
+import org.apache.ibatis.cache.decorators.LoggingCache;
+import org.apache.ibatis.cache.impl.OffHeapCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.junit.jupiter.api.Test;
+
+class OffHeapCacheTest {
+
+  @Test
+  void shouldReturnCopiesOfValues() {
+    OffHeapCache cache = new OffHeapCache("default");
+    List<String> value = Arrays.asList("a", "b");
+    cache.putObject("key", value);
+    assertEquals(value, cache.getObject("key"));
+    assertNotSame(cache.getObject("key"), cache.getObject("key"));
+    assertNull(cache.getObject("missing"));
+    assertEquals(1, cache.getSize());
+  }
+
+  @Test
+  void shouldEvictOldestEntriesWhenFull() throws Exception {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setSlabSize(1024);
+    cache.setCapacity(4096);
+    cache.initialize();
+    String value = new String(new char[100]).replace('\0', 'x');
+    for (int i = 0; i < 100; i++) {
+      cache.putObject(i, value + i);
+    }
+    // four slabs of nine entries, the last one being filled
+    assertTrue(cache.getSize() > 27 && cache.getSize() <= 36, "size was " + cache.getSize());
+    assertNull(cache.getObject(0));
+    assertEquals(value + 99, cache.getObject(99));
+  }
+
+  @Test
+  void shouldReplaceAndRemoveEntries() {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.putObject("key", 1);
+    cache.putObject("key", 2);
+    assertEquals(2, cache.getObject("key"));
+    cache.removeObject("key");
+    assertNull(cache.getObject("key"));
+    cache.putObject("key", null);
+    assertNull(cache.getObject("key"));
+    cache.putObject("other", 3);
+    cache.clear();
+    assertEquals(0, cache.getSize());
+    assertNull(cache.getObject("other"));
+  }
+
+  @Test
+  void shouldNotCacheValuesLargerThanSlab() throws Exception {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setSlabSize(64);
+    cache.setCapacity(128);
+    cache.initialize();
+    cache.putObject("key", new String(new char[100]));
+    assertNull(cache.getObject("key"));
+    assertEquals(0, cache.getSize());
+  }
+
+  @Test
+  void shouldMapSlabsFromFile() throws Exception {
+    Path directory = Files.createTempDirectory("mybatis");
+    try {
+      OffHeapCache cache = new OffHeapCache("default");
+      cache.setDirectory(directory.toString());
+      cache.setSlabSize(1024);
+      cache.setCapacity(2048);
+      cache.initialize();
+      for (int i = 0; i < 100; i++) {
+        cache.putObject(i, "value" + i);
+      }
+      assertEquals("value99", cache.getObject(99));
+      assertEquals(1, directory.toFile().list().length);
+      cache.initialize();
+      assertEquals(1, directory.toFile().list().length);
+      assertNull(cache.getObject(99));
+      cache.close();
+      assertEquals(0, directory.toFile().list().length);
+      cache.putObject(1, "value1");
+      assertEquals("value1", cache.getObject(1));
+      cache.close();
+      assertEquals(0, directory.toFile().list().length);
+    } finally {
+      for (File file : directory.toFile().listFiles()) {
+        file.delete();
+      }
+      directory.toFile().delete();
+    }
+  }
+
+  @Test
+  void shouldBeConfiguredByCacheBuilder() {
+    Properties properties = new Properties();
+    properties.setProperty("capacity", "8192");
+    properties.setProperty("slabSize", "1024");
+    properties.setProperty("codec", SerializationCodec.class.getName());
+    Cache cache = new CacheBuilder("default").implementation(OffHeapCache.class).properties(properties).build();
+    assertTrue(cache instanceof LoggingCache);
+    OffHeapCache offHeapCache = (OffHeapCache) SystemMetaObject.forObject(cache).getValue("delegate");
+    assertEquals(8192, offHeapCache.getCapacity());
+    cache.putObject("key", Arrays.asList(1, 2));
+    assertEquals(Arrays.asList(1, 2), cache.getObject("key"));
+  }
+
+}
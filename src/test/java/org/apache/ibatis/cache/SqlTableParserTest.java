@@ -0,0 +1,71 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+
+import org.junit.jupiter.api.Test;
+
+class SqlTableParserTest {
+
+  @Test
+  void shouldFindTablesOfJoins() {
+    assertEquals(new LinkedHashSet<>(Arrays.asList("BLOG", "AUTHOR")),
+        SqlTableParser.parseReadTables("select b.id, a.name from blog b inner join author a on a.id = b.author_id where b.id = ?"));
+  }
+
+  @Test
+  void shouldFindTablesOfCommaSeparatedList() {
+    assertEquals(new LinkedHashSet<>(Arrays.asList("BLOG", "AUTHOR", "POST")),
+        SqlTableParser.parseReadTables("SELECT * FROM blog AS b, \"app\".\"author\" a, post WHERE a.id = b.author_id"));
+  }
+
+  @Test
+  void shouldFindTablesOfSubqueries() {
+    assertEquals(new LinkedHashSet<>(Arrays.asList("COMMENT", "POST", "BLOG")),
+        SqlTableParser.parseReadTables("select * from (select post_id from comment) c, post p "
+            + "where p.blog_id in (select id from blog where title = 'from nowhere')"));
+  }
+
+  @Test
+  void shouldFindTablesOfWrites() {
+    assertEquals(Collections.singleton("BLOG"), SqlTableParser.parseWrittenTables("insert into blog (id, title) values (?, ?)"));
+    assertEquals(Collections.singleton("BLOG"), SqlTableParser.parseWrittenTables("insert into blog select * from draft"));
+    assertEquals(Collections.singleton("BLOG"), SqlTableParser.parseWrittenTables("update blog set title = ? where id in (select blog_id from post)"));
+    assertEquals(Collections.singleton("BLOG"), SqlTableParser.parseWrittenTables("delete from blog where id = ?"));
+    assertEquals(Collections.singleton("BLOG"), SqlTableParser.parseWrittenTables("merge into blog using draft on (blog.id = draft.id)"));
+  }
+
+  @Test
+  void shouldFindNoTablesOfProcedureCalls() {
+    assertTrue(SqlTableParser.parseWrittenTables("{call archive_blogs(?)}").isEmpty());
+    assertTrue(SqlTableParser.parseReadTables("{call select_blogs(?)}").isEmpty());
+  }
+
+  @Test
+  void shouldMatchTablesWithAndWithoutSchema() {
+    assertEquals("AUTHOR", SqlTableParser.normalizeTableName("app.author"));
+    assertEquals("AUTHOR", SqlTableParser.normalizeTableName("\"APP\" . \"Author\""));
+    assertEquals("AUTHOR", SqlTableParser.normalizeTableName("[dbo].[author]"));
+    assertEquals(SqlTableParser.parseReadTables("select * from app.author"), SqlTableParser.parseWrittenTables("update author set name = ?"));
+    assertEquals(SqlTableParser.parseReadTables("select * from author"), SqlTableParser.parseWrittenTables("update app.author set name = ?"));
+  }
+
+}
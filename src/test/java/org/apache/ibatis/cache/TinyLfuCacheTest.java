@@ -0,0 +1,175 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.cache.decorators.LoggingCache;
+import org.apache.ibatis.cache.impl.TinyLfuCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.junit.jupiter.api.Test;
+
+class TinyLfuCacheTest {
+
+  @Test
+  void shouldNotExceedMaximumSize() {
+    TinyLfuCache cache = new TinyLfuCache("default");
+    cache.setSize(100);
+    for (int i = 0; i < 1000; i++) {
+      cache.putObject(i, i);
+    }
+    assertEquals(100, cache.getSize());
+    assertEquals(900, cache.getEvictionCount());
+  }
+
+  @Test
+  void shouldKeepFrequentlyUsedItemsDuringScan() {
+    TinyLfuCache cache = new TinyLfuCache("default");
+    cache.setSize(100);
+    for (int i = 0; i < 50; i++) {
+      cache.putObject("hot" + i, i);
+    }
+    for (int round = 0; round < 20; round++) {
+      for (int i = 0; i < 50; i++) {
+        assertNotNull(cache.getObject("hot" + i));
+      }
+    }
+    for (int i = 0; i < 10000; i++) {
+      cache.putObject("scan" + i, i);
+    }
+    int retained = 0;
+    for (int i = 0; i < 50; i++) {
+      if (cache.getObject("hot" + i) != null) {
+        retained++;
+      }
+    }
+    assertTrue(retained >= 45, "retained only " + retained + " hot entries");
+  }
+
+  @Test
+  void shouldBoundTotalWeight() {
+    TinyLfuCache cache = new TinyLfuCache("default");
+    cache.setMaximumWeight(10);
+    cache.putObject("a", Arrays.asList(1, 2, 3, 4));
+    cache.putObject("b", Arrays.asList(1, 2, 3, 4));
+    cache.putObject("c", Arrays.asList(1, 2, 3, 4));
+    assertEquals(2, cache.getSize());
+    assertEquals(8, cache.getWeightedSize());
+    cache.putObject("d", Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11));
+    assertNull(cache.getObject("d"));
+    assertEquals(8, cache.getWeightedSize());
+    assertEquals(1, cache.getEvictionCount());
+    assertEquals(1, cache.getRejectionCount());
+  }
+
+  @Test
+  void shouldCountHitsAndMisses() {
+    TinyLfuCache cache = new TinyLfuCache("default");
+    cache.putObject(0, 0);
+    cache.putObject(1, null);
+    assertEquals(0, cache.getObject(0));
+    assertNull(cache.getObject(1));
+    assertNull(cache.getObject(2));
+    assertEquals(1, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+  }
+
+  @Test
+  void shouldRemoveItemOnDemand() {
+    TinyLfuCache cache = new TinyLfuCache("default");
+    cache.putObject(0, 0);
+    cache.putObject(0, 1);
+    assertEquals(1, cache.getWeightedSize());
+    assertEquals(1, cache.removeObject(0));
+    assertNull(cache.getObject(0));
+    assertEquals(0, cache.getWeightedSize());
+  }
+
+  @Test
+  void shouldFlushAllItemsOnDemand() {
+    TinyLfuCache cache = new TinyLfuCache("default");
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, i);
+    }
+    cache.clear();
+    assertNull(cache.getObject(0));
+    assertNull(cache.getObject(4));
+    assertEquals(0, cache.getSize());
+    assertEquals(0, cache.getWeightedSize());
+  }
+
+  @Test
+  void shouldStayConsistentUnderConcurrentAccess() throws Exception {
+    TinyLfuCache cache = new TinyLfuCache("default");
+    cache.setSize(64);
+    int threads = 8;
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        final int seed = t;
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (int i = 0; i < 20000; i++) {
+            int key = (i * 31 + seed) % 256;
+            if (cache.getObject(key) == null) {
+              cache.putObject(key, key);
+            }
+            if (i % 1000 == 0) {
+              cache.removeObject(key);
+            }
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertTrue(cache.getSize() <= 64);
+    assertEquals(cache.getSize(), cache.getWeightedSize());
+  }
+
+  @Test
+  void shouldBeConfiguredByCacheBuilder() {
+    Properties props = new Properties();
+    props.setProperty("size", "10");
+    props.setProperty("maximumWeight", "100");
+    Cache cache = new CacheBuilder("default").implementation(TinyLfuCache.class).properties(props).build();
+    assertTrue(cache instanceof LoggingCache);
+    for (int i = 0; i < 20; i++) {
+      cache.putObject(i, i);
+    }
+    assertEquals(10, cache.getSize());
+    assertEquals(100L, SystemMetaObject.forObject(cache).getValue("delegate.maximumWeight"));
+  }
+
+}
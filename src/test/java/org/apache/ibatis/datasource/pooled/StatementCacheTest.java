@@ -0,0 +1,158 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.Test;
+
+class StatementCacheTest {
+
+  private static final AtomicInteger prepareCount = new AtomicInteger();
+
+  @Test
+  void shouldCloseLeastRecentlyUsedStatement() throws Exception {
+    PooledDataSource ds = createDataSource(new PooledDataSource());
+    try (Connection conn = ds.getConnection()) {
+      StatementCache cache = new StatementCache(2);
+      PreparedStatement first = conn.prepareStatement("select 1 from INFORMATION_SCHEMA.SYSTEM_USERS");
+      PreparedStatement second = conn.prepareStatement("select 2 from INFORMATION_SCHEMA.SYSTEM_USERS");
+      PreparedStatement third = conn.prepareStatement("select 3 from INFORMATION_SCHEMA.SYSTEM_USERS");
+      cache.put("first", first);
+      cache.put("second", second);
+      assertSame(first, cache.get("first"));
+      cache.put("third", third);
+      assertEquals(2, cache.size());
+      assertNull(cache.get("second"));
+      assertTrue(second.isClosed());
+      assertFalse(first.isClosed());
+      cache.clear();
+      assertTrue(first.isClosed());
+      assertTrue(third.isClosed());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldKeepCacheWithPhysicalConnection() throws Exception {
+    assertCacheKeptWithPhysicalConnection(createDataSource(new PooledDataSource()));
+    assertCacheKeptWithPhysicalConnection(createDataSource(new ConcurrentPooledDataSource()));
+  }
+
+  @Test
+  void shouldNotProvideCacheByDefault() throws Exception {
+    PooledDataSource ds = createDataSource(new PooledDataSource());
+    ds.setPoolStatementCacheSize(0);
+    try (Connection conn = ds.getConnection()) {
+      assertFalse(conn.isWrapperFor(StatementCache.class));
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldReuseStatementsAcrossSessions() throws Exception {
+    PooledDataSource ds = createDataSource(new PooledDataSource());
+    try {
+      Configuration configuration = new Configuration(new Environment("test", new JdbcTransactionFactory(), ds));
+      configuration.setDefaultExecutorType(ExecutorType.REUSE);
+      configuration.addMapper(Mapper.class);
+      configuration.addInterceptor(new PrepareCounter());
+      SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+      prepareCount.set(0);
+      for (int i = 0; i < 3; i++) {
+        try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+          assertEquals(1, sqlSession.getMapper(Mapper.class).countUsers("SA"));
+          assertEquals(0, sqlSession.getMapper(Mapper.class).countUsers("NOBODY"));
+        }
+      }
+      assertEquals(1, prepareCount.get());
+      assertEquals(1, ds.getPoolState().getIdleConnectionCount());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  private void assertCacheKeptWithPhysicalConnection(PooledDataSource ds) throws Exception {
+    try {
+      Connection conn = ds.getConnection();
+      assertTrue(conn.isWrapperFor(StatementCache.class));
+      StatementCache cache = conn.unwrap(StatementCache.class);
+      PreparedStatement stmt = conn.prepareStatement("select 1 from INFORMATION_SCHEMA.SYSTEM_USERS");
+      cache.put("stmt", stmt);
+      conn.close();
+      conn = ds.getConnection();
+      assertSame(cache, conn.unwrap(StatementCache.class));
+      assertSame(stmt, cache.get("stmt"));
+      assertFalse(stmt.isClosed());
+      conn.close();
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  private static PooledDataSource createDataSource(PooledDataSource ds) throws Exception {
+    Properties props = Resources.getResourceAsProperties(BaseDataTest.JPETSTORE_PROPERTIES);
+    ds.setDriver(props.getProperty("driver"));
+    ds.setUrl(props.getProperty("url"));
+    ds.setUsername(props.getProperty("username"));
+    ds.setPassword(props.getProperty("password"));
+    ds.setPoolMaximumActiveConnections(1);
+    ds.setPoolStatementCacheSize(10);
+    return ds;
+  }
+
+  interface Mapper {
+    @Select("select count(*) from INFORMATION_SCHEMA.SYSTEM_USERS where user_name = #{name}")
+    int countUsers(String name);
+  }
+
+  @Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}))
+  public static class PrepareCounter implements Interceptor {
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      prepareCount.incrementAndGet();
+      return invocation.proceed();
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+      // NOP
+    }
+  }
+
+}
@@ -0,0 +1,115 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class DefaultStatementMetricsTest {
+
+  @Test
+  void shouldReportPercentilesWithinBucketPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000);
+    }
+    LatencySnapshot snapshot = histogram.snapshot();
+    assertEquals(1000, snapshot.getCount());
+    assertEquals(500500, snapshot.getMeanNanos());
+    assertEquals(1000000, snapshot.getMaxNanos());
+    assertWithin(500000, snapshot.getPercentileNanos(50));
+    assertWithin(990000, snapshot.getPercentileNanos(99));
+    assertEquals(1000000, snapshot.getPercentileNanos(100));
+  }
+
+  @Test
+  void shouldMapEveryValueIntoItsBucket() {
+    for (long value : new long[] { 0, 1, 7, 8, 9, 15, 16, 1000, 123456789L, (1L << 36) - 1 }) {
+      int index = LatencyHistogram.bucketIndex(value);
+      assertTrue(value <= LatencyHistogram.bucketUpperBound(index));
+      assertTrue(index == 0 || value > LatencyHistogram.bucketUpperBound(index - 1));
+    }
+  }
+
+  @Test
+  void shouldCountNegativeAndHugeLatencies() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(-5);
+    histogram.record(Long.MAX_VALUE);
+    LatencySnapshot snapshot = histogram.snapshot();
+    assertEquals(2, snapshot.getCount());
+    assertEquals(0, snapshot.getPercentileNanos(50));
+    assertEquals(Long.MAX_VALUE, snapshot.getMaxNanos());
+  }
+
+  @Test
+  void shouldAggregatePerStatement() {
+    DefaultStatementMetrics metrics = new DefaultStatementMetrics();
+    metrics.recordPhase("a", StatementPhase.EXECUTE, 100);
+    metrics.recordPhase("a", StatementPhase.EXECUTE, 300);
+    metrics.recordPhase("a", StatementPhase.MAP_RESULTS, 50);
+    metrics.recordRows("a", 7);
+    metrics.recordCacheHit("a");
+    metrics.recordError("b");
+
+    StatementMetricsSnapshot a = metrics.getSnapshot("a");
+    assertEquals(2, a.getExecutions());
+    assertEquals(7, a.getRows());
+    assertEquals(1, a.getCacheHits());
+    assertEquals(0, a.getErrors());
+    assertEquals(200, a.getPhase(StatementPhase.EXECUTE).getMeanNanos());
+    assertEquals(0, a.getPhase(StatementPhase.PREPARE).getCount());
+    assertEquals(450, a.getTotalNanos());
+
+    Map<String, StatementMetricsSnapshot> snapshots = metrics.getSnapshots();
+    assertEquals("[a, b]", snapshots.keySet().toString());
+    assertEquals(1, snapshots.get("b").getErrors());
+    assertNull(metrics.getSnapshot("c"));
+
+    metrics.reset();
+    assertTrue(metrics.getSnapshots().isEmpty());
+  }
+
+  @Test
+  void shouldNotLoseConcurrentRecords() throws Exception {
+    DefaultStatementMetrics metrics = new DefaultStatementMetrics();
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    for (int t = 0; t < 4; t++) {
+      pool.execute(() -> {
+        for (int i = 0; i < 10000; i++) {
+          metrics.recordPhase("a", StatementPhase.EXECUTE, i);
+          metrics.recordRows("a", 1);
+        }
+      });
+    }
+    pool.shutdown();
+    assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+    StatementMetricsSnapshot snapshot = metrics.getSnapshot("a");
+    assertEquals(40000, snapshot.getExecutions());
+    assertEquals(40000, snapshot.getRows());
+  }
+
+  private static void assertWithin(long expected, long actual) {
+    assertTrue(actual >= expected && actual <= expected + expected / 8, "expected about " + expected + " but was " + actual);
+  }
+
+}
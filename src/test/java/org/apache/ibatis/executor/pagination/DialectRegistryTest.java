@@ -0,0 +1,121 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.Seek;
+import org.junit.jupiter.api.Test;
+
+class DialectRegistryTest {
+
+  @Test
+  void shouldPageWithLimitAndOffset() {
+    Dialect dialect = new LimitOffsetDialect();
+    assertEquals("select * from t LIMIT ? OFFSET ?", dialect.getPageSql("select * from t\n", 20, 10));
+    assertArrayEquals(new int[] {10, 20}, dialect.getPageParameters(20, 10));
+    assertEquals("select * from t LIMIT ?", dialect.getPageSql("select * from t", 0, 10));
+    assertArrayEquals(new int[] {10}, dialect.getPageParameters(0, 10));
+    assertEquals("select * from t LIMIT ? OFFSET ?", dialect.getPageSql("select * from t", 20, RowBounds.NO_ROW_LIMIT));
+    assertArrayEquals(new int[] {Integer.MAX_VALUE, 20}, dialect.getPageParameters(20, RowBounds.NO_ROW_LIMIT));
+  }
+
+  @Test
+  void shouldPageWithOffsetAndFetch() {
+    Dialect dialect = new OffsetFetchDialect();
+    assertEquals("select * from t OFFSET ? ROWS FETCH FIRST ? ROWS ONLY", dialect.getPageSql("select * from t", 20, 10));
+    assertArrayEquals(new int[] {20, 10}, dialect.getPageParameters(20, 10));
+    assertEquals("select * from t FETCH FIRST ? ROWS ONLY", dialect.getPageSql("select * from t", 0, 10));
+    assertArrayEquals(new int[] {10}, dialect.getPageParameters(0, 10));
+    assertEquals("select * from t OFFSET ? ROWS", dialect.getPageSql("select * from t", 20, RowBounds.NO_ROW_LIMIT));
+    assertArrayEquals(new int[] {20}, dialect.getPageParameters(20, RowBounds.NO_ROW_LIMIT));
+  }
+
+  @Test
+  void shouldAlwaysWriteOffsetForSqlServer() {
+    Dialect dialect = new SqlServerDialect();
+    assertEquals("select * from t order by id OFFSET ? ROWS FETCH NEXT ? ROWS ONLY", dialect.getPageSql("select * from t order by id", 20, 10));
+    assertArrayEquals(new int[] {20, 10}, dialect.getPageParameters(20, 10));
+    assertEquals("select * from t order by id OFFSET ? ROWS FETCH NEXT ? ROWS ONLY", dialect.getPageSql("select * from t order by id", 0, 10));
+    assertArrayEquals(new int[] {0, 10}, dialect.getPageParameters(0, 10));
+    assertEquals("select * from t order by id OFFSET ? ROWS", dialect.getPageSql("select * from t order by id", 20, RowBounds.NO_ROW_LIMIT));
+    assertArrayEquals(new int[] {20}, dialect.getPageParameters(20, RowBounds.NO_ROW_LIMIT));
+  }
+
+  @Test
+  void shouldBindPageAfterStatementParameters() {
+    Configuration configuration = new Configuration();
+    ParameterMapping id = new ParameterMapping.Builder(configuration, "id", Integer.class).build();
+    BoundSql boundSql = new BoundSql(configuration, "select * from t where id > ?", Collections.singletonList(id), 5);
+    BoundSql pageSql = new LimitOffsetDialect().bindPage(configuration, boundSql, 20, 10);
+    assertEquals("select * from t where id > ? LIMIT ? OFFSET ?", pageSql.getSql());
+    assertEquals(Arrays.asList("id", "__page_0", "__page_1"),
+        pageSql.getParameterMappings().stream().map(ParameterMapping::getProperty).collect(Collectors.toList()));
+    assertEquals(10, pageSql.getAdditionalParameter("__page_0"));
+    assertEquals(20, pageSql.getAdditionalParameter("__page_1"));
+    BoundSql literalSql = ((Dialect) (sql, offset, limit) -> sql + " LIMIT " + limit).bindPage(configuration, boundSql, 0, 10);
+    assertEquals("select * from t where id > ? LIMIT 10", literalSql.getSql());
+    assertEquals(Collections.singletonList(id), literalSql.getParameterMappings());
+  }
+
+  @Test
+  void shouldCountRowsOfSelect() {
+    assertEquals("select count(*) from (select * from t) count_query", new LimitOffsetDialect().getCountSql("select * from t"));
+  }
+
+  @Test
+  void shouldSeekAfterKeys() {
+    Dialect dialect = new LimitOffsetDialect();
+    Seek seek = Seek.first(10).descending("score").ascending("id");
+    assertEquals("select * from (select * from t) seek_query order by score desc, id asc", dialect.getSeekSql("select * from t", seek));
+    assertEquals("select * from (select * from t) seek_query where (score < ?) or (score = ? and id > ?) order by score desc, id asc",
+        dialect.getSeekSql("select * from t", seek.after(5, 7)));
+  }
+
+  @Test
+  void shouldChooseDialectFromDatabaseId() {
+    DialectRegistry registry = new DialectRegistry();
+    assertTrue(registry.getDialect("mysql") instanceof LimitOffsetDialect);
+    assertTrue(registry.getDialect("PostgreSQL") instanceof LimitOffsetDialect);
+    assertTrue(registry.getDialect("HSQL Database Engine") instanceof LimitOffsetDialect);
+    assertTrue(registry.getDialect("Oracle") instanceof OffsetFetchDialect);
+    assertTrue(registry.getDialect("DB2/LINUXX8664") instanceof OffsetFetchDialect);
+    assertTrue(registry.getDialect("Microsoft SQL Server") instanceof SqlServerDialect);
+    assertTrue(registry.getDialect("sqlserver") instanceof SqlServerDialect);
+    assertSame(registry.getDefaultDialect(), registry.getDialect("unknown"));
+    assertSame(registry.getDefaultDialect(), registry.getDialect(null));
+  }
+
+  @Test
+  void shouldPreferRegisteredDialects() {
+    DialectRegistry registry = new DialectRegistry();
+    Dialect dialect = (sql, offset, limit) -> sql;
+    registry.register("MySQL 8", dialect);
+    assertSame(dialect, registry.getDialect("mysql 8.0"));
+    assertTrue(registry.getDialect("mysql 5.7") instanceof LimitOffsetDialect);
+    registry.setDefaultDialect(dialect);
+    assertSame(dialect, registry.getDialect("unknown"));
+  }
+
+}
@@ -129,8 +129,64 @@ class DefaultResultSetHandlerTest {
     }
   }
 
-  MappedStatement getMappedStatement() {
+  @Test
+  void shouldReadColumnsByIndexWhenEnabled() throws Exception {
+    final Configuration config = new Configuration();
+    config.setColumnIndexMappingEnabled(true);
+    final MappedStatement ms = getMappedStatement(config);
+    final DefaultResultSetHandler fastResultSetHandler = new DefaultResultSetHandler(null/*executor*/, ms,
+        null/*parameterHandler*/, null/*resultHandler*/, null/*boundSql*/, new RowBounds(0, 100));
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true).thenReturn(false);
+    when(rs.getInt(1)).thenReturn(100);
+    when(rsmd.getColumnCount()).thenReturn(1);
+    when(rsmd.getColumnLabel(1)).thenReturn("CoLuMn1");
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(1)).thenReturn(Integer.class.getCanonicalName());
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false); // for simplicity.
+
+    final List<Object> results = fastResultSetHandler.handleResultSets(stmt);
+    assertEquals(1, results.size());
+    assertEquals(100, ((HashMap) results.get(0)).get("cOlUmN1"));
+  }
+
+  @Test
+  void shouldRecordFetchedRowsForAdaptiveFetchSize() throws Exception {
     final Configuration config = new Configuration();
+    config.setAdaptiveFetchSizeEnabled(true);
+    final MappedStatement ms = getMappedStatement(config);
+    final DefaultResultSetHandler fastResultSetHandler = new DefaultResultSetHandler(null/*executor*/, ms,
+        null/*parameterHandler*/, null/*resultHandler*/, null/*boundSql*/, new RowBounds(2, 1));
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true);
+    when(rs.getInt("CoLuMn1")).thenReturn(100);
+    when(rsmd.getColumnCount()).thenReturn(1);
+    when(rsmd.getColumnLabel(1)).thenReturn("CoLuMn1");
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(1)).thenReturn(Integer.class.getCanonicalName());
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false); // for simplicity.
+
+    final List<Object> results = fastResultSetHandler.handleResultSets(stmt);
+    assertEquals(1, results.size());
+    // the skipped rows were fetched too
+    assertEquals(3, ms.getAdaptiveFetchSize().getAverageRows());
+  }
+
+  MappedStatement getMappedStatement() {
+    return getMappedStatement(new Configuration());
+  }
+
+  MappedStatement getMappedStatement(final Configuration config) {
     final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
     return new MappedStatement.Builder(config, "testSelect", new StaticSqlSource(config, "some select statement"), SqlCommandType.SELECT).resultMaps(
         new ArrayList<ResultMap>() {
@@ -0,0 +1,65 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class RowKeyTest {
+
+  private final RowKey.Builder builder = new RowKey.Builder();
+
+  @Test
+  void shouldCompareSingleValue() {
+    RowKey key = builder.reset().add(1).build("map", null, null);
+    assertEquals(key, builder.reset().add(1).build("map", null, null));
+    assertEquals(key.hashCode(), builder.reset().add(1).build("map", null, null).hashCode());
+    assertNotEquals(key, builder.reset().add(2).build("map", null, null));
+    assertNotEquals(key, builder.reset().add(1L).build("map", null, null));
+    assertNotEquals(key, builder.reset().add(1).build("otherMap", null, null));
+    assertNotEquals(key, builder.reset().add(1).build("map", "P_", null));
+  }
+
+  @Test
+  void shouldCompareValuesInColumnOrder() {
+    RowKey key = builder.reset().add(1).skip().add(new byte[] {1, 2}).build("map", null, null);
+    RowKey same = builder.reset().add(1).skip().add(new byte[] {1, 2}).build("map", null, null);
+    assertEquals(key, same);
+    assertEquals(key.hashCode(), same.hashCode());
+    assertNotEquals(key, builder.reset().skip().add(1).add(new byte[] {1, 2}).build("map", null, null));
+    assertNotEquals(key, builder.reset().add(1).build("map", null, null));
+  }
+
+  @Test
+  void shouldIncludeParentKey() {
+    RowKey parent = builder.reset().add(1).build("parent", null, null);
+    RowKey child = builder.reset().add(1).build("child", null, parent);
+    RowKey sameParent = builder.reset().add(1).build("parent", null, null);
+    assertEquals(child, builder.reset().add(1).build("child", null, sameParent));
+    RowKey otherParent = builder.reset().add(2).build("parent", null, null);
+    assertNotEquals(child, builder.reset().add(1).build("child", null, otherParent));
+    assertNotEquals(child, builder.reset().add(1).build("child", null, null));
+  }
+
+  @Test
+  void shouldNotIdentifyRowsWithoutValuesOrParent() {
+    assertSame(RowKey.NULL, builder.reset().skip().skip().build("map", null, null));
+    assertSame(RowKey.NULL, builder.reset().add(1).build("map", null, RowKey.NULL));
+    assertNotSame(RowKey.NULL, builder.reset().add(null).build("map", null, null));
+  }
+
+}
@@ -0,0 +1,73 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.JdbcType;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveFetchSizeTest {
+
+  @Test
+  void shouldStartWithDefaultOrMinimumFetchSize() {
+    Configuration configuration = new Configuration();
+    AdaptiveFetchSize adaptiveFetchSize = new AdaptiveFetchSize();
+    assertEquals(Integer.valueOf(10), adaptiveFetchSize.getFetchSize(configuration, false));
+    configuration.setDefaultFetchSize(100);
+    assertEquals(Integer.valueOf(100), adaptiveFetchSize.getFetchSize(configuration, false));
+  }
+
+  @Test
+  void shouldFollowAverageRowsWithinBounds() {
+    Configuration configuration = new Configuration();
+    AdaptiveFetchSize adaptiveFetchSize = new AdaptiveFetchSize();
+    adaptiveFetchSize.record(200, Collections.singletonList(JdbcType.INTEGER));
+    assertEquals(Integer.valueOf(201), adaptiveFetchSize.getFetchSize(configuration, false));
+    adaptiveFetchSize.record(600, Collections.singletonList(JdbcType.INTEGER));
+    assertEquals(300, adaptiveFetchSize.getAverageRows());
+    assertEquals(Integer.valueOf(301), adaptiveFetchSize.getFetchSize(configuration, false));
+    adaptiveFetchSize.record(100000, Collections.singletonList(JdbcType.INTEGER));
+    assertEquals(Integer.valueOf(1000), adaptiveFetchSize.getFetchSize(configuration, false));
+    adaptiveFetchSize = new AdaptiveFetchSize();
+    adaptiveFetchSize.record(0, Collections.singletonList(JdbcType.INTEGER));
+    assertEquals(Integer.valueOf(10), adaptiveFetchSize.getFetchSize(configuration, false));
+  }
+
+  @Test
+  void shouldUseMaximumFetchSizeWhenStreaming() {
+    Configuration configuration = new Configuration();
+    assertEquals(Integer.valueOf(1000), new AdaptiveFetchSize().getFetchSize(configuration, true));
+  }
+
+  @Test
+  void shouldKeepRowsWithinMemoryBudget() {
+    Configuration configuration = new Configuration();
+    configuration.setAdaptiveFetchMemoryBudget(64 * 1024);
+    AdaptiveFetchSize adaptiveFetchSize = new AdaptiveFetchSize();
+    adaptiveFetchSize.record(500, Arrays.asList(JdbcType.INTEGER, JdbcType.CLOB, JdbcType.CLOB));
+    assertEquals(8208, AdaptiveFetchSize.estimateRowBytes(Arrays.asList(JdbcType.INTEGER, JdbcType.CLOB, JdbcType.CLOB)));
+    assertEquals(Integer.valueOf(64 * 1024 / 8208), adaptiveFetchSize.getFetchSize(configuration, false));
+    assertEquals(Integer.valueOf(64 * 1024 / 8208), adaptiveFetchSize.getFetchSize(configuration, true));
+    configuration.setAdaptiveFetchMemoryBudget(1);
+    assertEquals(Integer.valueOf(1), adaptiveFetchSize.getFetchSize(configuration, false));
+  }
+
+}
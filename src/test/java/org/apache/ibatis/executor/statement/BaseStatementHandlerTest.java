@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.executor.statement;
 
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
@@ -23,10 +24,13 @@ import static org.mockito.Mockito.verifyZeroInteractions;
 
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Collections;
 
 import org.apache.ibatis.builder.StaticSqlSource;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.JdbcType;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -145,4 +149,37 @@ class BaseStatementHandlerTest {
         verify(statement).setQueryTimeout(10);
     }
 
+    @Test
+    void specifyAdaptiveFetchSize() throws SQLException {
+        configuration.setAdaptiveFetchSizeEnabled(true);
+        MappedStatement mappedStatement = new MappedStatement.Builder(configuration, "id", new StaticSqlSource(configuration, "sql"), SqlCommandType.SELECT).build();
+        mappedStatement.getAdaptiveFetchSize().record(40, Collections.singletonList(JdbcType.INTEGER));
+
+        BaseStatementHandler handler = new SimpleStatementHandler(null, mappedStatement, null, null, null, null);
+        handler.setFetchSize(statement);
+        verify(statement, never()).setFetchSize(anyInt()); // set on each execution instead
+
+        handler.setAdaptiveFetchSize(statement, false);
+        verify(statement).setFetchSize(41); // apply the average rows of previous executions
+
+        handler.setAdaptiveFetchSize(statement, true);
+        verify(statement).setFetchSize(1000); // apply the maximum fetch size to cursors
+
+        mappedStatement.getAdaptiveFetchSize().record(200, Collections.singletonList(JdbcType.INTEGER));
+        handler.setAdaptiveFetchSize(statement, false);
+        verify(statement).setFetchSize(81); // follow the executions since the statement was prepared
+    }
+
+    @Test
+    void specifyMappedStatementFetchSizeOverAdaptiveFetchSize() throws SQLException {
+        configuration.setAdaptiveFetchSizeEnabled(true);
+        mappedStatementBuilder.fetchSize(30);
+
+        BaseStatementHandler handler = new SimpleStatementHandler(null, mappedStatementBuilder.build(), null, null, null, null);
+        handler.setFetchSize(statement);
+        handler.setAdaptiveFetchSize(statement, true);
+
+        verify(statement).setFetchSize(30); // apply a mapped statement fetch size only
+    }
+
 }
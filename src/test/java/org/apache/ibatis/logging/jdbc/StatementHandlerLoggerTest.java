@@ -0,0 +1,119 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.logging.jdbc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class StatementHandlerLoggerTest {
+
+  @Mock
+  Log log;
+
+  @Mock
+  StatementHandler delegate;
+
+  @Mock
+  ParameterHandler parameterHandler;
+
+  @Mock
+  PreparedStatement statement;
+
+  private final Configuration configuration = new Configuration();
+
+  @Test
+  void shouldPrintStatementParametersAndRowCount() throws SQLException {
+    when(log.isDebugEnabled()).thenReturn(true);
+    Map<String, Object> parameter = new HashMap<>();
+    parameter.put("id", 10);
+    parameter.put("name", null);
+    stubBoundSql("select *\n  from users where id = ? and name = ?", parameter, "id", "name");
+    when(delegate.query(statement, null)).thenReturn(Arrays.asList("a", "b"));
+
+    StatementHandler handler = StatementHandlerLogger.newInstance(delegate, configuration, log);
+    List<Object> list = handler.query(statement, null);
+
+    assertEquals(2, list.size());
+    verify(log).debug("==>  Preparing: select * from users where id = ? and name = ? ");
+    verify(log).debug("==> Parameters: 10(Integer), null");
+    verify(log).debug("<==      Total: 2");
+  }
+
+  @Test
+  void shouldPrintUpdateCount() throws SQLException {
+    when(log.isDebugEnabled()).thenReturn(true);
+    stubBoundSql("delete from users where id = ?", 5, "id");
+    when(delegate.update(statement)).thenReturn(1);
+
+    StatementHandlerLogger.newInstance(delegate, configuration, log).update(statement);
+
+    verify(log).debug("==> Parameters: 5(Integer)");
+    verify(log).debug("<==    Updates: 1");
+  }
+
+  @Test
+  void shouldNotWrapHandlerWhenDebugIsDisabled() {
+    assertSame(delegate, StatementHandlerLogger.newInstance(delegate, configuration, log));
+  }
+
+  @Test
+  void shouldSampleExecutions() throws SQLException {
+    when(log.isDebugEnabled()).thenReturn(true);
+    configuration.setSqlLogSamplingInterval(1000);
+    int wrapped = 0;
+    for (int i = 0; i < 1000; i++) {
+      if (StatementHandlerLogger.newInstance(delegate, configuration, log) != delegate) {
+        wrapped++;
+      }
+    }
+    assertTrue(wrapped < 20, "wrapped " + wrapped + " of 1000 executions");
+    verify(log, never()).debug(anyString());
+  }
+
+  private void stubBoundSql(String sql, Object parameter, String... properties) {
+    List<ParameterMapping> parameterMappings = new ArrayList<>();
+    for (String property : properties) {
+      parameterMappings.add(new ParameterMapping.Builder(configuration, property, Object.class).build());
+    }
+    when(delegate.getBoundSql()).thenReturn(new BoundSql(configuration, sql, parameterMappings, parameter));
+    when(delegate.getParameterHandler()).thenReturn(parameterHandler);
+    when(parameterHandler.getParameterObject()).thenReturn(parameter);
+  }
+
+}
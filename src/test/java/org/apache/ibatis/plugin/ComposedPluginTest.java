@@ -0,0 +1,191 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.plugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("unchecked")
+class ComposedPluginTest {
+
+  @Test
+  void shouldInterceptInSameOrderAsNestedProxies() {
+    List<String> nestedCalls = new ArrayList<>();
+    List<String> composedCalls = new ArrayList<>();
+    Map<String, String> nested = (Map<String, String>) newChain(nestedCalls).pluginAll(newMap());
+    Map<String, String> composed = (Map<String, String>) newChain(composedCalls).composeAll(newMap());
+    assertEquals(nested.get("key"), composed.get("key"));
+    assertEquals(nested.put("key", "other"), composed.put("key", "other"));
+    assertEquals(nested.size(), composed.size());
+    assertEquals(Arrays.asList("b:get", "a:get", "c:put", "a:put"), nestedCalls);
+    assertEquals(nestedCalls, composedCalls);
+  }
+
+  @Test
+  void shouldWrapWithSingleProxy() {
+    Map<String, String> composed = (Map<String, String>) newChain(new ArrayList<>()).composeAll(newMap());
+    assertTrue(Proxy.getInvocationHandler(composed) instanceof ComposedPlugin);
+    assertEquals(HashMap.class, proxiedClass(composed));
+  }
+
+  @Test
+  void shouldNotWrapTargetWithoutInterceptedInterfaces() {
+    InterceptorChain chain = newChain(new ArrayList<>());
+    String target = "value";
+    assertSame(target, chain.composeAll(target));
+  }
+
+  @Test
+  void shouldExposeTargetOfEachInterceptor() {
+    List<String> calls = new ArrayList<>();
+    InterceptorChain chain = newChain(calls);
+    chain.addInterceptor(new RedispatchingPlugin());
+    Map<String, String> composed = (Map<String, String>) chain.composeAll(newMap());
+    // the last plugin calls get on its target, which is intercepted by the first two plugins again
+    assertEquals("value", composed.get("key"));
+    assertEquals(Arrays.asList("b:get", "a:get"), calls);
+  }
+
+  @Test
+  void shouldApplyCustomPluginMethodsInOrder() {
+    List<String> nestedCalls = new ArrayList<>();
+    List<String> composedCalls = new ArrayList<>();
+    InterceptorChain nestedChain = newChain(nestedCalls);
+    nestedChain.addInterceptor(new CustomPlugin(nestedCalls));
+    nestedChain.addInterceptor(new RecordingPlugin("d", nestedCalls));
+    InterceptorChain composedChain = newChain(composedCalls);
+    composedChain.addInterceptor(new CustomPlugin(composedCalls));
+    composedChain.addInterceptor(new RecordingPlugin("d", composedCalls));
+    Map<String, String> nested = (Map<String, String>) nestedChain.pluginAll(newMap());
+    Map<String, String> composed = (Map<String, String>) composedChain.composeAll(newMap());
+    assertEquals(nested.get("key"), composed.get("key"));
+    assertEquals(Arrays.asList("d:get", "custom", "b:get", "a:get"), nestedCalls);
+    assertEquals(nestedCalls, composedCalls);
+  }
+
+  @Test
+  void shouldThrowLikeNestedProxies() {
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new FailingPlugin());
+    chain.addInterceptor(new RecordingPlugin("a", new ArrayList<>()));
+    Map<String, String> nested = (Map<String, String>) chain.pluginAll(newMap());
+    Map<String, String> composed = (Map<String, String>) chain.composeAll(newMap());
+    assertEquals(assertThrows(IllegalStateException.class, () -> nested.get("key")).getMessage(),
+        assertThrows(IllegalStateException.class, () -> composed.get("key")).getMessage());
+  }
+
+  private static InterceptorChain newChain(List<String> calls) {
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new RecordingPlugin("a", calls));
+    chain.addInterceptor(new GetOnlyPlugin("b", calls));
+    chain.addInterceptor(new PutOnlyPlugin("c", calls));
+    return chain;
+  }
+
+  private static Map<String, String> newMap() {
+    Map<String, String> map = new HashMap<>();
+    map.put("key", "value");
+    return map;
+  }
+
+  private static Class<?> proxiedClass(Object proxy) {
+    return SystemMetaObject.forObject(Proxy.getInvocationHandler(proxy)).getValue("target").getClass();
+  }
+
+  @Intercepts({
+      @Signature(type = Map.class, method = "get", args = {Object.class}),
+      @Signature(type = Map.class, method = "put", args = {Object.class, Object.class})})
+  public static class RecordingPlugin implements Interceptor {
+    private final String name;
+    private final List<String> calls;
+
+    RecordingPlugin(String name, List<String> calls) {
+      this.name = name;
+      this.calls = calls;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      calls.add(name + ":" + invocation.getMethod().getName());
+      return invocation.proceed();
+    }
+  }
+
+  @Intercepts({
+      @Signature(type = Map.class, method = "get", args = {Object.class})})
+  public static class GetOnlyPlugin extends RecordingPlugin {
+    GetOnlyPlugin(String name, List<String> calls) {
+      super(name, calls);
+    }
+  }
+
+  @Intercepts({
+      @Signature(type = Map.class, method = "put", args = {Object.class, Object.class})})
+  public static class PutOnlyPlugin extends RecordingPlugin {
+    PutOnlyPlugin(String name, List<String> calls) {
+      super(name, calls);
+    }
+  }
+
+  @Intercepts({
+      @Signature(type = Map.class, method = "get", args = {Object.class})})
+  public static class RedispatchingPlugin implements Interceptor {
+    @Override
+    public Object intercept(Invocation invocation) {
+      return ((Map<Object, Object>) invocation.getTarget()).get(invocation.getArgs()[0]);
+    }
+  }
+
+  @Intercepts({
+      @Signature(type = Map.class, method = "get", args = {Object.class})})
+  public static class FailingPlugin implements Interceptor {
+    @Override
+    public Object intercept(Invocation invocation) {
+      throw new IllegalStateException("failed");
+    }
+  }
+
+  @Intercepts({
+      @Signature(type = Map.class, method = "get", args = {Object.class})})
+  public static class CustomPlugin implements Interceptor {
+    private final List<String> calls;
+
+    CustomPlugin(List<String> calls) {
+      this.calls = calls;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      calls.add("custom");
+      return invocation.proceed();
+    }
+
+    @Override
+    public Object plugin(Object target) {
+      return Plugin.wrap(target, this);
+    }
+  }
+
+}
@@ -0,0 +1,134 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
+import org.apache.ibatis.reflection.invoker.GeneratedMethodInvoker;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
+import org.junit.jupiter.api.Test;
+
+class GeneratedAccessorReflectorFactoryTest {
+
+  private final ReflectorFactory reflectorFactory = new GeneratedAccessorReflectorFactory();
+
+  @Test
+  void shouldGenerateAccessorsForPublicBean() {
+    Reflector reflector = reflectorFactory.findForClass(Author.class);
+    assertTrue(reflector.getGetInvoker("username") instanceof GeneratedMethodInvoker);
+    assertTrue(reflector.getSetInvoker("id") instanceof GeneratedMethodInvoker);
+    assertEquals(int.class, reflector.getSetInvoker("id").getType());
+    assertSame(reflector, reflectorFactory.findForClass(Author.class));
+  }
+
+  @Test
+  void shouldGetAndSetPropertiesThroughMetaObject() {
+    Author author = new Author();
+    MetaObject metaObject = MetaObject.forObject(author, new DefaultObjectFactory(), new DefaultObjectWrapperFactory(),
+        reflectorFactory);
+    metaObject.setValue("id", 100);
+    metaObject.setValue("username", "cbegin");
+    metaObject.setValue("favouriteSection", Section.NEWS);
+    assertEquals(100, author.getId());
+    assertEquals("cbegin", author.getUsername());
+    assertEquals(100, metaObject.getValue("id"));
+    assertEquals("cbegin", metaObject.getValue("username"));
+    assertEquals(Section.NEWS, metaObject.getValue("favouriteSection"));
+  }
+
+  @Test
+  void shouldFallBackToReflectionForNonPublicClass() {
+    Reflector reflector = reflectorFactory.findForClass(HiddenBean.class);
+    assertFalse(reflector.getGetInvoker("name") instanceof GeneratedMethodInvoker);
+    assertFalse(reflector.getSetInvoker("name") instanceof GeneratedMethodInvoker);
+  }
+
+  @Test
+  void shouldWidenPrimitiveArgumentLikeReflection() throws Exception {
+    Invoker invoker = reflectorFactory.findForClass(Bean.class).getSetInvoker("amount");
+    Bean bean = new Bean();
+    invoker.invoke(bean, new Object[] {Integer.valueOf(3)});
+    assertEquals(3L, bean.getAmount());
+  }
+
+  @Test
+  void shouldReportIllegalArgumentsLikeReflection() {
+    Invoker invoker = reflectorFactory.findForClass(Bean.class).getSetInvoker("amount");
+    assertThrows(IllegalArgumentException.class, () -> invoker.invoke(new Bean(), new Object[] {null}));
+    assertThrows(IllegalArgumentException.class, () -> invoker.invoke(new Bean(), new Object[] {"1"}));
+    assertThrows(IllegalArgumentException.class, () -> invoker.invoke(new Object(), new Object[] {1L}));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void shouldSetPrimitiveWithoutBoxing() {
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    Object setter = reflector.getPrimitiveSetter("amount");
+    assertTrue(setter instanceof ObjLongConsumer);
+    assertFalse(setter instanceof ObjIntConsumer);
+    Bean bean = new Bean();
+    ((ObjLongConsumer<Object>) setter).accept(bean, 5L);
+    assertEquals(5L, bean.getAmount());
+    assertNull(reflector.getPrimitiveSetter("failing"));
+    assertNull(new Reflector(Bean.class).getPrimitiveSetter("amount"));
+  }
+
+  @Test
+  void shouldWrapExceptionThrownByAccessor() {
+    Invoker invoker = reflectorFactory.findForClass(Bean.class).getGetInvoker("failing");
+    InvocationTargetException e = assertThrows(InvocationTargetException.class,
+        () -> invoker.invoke(new Bean(), new Object[0]));
+    assertTrue(e.getTargetException() instanceof IllegalStateException);
+  }
+
+  public static class Bean {
+    private long amount;
+
+    public long getAmount() {
+      return amount;
+    }
+
+    public Bean setAmount(long amount) {
+      this.amount = amount;
+      return this;
+    }
+
+    public String getFailing() {
+      throw new IllegalStateException("failing");
+    }
+  }
+
+  private static class HiddenBean {
+    private String name;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+
+}
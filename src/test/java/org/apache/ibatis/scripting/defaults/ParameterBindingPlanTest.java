@@ -0,0 +1,176 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.defaults;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.builder.SqlSourceBuilder;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Blog;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class ParameterBindingPlanTest {
+
+  private static final String AUTHOR_SQL = "insert into author values (#{id}, #{username}, #{password}, #{email},"
+      + " #{bio, jdbcType=VARCHAR}, #{favouriteSection})";
+
+  @Test
+  void shouldBindBeanLikeDefaultHandler() {
+    assertSameBindings(AUTHOR_SQL, Author.class, new Author(1, "jim", "secret", null, "bio", Section.NEWS));
+  }
+
+  @Test
+  void shouldBindMapLikeDefaultHandler() {
+    Map<String, Object> param = new HashMap<>();
+    param.put("id", 1);
+    param.put("username", "jim");
+    assertSameBindings(AUTHOR_SQL, Map.class, param);
+  }
+
+  @Test
+  void shouldBindParamMapLikeDefaultHandler() {
+    ParamMap<Object> param = new ParamMap<>();
+    param.put("id", 2);
+    param.put("author", new Author(2, "sally", null, null, null, null));
+    param.put("param1", 2);
+    assertSameBindings("select * from author where id = #{id} and username = #{author.username} or id = #{param1}",
+        ParamMap.class, param);
+  }
+
+  @Test
+  void shouldBindSimpleTypeAndNullLikeDefaultHandler() {
+    assertSameBindings("select * from author where id = #{id}", Integer.class, 101);
+    assertSameBindings("select * from author where id = #{id}", Object.class, null);
+  }
+
+  @Test
+  void shouldBindNestedPropertiesAndAdditionalParameters() {
+    Blog blog = new Blog(1, "title", new Author(3, "jim", null, null, null, null), Collections.emptyList());
+    String sql = "select * from blog where id = #{id} and author_id = #{author.id} and title = #{extra}";
+    List<List<Object>> classic = bind(sql, Blog.class, blog, false, Collections.singletonMap("extra", "bound"));
+    List<List<Object>> compiled = bind(sql, Blog.class, blog, true, Collections.singletonMap("extra", "bound"));
+    assertEquals(classic, compiled);
+    assertEquals(Arrays.asList("setString", 3, "bound"), compiled.get(2));
+  }
+
+  @Test
+  void shouldReuseStatementPlanForSameMappingsAndParameterClass() {
+    Configuration configuration = new Configuration();
+    SqlSource sqlSource = new SqlSourceBuilder(configuration).parse(AUTHOR_SQL, Author.class, new HashMap<>());
+    MappedStatement ms = new MappedStatement.Builder(configuration, "insertAuthor", sqlSource, SqlCommandType.INSERT).build();
+    ParameterBindingPlan authorPlan = planFor(ms, new Author(1));
+    ParameterBindingPlan mapPlan = planFor(ms, new HashMap<>());
+    assertNotSame(authorPlan, mapPlan);
+    assertSame(authorPlan, planFor(ms, new Author(2)));
+    assertSame(mapPlan, planFor(ms, new HashMap<>()));
+  }
+
+  @Test
+  void shouldReuseStatementPlanForMappingsGeneratedByDynamicSql() {
+    Configuration configuration = new Configuration();
+    SqlSource sqlSource = new XMLLanguageDriver().createSqlSource(configuration,
+        "<script>select * from author where id = #{id}<if test='username != null'> and username = #{username}</if></script>",
+        Author.class);
+    MappedStatement ms = new MappedStatement.Builder(configuration, "selectAuthor", sqlSource, SqlCommandType.SELECT).build();
+    ParameterBindingPlan byId = planFor(ms, new Author(1));
+    ParameterBindingPlan byIdAndName = planFor(ms, new Author(1, "jim", null, null, null, null));
+    assertNotSame(byId, byIdAndName);
+    assertSame(byId, planFor(ms, new Author(2)));
+    assertSame(byIdAndName, planFor(ms, new Author(2, "sally", null, null, null, null)));
+  }
+
+  @Test
+  void shouldReuseLastPlanForSameMappingsList() {
+    Configuration configuration = new Configuration();
+    SqlSource sqlSource = new SqlSourceBuilder(configuration).parse(AUTHOR_SQL, Author.class, new HashMap<>());
+    MappedStatement ms = new MappedStatement.Builder(configuration, "insertAuthor", sqlSource, SqlCommandType.INSERT).build();
+    List<ParameterMapping> parameterMappings = ms.getBoundSql(null).getParameterMappings();
+    ParameterBindingPlan authorPlan = ParameterBindingPlan.forStatement(ms, parameterMappings, new Author(1));
+    assertSame(authorPlan, ms.getLastParameterBindingPlan());
+    assertSame(authorPlan, ParameterBindingPlan.forStatement(ms, parameterMappings, new Author(2)));
+    ParameterBindingPlan mapPlan = ParameterBindingPlan.forStatement(ms, parameterMappings, new HashMap<>());
+    assertNotSame(authorPlan, mapPlan);
+    assertSame(mapPlan, ms.getLastParameterBindingPlan());
+    assertSame(authorPlan, ParameterBindingPlan.forStatement(ms, new ArrayList<>(parameterMappings), new Author(3)));
+  }
+
+  private static ParameterBindingPlan planFor(MappedStatement ms, Object parameterObject) {
+    BoundSql boundSql = ms.getBoundSql(parameterObject);
+    return ParameterBindingPlan.forStatement(ms, boundSql.getParameterMappings(), parameterObject);
+  }
+
+  @Test
+  void shouldReportMissingGetterLikeDefaultHandler() {
+    String sql = "select * from author where id = #{unknown}";
+    Exception classic = assertThrows(ReflectionException.class, () -> bind(sql, Object.class, new Author(1), false, Collections.emptyMap()));
+    Exception compiled = assertThrows(ReflectionException.class, () -> bind(sql, Object.class, new Author(1), true, Collections.emptyMap()));
+    assertEquals(classic.getMessage(), compiled.getMessage());
+  }
+
+  private static void assertSameBindings(String sql, Class<?> parameterType, Object parameterObject) {
+    List<List<Object>> classic = bind(sql, parameterType, parameterObject, false, Collections.emptyMap());
+    assertFalse(classic.isEmpty());
+    for (int i = 0; i < 2; i++) {
+      assertEquals(classic, bind(sql, parameterType, parameterObject, true, Collections.emptyMap()));
+    }
+  }
+
+  private static List<List<Object>> bind(String sql, Class<?> parameterType, Object parameterObject, boolean compiled,
+      Map<String, Object> additionalParameters) {
+    Configuration configuration = new Configuration();
+    configuration.setCompiledParameterBindingEnabled(compiled);
+    SqlSource sqlSource = new SqlSourceBuilder(configuration).parse(sql, parameterType, new HashMap<>(additionalParameters));
+    MappedStatement ms = new MappedStatement.Builder(configuration, "statement", sqlSource, SqlCommandType.SELECT).build();
+    List<List<Object>> calls = new ArrayList<>();
+    setParameters(ms, parameterObject, additionalParameters, calls);
+    return calls;
+  }
+
+  private static void setParameters(MappedStatement ms, Object parameterObject, Map<String, Object> additionalParameters,
+      List<List<Object>> calls) {
+    BoundSql boundSql = ms.getBoundSql(parameterObject);
+    additionalParameters.forEach(boundSql::setAdditionalParameter);
+    PreparedStatement ps = (PreparedStatement) Proxy.newProxyInstance(ParameterBindingPlanTest.class.getClassLoader(),
+        new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+          List<Object> call = new ArrayList<>();
+          call.add(method.getName());
+          call.addAll(Arrays.asList(args));
+          calls.add(call);
+          return null;
+        });
+    new DefaultParameterHandler(ms, parameterObject, boundSql).setParameters(ps);
+  }
+
+}
@@ -0,0 +1,177 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.async_mapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.Reader;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.AsyncSessionScope;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AsyncMapperTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+  private static ExecutorService executor;
+  private static final AtomicInteger submittedTasks = new AtomicInteger();
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/async_mapper/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    executor = Executors.newFixedThreadPool(2);
+    sqlSessionFactory.getConfiguration().setAsyncExecutor(task -> {
+      submittedTasks.incrementAndGet();
+      executor.execute(task);
+    });
+  }
+
+  @BeforeEach
+  void createDatabase() throws Exception {
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/async_mapper/CreateDB.sql");
+  }
+
+  @AfterAll
+  static void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void shouldSelectAsynchronously() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      CompletableFuture<User> user = mapper.getUser(1);
+      CompletableFuture<List<User>> users = mapper.getUsers();
+      CompletableFuture<Map<Integer, User>> usersById = mapper.getUsersById();
+      assertEquals("User1", user.join().getName());
+      assertEquals(2, users.join().size());
+      assertEquals("User2", usersById.join().get(2).getName());
+    }
+  }
+
+  @Test
+  void shouldRunOnConfiguredExecutor() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      int submitted = submittedTasks.get();
+      mapper.getUser(1).join();
+      assertEquals(submitted + 1, submittedTasks.get());
+    }
+  }
+
+  @Test
+  void shouldCommitUpdateInOwnSession() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      User user = new User();
+      user.setId(1);
+      user.setName("Renamed");
+      assertEquals(Integer.valueOf(1), mapper.renameUser(user).join());
+      user.setId(3);
+      user.setName("User3");
+      assertNull(mapper.insertUser(user).join());
+      // the changes were committed by the sessions of the asynchronous calls
+      sqlSession.rollback(true);
+      assertEquals("Renamed", mapper.getUserName(1));
+      assertEquals("User3", mapper.getUserName(3));
+    }
+  }
+
+  @Test
+  void shouldNotCommitUpdateInSessionScope() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setAsyncSessionScope(AsyncSessionScope.SESSION);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      User user = new User();
+      user.setId(1);
+      user.setName("Renamed");
+      assertEquals(Integer.valueOf(1), mapper.renameUser(user).join());
+      assertEquals("User1", mapper.getUserName(1));
+    } finally {
+      configuration.setAsyncSessionScope(AsyncSessionScope.COMMITTED_SESSION);
+    }
+  }
+
+  @Test
+  void shouldFailWithoutSessionScope() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setAsyncSessionScope(AsyncSessionScope.NONE);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      BindingException e = assertThrows(BindingException.class, () -> mapper.getUser(1));
+      assertTrue(e.getMessage().contains("asyncSessionScope"));
+    } finally {
+      configuration.setAsyncSessionScope(AsyncSessionScope.COMMITTED_SESSION);
+    }
+  }
+
+  @Test
+  void shouldFailWithoutExecutor() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    Executor asyncExecutor = configuration.getAsyncExecutor();
+    configuration.setAsyncExecutor(null);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      BindingException e = assertThrows(BindingException.class, () -> mapper.getUser(1));
+      assertTrue(e.getMessage().contains("asyncExecutor"));
+    } finally {
+      configuration.setAsyncExecutor(asyncExecutor);
+    }
+  }
+
+  @Test
+  void shouldCompleteExceptionallyWhenStatementFails() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      User user = new User();
+      user.setId(1);
+      user.setName("Duplicate");
+      CompletionException e = assertThrows(CompletionException.class, () -> mapper.insertUser(user).join());
+      assertTrue(e.getCause() instanceof PersistenceException);
+    }
+  }
+
+  @Test
+  void shouldNotReturnCursorAsynchronously() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThrows(BindingException.class, mapper::getUserCursor);
+    }
+  }
+
+}
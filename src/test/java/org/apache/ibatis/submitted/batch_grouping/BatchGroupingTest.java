@@ -0,0 +1,144 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_grouping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.Reader;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.BatchGrouping;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class BatchGroupingTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_grouping/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_grouping/CreateDB.sql");
+  }
+
+  @AfterEach
+  void resetSettings() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setBatchGrouping(BatchGrouping.CONSECUTIVE);
+    configuration.setBatchFlushRows(null);
+    configuration.setBatchFlushBytes(null);
+  }
+
+  @Test
+  void shouldOnlyGroupConsecutiveUpdatesByDefault() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      insertInterleaved(sqlSession.getMapper(Mapper.class));
+      assertEquals(6, sqlSession.flushStatements().size());
+    }
+  }
+
+  @Test
+  void shouldGroupInterleavedUpdatesByStatement() {
+    sqlSessionFactory.getConfiguration().setBatchGrouping(BatchGrouping.STATEMENT);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      insertInterleaved(mapper);
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals("[insertParent:3, insertChild:3]", describe(results));
+      assertEquals(3, mapper.countChildren());
+    }
+  }
+
+  @Test
+  void shouldKeepOrderOfUpdatesOnSameTable() {
+    sqlSessionFactory.getConfiguration().setBatchGrouping(BatchGrouping.TABLE);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.insertParent(1, "p1");
+      mapper.insertChild(1, 1, "c1");
+      mapper.insertParent(2, "p2");
+      mapper.insertChild(2, 2, "c2");
+      mapper.renameParent(1, "renamed");
+      mapper.insertParent(3, "p3");
+      // updates on another table may move before p3, so c3 must not depend on it
+      mapper.insertChild(3, 1, "c3");
+      mapper.renameParent(2, "renamed");
+      // nothing is moved across an update whose table is unknown
+      mapper.touchParents();
+      mapper.insertChild(4, 3, "c4");
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals("[insertParent:2, insertChild:3, renameParent:1, insertParent:1, renameParent:1, touchParents:1, insertChild:1]",
+          describe(results));
+      assertEquals("renamed", mapper.getParentName(1));
+      assertEquals("p3", mapper.getParentName(3));
+    }
+  }
+
+  @Test
+  void shouldFlushEveryGivenNumberOfRows() {
+    sqlSessionFactory.getConfiguration().setBatchFlushRows(2);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 1; i <= 5; i++) {
+        mapper.insertParent(i, "p" + i);
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals("[insertParent:2, insertParent:2, insertParent:1]", describe(results));
+      assertTrue(sqlSession.flushStatements().isEmpty());
+    }
+  }
+
+  @Test
+  void shouldFlushWhenEstimatedBytesAreReached() {
+    // an int and ten characters are estimated at 28 bytes
+    sqlSessionFactory.getConfiguration().setBatchFlushBytes(50);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 1; i <= 3; i++) {
+        mapper.insertParent(i, "parent-00" + i);
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals("[insertParent:2, insertParent:1]", describe(results));
+    }
+  }
+
+  private static void insertInterleaved(Mapper mapper) {
+    for (int i = 1; i <= 3; i++) {
+      mapper.insertParent(i, "p" + i);
+      mapper.insertChild(i, i, "c" + i);
+    }
+  }
+
+  private static String describe(List<BatchResult> results) {
+    return results.stream()
+        .map(r -> r.getMappedStatement().getId().substring(Mapper.class.getName().length() + 1) + ":" + r.getUpdateCounts().length)
+        .collect(Collectors.toList()).toString();
+  }
+
+}
@@ -0,0 +1,129 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_load;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchLoadTest {
+
+  private static final List<String> statements = new ArrayList<>();
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_load/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    sqlSessionFactory.getConfiguration().addInterceptor(new StatementRecorder());
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_load/CreateDB.sql");
+  }
+
+  @BeforeEach
+  void clearStatements() {
+    statements.clear();
+  }
+
+  @Test
+  void shouldLoadSameResultsAsRowByRowLoading() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<String> expected = describe(mapper.selectBlogsRowByRow());
+      // one query per distinct author and one per blog
+      assertEquals(1 + 3 + 5, statements.size());
+      sqlSession.clearCache();
+      statements.clear();
+      assertEquals(expected, describe(mapper.selectBlogs()));
+      // three authors and five blogs, two per batch
+      assertEquals(1 + 2 + 3, statements.size());
+      assertEquals("[Blog 1 by 1:jim [1:Post 1, 2:Post 2], Blog 2 by 2:sally [3:Post 3], Blog 3 by 1:jim [], "
+          + "Blog 4 by 3:bob [4:Post 4], Blog 5 by null [5:Post 5]]", expected.toString());
+    }
+  }
+
+  @Test
+  void shouldLoadLazyPropertiesOfOtherRowsInSameBatch() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = sqlSession.getMapper(Mapper.class).selectBlogsLazily();
+      assertEquals(1, statements.size());
+      assertEquals("jim", blogs.get(0).getAuthor().getName());
+      assertEquals(2, statements.size());
+      // loaded with the author of the first blog
+      assertEquals("sally", blogs.get(1).getAuthor().getName());
+      assertEquals("jim", blogs.get(2).getAuthor().getName());
+      assertEquals(2, statements.size());
+      assertEquals("bob", blogs.get(3).getAuthor().getName());
+      assertEquals(3, statements.size());
+      // loaded with the first pending blog
+      assertEquals(1, blogs.get(3).getPosts().size());
+      assertEquals(2, blogs.get(0).getPosts().size());
+      assertEquals(4, statements.size());
+      assertEquals(0, blogs.get(2).getPosts().size());
+      assertEquals(5, statements.size());
+    }
+  }
+
+  @Test
+  void shouldHandOverCompleteResultsToResultHandler() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<String> handled = new ArrayList<>();
+      sqlSession.getMapper(Mapper.class).selectBlogs(context -> handled.add(context.getResultObject().describe()));
+      assertEquals("[Blog 1 by 1:jim [1:Post 1, 2:Post 2], Blog 2 by 2:sally [3:Post 3], Blog 3 by 1:jim [], "
+          + "Blog 4 by 3:bob [4:Post 4], Blog 5 by null [5:Post 5]]", handled.toString());
+    }
+  }
+
+  private static List<String> describe(List<Blog> blogs) {
+    return blogs.stream().map(Blog::describe).collect(Collectors.toList());
+  }
+
+  @Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}))
+  public static class StatementRecorder implements Interceptor {
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      statements.add(((StatementHandler) invocation.getTarget()).getBoundSql().getSql());
+      return invocation.proceed();
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+      // NOP
+    }
+  }
+
+}
@@ -0,0 +1,140 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.compiled_row_mapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.Reader;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.reflection.DefaultReflectorFactory;
+import org.apache.ibatis.reflection.GeneratedAccessorReflectorFactory;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CompiledRowMappingTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    // create an SqlSessionFactory
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/compiled_row_mapping/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/compiled_row_mapping/CreateDB.sql");
+  }
+
+  @BeforeEach
+  void resetState() {
+    sqlSessionFactory.getConfiguration().setCallSettersOnNulls(false);
+    sqlSessionFactory.getConfiguration().setReflectorFactory(new DefaultReflectorFactory());
+    CountingStringTypeHandler.byName = 0;
+    CountingStringTypeHandler.byIndex = 0;
+  }
+
+  @Test
+  void shouldMapRemainingRowsByColumnIndex() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = mapper.getUsers();
+      assertEquals(3, users.size());
+      assertEquals(Integer.valueOf(1), users.get(0).getId());
+      assertEquals("User1", users.get(0).getName());
+      assertEquals(1.5, users.get(0).getScore());
+      assertEquals("one", users.get(0).getNickname());
+      assertEquals(Integer.valueOf(2), users.get(1).getId());
+      assertEquals("User2", users.get(1).getName());
+      assertEquals(0.0, users.get(1).getScore());
+      assertNull(users.get(1).getNickname());
+      assertEquals(Integer.valueOf(3), users.get(2).getId());
+      assertNull(users.get(2).getName());
+      assertEquals(3.5, users.get(2).getScore());
+      assertEquals("three", users.get(2).getNickname());
+      assertEquals(1, CountingStringTypeHandler.byName);
+      assertEquals(2, CountingStringTypeHandler.byIndex);
+    }
+  }
+
+  @Test
+  void shouldMapRowsIntoMaps() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Map<String, Object>> users = mapper.getUsersAsMaps();
+      assertEquals(3, users.size());
+      assertEquals(1, users.get(0).get("ID"));
+      assertEquals("User2", users.get(1).get("NAME"));
+      assertFalse(users.get(1).containsKey("SCORE"));
+      assertFalse(users.get(2).containsKey("NAME"));
+    }
+  }
+
+  @Test
+  void shouldCallSettersOnNullsExceptForPrimitives() {
+    sqlSessionFactory.getConfiguration().setCallSettersOnNulls(true);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Map<String, Object>> maps = mapper.getUsersAsMaps();
+      assertTrue(maps.get(1).containsKey("SCORE"));
+      assertNull(maps.get(1).get("SCORE"));
+      List<User> users = mapper.getUsers();
+      assertEquals(0.0, users.get(1).getScore());
+      assertNull(users.get(2).getName());
+    }
+  }
+
+  @Test
+  void shouldMapPrimitivesThroughGeneratedSetters() {
+    sqlSessionFactory.getConfiguration().setReflectorFactory(new GeneratedAccessorReflectorFactory());
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Stats> stats = sqlSession.getMapper(Mapper.class).getStats();
+      assertEquals(3, stats.size());
+      assertEquals(1, stats.get(0).getId());
+      assertEquals(1.5, stats.get(0).getScore());
+      assertEquals(10L, stats.get(0).getVisits());
+      assertEquals(2, stats.get(1).getId());
+      assertEquals(0.0, stats.get(1).getScore());
+      assertEquals(0L, stats.get(1).getVisits());
+      assertEquals(3, stats.get(2).getId());
+      assertEquals(3.5, stats.get(2).getScore());
+      assertEquals(30L, stats.get(2).getVisits());
+    }
+  }
+
+  @Test
+  void shouldKeepConversionOfTypeHandlerSubclass() {
+    sqlSessionFactory.getConfiguration().setReflectorFactory(new GeneratedAccessorReflectorFactory());
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Stats> stats = sqlSession.getMapper(Mapper.class).getNegatedStats();
+      assertEquals(-1, stats.get(0).getId());
+      assertEquals(-2, stats.get(1).getId());
+      assertEquals(-3, stats.get(2).getId());
+      assertEquals(30L, stats.get(2).getVisits());
+    }
+  }
+
+}
@@ -0,0 +1,45 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.compiled_row_mapping;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.Results;
+import org.apache.ibatis.annotations.Select;
+
+public interface Mapper {
+
+  @Results({
+      @Result(column = "nick", property = "nickname", typeHandler = CountingStringTypeHandler.class)
+  })
+  @Select("select id, name, score, nick from users order by id")
+  List<User> getUsers();
+
+  @Select("select id, name, score from users order by id")
+  List<Map<String, Object>> getUsersAsMaps();
+
+  @Select("select id, score, visits from users order by id")
+  List<Stats> getStats();
+
+  @Results({
+      @Result(column = "id", property = "id", typeHandler = NegatingIntegerTypeHandler.class)
+  })
+  @Select("select id, score, visits from users order by id")
+  List<Stats> getNegatedStats();
+
+}
@@ -18,6 +18,7 @@ package org.apache.ibatis.submitted.cursor_nested;
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.reflection.SystemMetaObject;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
@@ -28,6 +29,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.Reader;
 import java.util.Iterator;
+import java.util.Map;
 
 class CursorNestedTest {
 
@@ -105,4 +107,31 @@ class CursorNestedTest {
       Assertions.assertTrue(usersCursor.isConsumed());
     }
   }
+
+  @Test
+  void shouldKeepOnlyNestedResultsOfCurrentUserWithOptions() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      Cursor<User> usersCursor = mapper.getAllUsersWithOptions();
+      Assertions.assertTrue(sqlSession.getConfiguration()
+          .getMappedStatement("org.apache.ibatis.submitted.cursor_nested.Mapper.getAllUsersWithOptions").isResultOrdered());
+
+      int[] groups = {2, 1, 3, 2};
+      int[] roles = {3, 3, 1, 2};
+      int count = 0;
+      for (User user : usersCursor) {
+        Assertions.assertEquals(groups[count], user.getGroups().size());
+        Assertions.assertEquals(roles[count], user.getRoles().size());
+        // at most one user with three groups and three roles
+        Assertions.assertTrue(getNestedResultObjects(usersCursor).size() <= 7);
+        count++;
+      }
+      Assertions.assertEquals(4, count);
+    }
+  }
+
+  private static Map<?, ?> getNestedResultObjects(Cursor<User> cursor) {
+    Object resultSetHandler = SystemMetaObject.forObject(cursor).getValue("resultSetHandler");
+    return (Map<?, ?>) SystemMetaObject.forObject(resultSetHandler).getValue("nestedResultObjects");
+  }
 }
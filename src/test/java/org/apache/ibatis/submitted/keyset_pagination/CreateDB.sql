@@ -0,0 +1,33 @@
+--
+--    Copyright 2009-2019 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+
+drop table post if exists;
+
+create table post (
+  id int primary key,
+  score int not null,
+  title varchar(20)
+);
+
+insert into post (id, score, title) values(1, 10, 'Post1');
+insert into post (id, score, title) values(2, 30, 'Post2');
+insert into post (id, score, title) values(3, 20, 'Post3');
+insert into post (id, score, title) values(4, 30, 'Post4');
+insert into post (id, score, title) values(5, 10, 'Post5');
+insert into post (id, score, title) values(6, 20, 'Post6');
+insert into post (id, score, title) values(7, 30, 'Post7');
+insert into post (id, score, title) values(8, 40, 'Post8');
@@ -0,0 +1,143 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.keyset_pagination;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.Page;
+import org.apache.ibatis.session.Seek;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class KeysetPaginationTest {
+
+  private static final List<String> statements = new ArrayList<>();
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/keyset_pagination/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    sqlSessionFactory.getConfiguration().addInterceptor(new StatementRecorder());
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/keyset_pagination/CreateDB.sql");
+  }
+
+  @BeforeEach
+  void clearStatements() {
+    statements.clear();
+  }
+
+  @Test
+  void shouldSeekPageAfterPage() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      Page<Post> page = mapper.getPosts(20, Seek.first(4).descending("score").ascending("id"));
+      assertEquals(Arrays.asList(8, 2, 4, 7), ids(page));
+      assertTrue(page.hasNext());
+      assertEquals(Arrays.asList(30, 7), page.getNextSeek().getValues());
+      assertEquals("select * from (select * from post where score >= ?) seek_query order by score desc, id asc LIMIT ?",
+          statements.get(0));
+
+      page = mapper.getPosts(20, page.getNextSeek());
+      assertEquals(Arrays.asList(3, 6), ids(page));
+      assertFalse(page.hasNext());
+      assertEquals("select * from (select * from post where score >= ?) seek_query"
+          + " where (score < ?) or (score = ? and id > ?) order by score desc, id asc LIMIT ?", statements.get(1));
+    }
+  }
+
+  @Test
+  void shouldEndOnFullLastPage() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Seek seek = Seek.first(4).ascending("id");
+      Page<Post> page = sqlSession.selectPage(Mapper.class.getName() + ".getPosts", 0, seek);
+      assertEquals(Arrays.asList(1, 2, 3, 4), ids(page));
+      page = sqlSession.selectPage(Mapper.class.getName() + ".getPosts", 0, page.getNextSeek());
+      assertEquals(Arrays.asList(5, 6, 7, 8), ids(page));
+      assertFalse(page.hasNext());
+    }
+  }
+
+  @Test
+  void shouldNotShareCachedPages() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      Seek seek = Seek.first(2).ascending("id");
+      assertEquals(Arrays.asList(1, 2), ids(mapper.getPosts(0, seek)));
+      assertEquals(Arrays.asList(5, 6), ids(mapper.getPosts(0, seek.after(4))));
+      assertEquals(Arrays.asList(7, 8), ids(mapper.getPosts(0, seek.after(6))));
+      assertEquals(Arrays.asList(5, 6), ids(mapper.getPosts(0, seek.after(4))));
+      assertEquals(3, statements.size());
+    }
+  }
+
+  @Test
+  void shouldRequirePageReturnType() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThrows(BindingException.class, () -> mapper.getPostsWithoutPage(Seek.first(2).ascending("id")));
+    }
+  }
+
+  @Test
+  void shouldRejectInvalidSeeks() {
+    assertThrows(IllegalArgumentException.class, () -> Seek.first(0));
+    assertThrows(IllegalArgumentException.class, () -> Seek.first(2).ascending("id").after(1, 2));
+    assertThrows(IllegalStateException.class, () -> Seek.first(2).ascending("id").after(1).ascending("score"));
+  }
+
+  private static List<Integer> ids(Page<Post> page) {
+    return page.getItems().stream().map(Post::getId).collect(Collectors.toList());
+  }
+
+  @Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}))
+  public static class StatementRecorder implements Interceptor {
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      statements.add(((StatementHandler) invocation.getTarget()).getBoundSql().getSql());
+      return invocation.proceed();
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+      // NOP
+    }
+  }
+
+}
@@ -0,0 +1,145 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.server_side_pagination;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.PageRowBounds;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ServerSidePaginationTest {
+
+  private static final List<String> statements = new ArrayList<>();
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/server_side_pagination/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    sqlSessionFactory.getConfiguration().addInterceptor(new StatementRecorder());
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/server_side_pagination/CreateDB.sql");
+  }
+
+  @BeforeEach
+  void clearStatements() {
+    statements.clear();
+  }
+
+  @Test
+  void shouldPageInDatabase() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsers(2, new RowBounds(3, 2));
+      assertEquals(Arrays.asList(6, 7), ids(users));
+      assertEquals(1, statements.size());
+      assertTrue(statements.get(0).endsWith("order by id LIMIT ? OFFSET ?"), statements.get(0));
+    }
+  }
+
+  @Test
+  void shouldShareSqlOfPages() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertEquals(Arrays.asList(4, 5), ids(mapper.getUsers(2, new RowBounds(1, 2))));
+      assertEquals(Arrays.asList(8, 9, 10), ids(mapper.getUsers(2, new RowBounds(5, 3))));
+      assertEquals(2, statements.size());
+      assertEquals(statements.get(0), statements.get(1));
+    }
+  }
+
+  @Test
+  void shouldKeepAdditionalParameters() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsersIn(Arrays.asList(2, 4, 6, 8), new RowBounds(1, 2));
+      assertEquals(Arrays.asList(4, 6), ids(users));
+    }
+  }
+
+  @Test
+  void shouldNotPageWithoutRowBounds() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(8, sqlSession.getMapper(Mapper.class).getUsers(2, RowBounds.DEFAULT).size());
+      assertFalse(statements.get(0).contains("LIMIT"));
+    }
+  }
+
+  @Test
+  void shouldCountTotalOfPage() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      PageRowBounds page = new PageRowBounds(6, 4);
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsers(0, page);
+      assertEquals(Arrays.asList(7, 8, 9, 10), ids(users));
+      assertEquals(Long.valueOf(10), page.getTotal());
+      assertEquals(2, statements.size());
+      assertEquals("select count(*) from (select * from users where id > ? order by id) count_query", statements.get(0));
+    }
+  }
+
+  @Test
+  void shouldPageOnClientWhenDisabled() {
+    sqlSessionFactory.getConfiguration().setPaginationEnabled(false);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      PageRowBounds page = new PageRowBounds(6, 4);
+      assertEquals(Arrays.asList(7, 8, 9, 10), ids(sqlSession.getMapper(Mapper.class).getUsers(0, page)));
+      assertEquals(Long.valueOf(10), page.getTotal());
+      assertFalse(statements.get(1).contains("LIMIT"));
+    } finally {
+      sqlSessionFactory.getConfiguration().setPaginationEnabled(true);
+    }
+  }
+
+  private static List<Integer> ids(List<User> users) {
+    return users.stream().map(User::getId).collect(Collectors.toList());
+  }
+
+  @Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}))
+  public static class StatementRecorder implements Interceptor {
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      statements.add(((StatementHandler) invocation.getTarget()).getBoundSql().getSql());
+      return invocation.proceed();
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+      // NOP
+    }
+  }
+
+}
@@ -0,0 +1,135 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.statement_metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.Reader;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.metrics.DefaultStatementMetrics;
+import org.apache.ibatis.executor.metrics.StatementMetricsSnapshot;
+import org.apache.ibatis.executor.metrics.StatementPhase;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StatementMetricsTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  private DefaultStatementMetrics metrics;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/statement_metrics/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/statement_metrics/CreateDB.sql");
+    metrics = (DefaultStatementMetrics) sqlSessionFactory.getConfiguration().getStatementMetrics();
+  }
+
+  @Test
+  void shouldRecordPhasesAndRows() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertEquals(3, mapper.getUsers().size());
+      sqlSession.clearCache();
+      assertEquals(3, mapper.getUsers().size());
+    }
+    StatementMetricsSnapshot snapshot = metrics.getSnapshot(Mapper.class.getName() + ".getUsers");
+    assertEquals(2, snapshot.getExecutions());
+    assertEquals(6, snapshot.getRows());
+    assertEquals(0, snapshot.getErrors());
+    for (StatementPhase phase : StatementPhase.values()) {
+      assertEquals(2, snapshot.getPhase(phase).getCount(), phase.name());
+    }
+  }
+
+  @Test
+  void shouldRecordUpdates() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      User user = new User();
+      user.setId(4);
+      user.setName("User4");
+      assertEquals(1, sqlSession.getMapper(Mapper.class).insertUser(user));
+      sqlSession.rollback(true);
+    }
+    StatementMetricsSnapshot snapshot = metrics.getSnapshot(Mapper.class.getName() + ".insertUser");
+    assertEquals(1, snapshot.getExecutions());
+    assertEquals(0, snapshot.getRows());
+    assertEquals(0, snapshot.getPhase(StatementPhase.MAP_RESULTS).getCount());
+  }
+
+  @Test
+  void shouldRecordBatchExecutionsAndErrors() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.insertUser(newUser(4));
+      mapper.insertUser(newUser(5));
+      sqlSession.flushStatements();
+      mapper.insertUser(newUser(6));
+      mapper.insertUser(newUser(1));
+      assertThrows(PersistenceException.class, sqlSession::flushStatements);
+      sqlSession.rollback(true);
+    }
+    StatementMetricsSnapshot snapshot = metrics.getSnapshot(Mapper.class.getName() + ".insertUser");
+    assertEquals(1, snapshot.getPhase(StatementPhase.EXECUTE).getCount());
+    assertEquals(1, snapshot.getErrors());
+  }
+
+  @Test
+  void shouldRecordLocalAndSecondLevelCacheHits() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.getUsers();
+      mapper.getUsers();
+      mapper.getUser(1);
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals("User1", sqlSession.getMapper(Mapper.class).getUser(1).getName());
+    }
+    assertEquals(1, metrics.getSnapshot(Mapper.class.getName() + ".getUsers").getCacheHits());
+    StatementMetricsSnapshot snapshot = metrics.getSnapshot(Mapper.class.getName() + ".getUser");
+    assertEquals(1, snapshot.getExecutions());
+    assertEquals(1, snapshot.getCacheHits());
+  }
+
+  @Test
+  void shouldRecordErrors() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThrows(PersistenceException.class, mapper::getMissingUsers);
+    }
+    StatementMetricsSnapshot snapshot = metrics.getSnapshot(Mapper.class.getName() + ".getMissingUsers");
+    assertEquals(1, snapshot.getErrors());
+    assertEquals(0, snapshot.getExecutions());
+  }
+
+  private static User newUser(int id) {
+    User user = new User();
+    user.setId(id);
+    user.setName("User" + id);
+    return user;
+  }
+
+}
@@ -0,0 +1,48 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.table_cache_invalidation;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.CacheNamespace;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+@CacheNamespace
+public interface BlogMapper {
+
+  @Select("select title from blog order by id")
+  List<String> selectTitles();
+
+  @Select("select b.title || ' by ' || a.name from blog b join author a on a.id = b.author_id order by b.id")
+  List<String> selectTitlesWithAuthors();
+
+  @Select("select title from blog_titles order by title")
+  @Options(tables = "blog")
+  List<String> selectTitlesFromView();
+
+  @Update("update blog set title = #{title} where id = #{id}")
+  int updateTitle(@Param("id") int id, @Param("title") String title);
+
+  @Update("<script><choose>"
+      + "<when test='author'>update author set name = #{name} where id = #{id}</when>"
+      + "<otherwise>update blog set title = #{name} where id = #{id}</otherwise>"
+      + "</choose></script>")
+  int rename(@Param("id") int id, @Param("name") String name, @Param("author") boolean author);
+
+}
@@ -0,0 +1,190 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.table_cache_invalidation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TableCacheInvalidationTest {
+
+  private static final List<String> statements = new ArrayList<>();
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/table_cache_invalidation/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    sqlSessionFactory.getConfiguration().addInterceptor(new StatementRecorder());
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/table_cache_invalidation/CreateDB.sql");
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      selectAll(sqlSession);
+    }
+    statements.clear();
+  }
+
+  @Test
+  void shouldInvalidateOnlyResultsReadFromWrittenTables() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(AuthorMapper.class).updateName(1, "bob");
+      sqlSession.commit();
+    }
+    statements.clear();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      BlogMapper blogMapper = sqlSession.getMapper(BlogMapper.class);
+      assertEquals(Arrays.asList("Blog1", "Blog2"), blogMapper.selectTitles());
+      assertEquals(Arrays.asList("Blog1", "Blog2"), blogMapper.selectTitlesFromView());
+      assertEquals(0, statements.size());
+      // read from the written table of another namespace
+      assertEquals(Arrays.asList("Blog1 by bob", "Blog2 by sally"), blogMapper.selectTitlesWithAuthors());
+      assertEquals(Arrays.asList("bob", "sally"), sqlSession.getMapper(AuthorMapper.class).selectNames());
+      assertEquals(2, statements.size());
+    }
+  }
+
+  @Test
+  void shouldInvalidateResultsReadFromDeclaredTables() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(BlogMapper.class).updateTitle(1, "Blog3");
+      sqlSession.commit();
+    }
+    statements.clear();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      BlogMapper blogMapper = sqlSession.getMapper(BlogMapper.class);
+      assertEquals(Arrays.asList("Blog2", "Blog3"), blogMapper.selectTitlesFromView());
+      assertEquals(Arrays.asList("jim", "sally"), sqlSession.getMapper(AuthorMapper.class).selectNames());
+      assertEquals(1, statements.size());
+    }
+  }
+
+  @Test
+  void shouldReadOwnWritesAndKeepResultsOnRollback() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      BlogMapper blogMapper = sqlSession.getMapper(BlogMapper.class);
+      blogMapper.updateTitle(1, "Blog3");
+      assertEquals(Arrays.asList("Blog3", "Blog2"), blogMapper.selectTitles());
+      sqlSession.rollback();
+    }
+    statements.clear();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(Arrays.asList("Blog1", "Blog2"), sqlSession.getMapper(BlogMapper.class).selectTitles());
+      assertEquals(0, statements.size());
+    }
+  }
+
+  @Test
+  void shouldMatchTablesWithAndWithoutSchema() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(AuthorMapper.class).updateName(1, "bob");
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(Arrays.asList("bob", "sally"), sqlSession.getMapper(AuthorMapper.class).selectNamesOfSchema());
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(AuthorMapper.class).updateNameInSchema(2, "ann");
+      sqlSession.commit();
+    }
+    statements.clear();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(Arrays.asList("bob", "ann"), sqlSession.getMapper(AuthorMapper.class).selectNames());
+      assertEquals(Arrays.asList("bob", "ann"), sqlSession.getMapper(AuthorMapper.class).selectNamesOfSchema());
+      assertEquals(2, statements.size());
+    }
+  }
+
+  @Test
+  void shouldInvalidateTablesOfEachDynamicUpdate() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(BlogMapper.class).rename(1, "Blog3", false);
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(Arrays.asList("Blog3", "Blog2"), sqlSession.getMapper(BlogMapper.class).selectTitles());
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(BlogMapper.class).rename(1, "bob", true);
+      sqlSession.commit();
+    }
+    statements.clear();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(Arrays.asList("Blog3", "Blog2"), sqlSession.getMapper(BlogMapper.class).selectTitles());
+      assertEquals(0, statements.size());
+      assertEquals(Arrays.asList("bob", "sally"), sqlSession.getMapper(AuthorMapper.class).selectNames());
+      assertEquals(1, statements.size());
+    }
+  }
+
+  @Test
+  void shouldParseTablesOnceForSameSql() {
+    MappedStatement ms = sqlSessionFactory.getConfiguration()
+        .getMappedStatement("org.apache.ibatis.submitted.table_cache_invalidation.BlogMapper.selectTitlesWithAuthors");
+    BoundSql boundSql = ms.getBoundSql(null);
+    assertArrayEquals(new String[] {"BLOG", "AUTHOR"}, ms.getReadTables(boundSql));
+    assertSame(ms.getReadTables(boundSql), ms.getReadTables(ms.getBoundSql(null)));
+    MappedStatement update = sqlSessionFactory.getConfiguration()
+        .getMappedStatement("org.apache.ibatis.submitted.table_cache_invalidation.AuthorMapper.updateNameInSchema");
+    assertArrayEquals(new String[] {"AUTHOR"}, update.getWrittenTables(null));
+    assertSame(update.getWrittenTables(null), update.getWrittenTables(null));
+  }
+
+  private static void selectAll(SqlSession sqlSession) {
+    BlogMapper blogMapper = sqlSession.getMapper(BlogMapper.class);
+    blogMapper.selectTitles();
+    blogMapper.selectTitlesWithAuthors();
+    blogMapper.selectTitlesFromView();
+    sqlSession.getMapper(AuthorMapper.class).selectNames();
+    sqlSession.getMapper(AuthorMapper.class).selectNamesOfSchema();
+  }
+
+  @Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}))
+  public static class StatementRecorder implements Interceptor {
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      statements.add(((StatementHandler) invocation.getTarget()).getBoundSql().getSql());
+      return invocation.proceed();
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+      // NOP
+    }
+  }
+
+}